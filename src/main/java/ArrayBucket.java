@@ -0,0 +1,124 @@
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Cubeta respaldada por arrays pequeños que crecen según se necesita: un long[] con los hashes
+ * y un KeyValue[] con los pares, en el mismo orden. Como casi todas las cubetas tienen un solo par,
+ * ese par se guarda directamente en la cubeta y los arrays se reservan al insertar el segundo.
+ * Frente a ListaDinamica ahorra un Node por par y recorre la cadena sobre memoria contigua,
+ * comparando hashes primitivos antes de leer cada par.
+ */
+public class ArrayBucket implements Bucket {
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_CAPACITY = 2; // Capacidad de los arrays al reservarlos
+
+    private KeyValue single; // Único par de la cubeta mientras no se han reservado los arrays
+    private long[] hashes; // Hash de cada par, o null si la cubeta tiene como mucho un par
+    private KeyValue[] entries; // Pares en orden de inserción, o null si la cubeta tiene como mucho un par
+    private int size; // Número de pares de la cubeta
+
+    /**
+     * Obtiene el par de una posición.
+     */
+    private KeyValue entryAt(int i) {
+        return entries == null ? single : entries[i];
+    }
+
+    /**
+     * Busca la posición del par con la clave dada.
+     *
+     * @param hash hash completo de la clave.
+     * @param key  clave a buscar.
+     * @return posición del par, o -1 si no está en la cubeta.
+     */
+    private int indexOf(long hash, String key) {
+        if (entries == null) {
+            return single != null && single.getHash() == hash && single.getKey().equals(key) ? 0 : -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (hashes[i] == hash && entries[i].getKey().equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public KeyValue find(long hash, String key) {
+        int i = indexOf(hash, key);
+        return i == -1 ? null : entryAt(i);
+    }
+
+    @Override
+    public KeyValue putIfAbsent(KeyValue kv) {
+        int i = indexOf(kv.getHash(), kv.getKey());
+        if (i != -1) {
+            return entryAt(i);
+        }
+        if (entries == null && size == 0) {
+            single = kv;
+        } else {
+            if (entries == null) {
+                // Segundo par: reservar los arrays y mover a ellos el par guardado en la cubeta
+                hashes = new long[INITIAL_CAPACITY];
+                entries = new KeyValue[INITIAL_CAPACITY];
+                hashes[0] = single.getHash();
+                entries[0] = single;
+                single = null;
+            } else if (size == entries.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            hashes[size] = kv.getHash();
+            entries[size] = kv;
+        }
+        size++;
+        return null;
+    }
+
+    @Override
+    public boolean set(KeyValue kv) {
+        int i = indexOf(kv.getHash(), kv.getKey());
+        if (i == -1) {
+            return false;
+        }
+        if (entries == null) {
+            single = kv;
+        } else {
+            entries[i] = kv;
+        }
+        return true;
+    }
+
+    @Override
+    public KeyValue remove(long hash, String key) {
+        int i = indexOf(hash, key);
+        if (i == -1) {
+            return null;
+        }
+        KeyValue removed = entryAt(i);
+        if (entries == null) {
+            single = null;
+        } else {
+            // Desplazar los pares siguientes para conservar el orden de inserción
+            System.arraycopy(hashes, i + 1, hashes, i, size - i - 1);
+            System.arraycopy(entries, i + 1, entries, i, size - i - 1);
+            entries[size - 1] = null;
+        }
+        size--;
+        return removed;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<KeyValue> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(entryAt(i));
+        }
+    }
+}
@@ -0,0 +1,291 @@
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fachada asíncrona sobre varias tablas HashTable o StaticHashTable (fragmentos). Cada clave pertenece
+ * a un fragmento según su hash, y todas las operaciones devuelven un CompletableFuture.
+ * <p>
+ * Cada fragmento tiene un carril: una cola que ejecuta sus tareas de una en una y en orden de llegada
+ * sobre el ejecutor de la fachada. Así las tablas, que no son seguras para varios hilos, se usan sin
+ * cerrojos: quien llama nunca espera a otro hilo, solo encola la tarea, y un reHash o una escritura de
+ * ficheros larga en un fragmento no bloquea al hilo que llama ni retrasa a los demás fragmentos.
+ * <p>
+ * La escritura de ficheros está en {@link PersistentAsyncHashTable}, que solo admite fragmentos HashTable,
+ * los que tienen persistencia.
+ * <p>
+ * Por defecto el ejecutor crea un hilo virtual por tarea. En una JVM sin hilos virtuales (anterior a
+ * Java 21, o Java 19-20 sin --enable-preview) se usan hilos de plataforma demonio reutilizables.
+ */
+public class AsyncHashTable implements AutoCloseable {
+    private static final int LANE_BATCH = 64; // Tareas que ejecuta un carril antes de ceder su hilo
+
+    private final Shard[] shards; // Fragmentos; cada uno se usa solo desde su carril
+    private final Lane[] lanes; // Carril de cada fragmento
+    private final ExecutorService ownExecutor; // Ejecutor creado por la fachada, o null si lo aporta quien llama
+
+    /**
+     * Constructor para AsyncHashTable sobre tablas HashTable, con un ejecutor de hilos virtuales propio.
+     * A partir de aquí las tablas solo deben usarse a través de la fachada.
+     *
+     * @param tables fragmentos de la tabla.
+     */
+    public AsyncHashTable(HashTable... tables) {
+        this(newExecutor(), true, wrap(tables));
+    }
+
+    /**
+     * Constructor para AsyncHashTable sobre tablas StaticHashTable, con un ejecutor de hilos virtuales propio.
+     * A partir de aquí las tablas solo deben usarse a través de la fachada.
+     *
+     * @param tables fragmentos de la tabla.
+     */
+    public AsyncHashTable(StaticHashTable... tables) {
+        this(newExecutor(), true, wrap(tables));
+    }
+
+    /**
+     * Constructor para AsyncHashTable sobre tablas HashTable con un ejecutor dado, que close no cierra.
+     *
+     * @param executor ejecutor de las tareas.
+     * @param tables   fragmentos de la tabla.
+     */
+    public AsyncHashTable(Executor executor, HashTable... tables) {
+        this(executor, false, wrap(tables));
+    }
+
+    /**
+     * Constructor para AsyncHashTable sobre tablas StaticHashTable con un ejecutor dado, que close no cierra.
+     *
+     * @param executor ejecutor de las tareas.
+     * @param tables   fragmentos de la tabla.
+     */
+    public AsyncHashTable(Executor executor, StaticHashTable... tables) {
+        this(executor, false, wrap(tables));
+    }
+
+    private AsyncHashTable(Executor executor, boolean own, Shard[] shards) {
+        if (shards.length == 0) {
+            throw new IllegalArgumentException("Se necesita al menos un fragmento");
+        }
+        this.shards = shards;
+        this.lanes = new Lane[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            lanes[i] = new Lane(executor);
+        }
+        this.ownExecutor = own ? (ExecutorService) executor : null;
+    }
+
+    private static Shard[] wrap(HashTable[] tables) {
+        Shard[] shards = new Shard[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            shards[i] = new HashTableShard(tables[i]);
+        }
+        return shards;
+    }
+
+    private static Shard[] wrap(StaticHashTable[] tables) {
+        Shard[] shards = new Shard[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            shards[i] = new StaticHashTableShard(tables[i]);
+        }
+        return shards;
+    }
+
+    /**
+     * Crea un ejecutor con un hilo virtual por tarea. Executors.newVirtualThreadPerTaskExecutor se busca
+     * por reflexión para que la clase compile y funcione también en JVM sin hilos virtuales.
+     *
+     * @return el ejecutor.
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Sin hilos virtuales (método inexistente, o en preview sin habilitar): hilos de plataforma demonio
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "async-hashtable");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Obtiene el fragmento de una clave a partir de String.hashCode mezclado con fmix64. La cadena guarda su
+     * hashCode, así que no se recorre la clave otra vez con la función hash que luego aplica el fragmento; y
+     * como es independiente de esa función, las claves de un fragmento no se concentran en unas pocas cubetas.
+     */
+    private int shardFor(String key) {
+        long h = CapacityMode.fmix64(key.hashCode());
+        return (int) ((h >>> 32) % shards.length);
+    }
+
+    /**
+     * Ejecuta una tarea en el carril de un fragmento.
+     */
+    <T> CompletableFuture<T> submit(int shard, Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, lanes[shard]);
+    }
+
+    /**
+     * Inserta un par clave-valor de forma asíncrona.
+     *
+     * @param key   clave a insertar.
+     * @param value valor asociado a la clave.
+     * @return futuro con el resultado de put en la tabla del fragmento (HashTable no sobrescribe una
+     * clave existente y devuelve falso; StaticHashTable actualiza su valor).
+     */
+    public CompletableFuture<Boolean> putAsync(String key, Object value) {
+        int shard = shardFor(key);
+        return submit(shard, () -> shards[shard].put(key, value));
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave de forma asíncrona.
+     *
+     * @param key clave a buscar.
+     * @return futuro con el valor asociado a la clave, o null si la clave no se encuentra en la tabla.
+     */
+    public CompletableFuture<Object> getAsync(String key) {
+        int shard = shardFor(key);
+        return submit(shard, () -> shards[shard].get(key));
+    }
+
+    /**
+     * Elimina una clave de forma asíncrona.
+     *
+     * @param key clave a eliminar.
+     * @return futuro con verdadero si la eliminación fue exitosa, falso si la clave no se encuentra en la tabla.
+     */
+    public CompletableFuture<Boolean> removeAsync(String key) {
+        int shard = shardFor(key);
+        return submit(shard, () -> shards[shard].remove(key));
+    }
+
+    /**
+     * Cierra el ejecutor propio, si lo hay. Las tareas ya encoladas se siguen ejecutando: un carril que
+     * encuentra el ejecutor cerrado termina de vaciar su cola en el hilo en el que está.
+     */
+    @Override
+    public void close() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Carril de un fragmento: ejecuta sus tareas de una en una y en orden de llegada. No usa cerrojos
+     * (que fijarían un hilo virtual a su hilo portador): el contador de tareas pendientes decide qué
+     * llamada pone en marcha el carril, y solo hay un hilo vaciando la cola a la vez.
+     */
+    private static final class Lane implements Executor {
+        private final Executor executor; // Ejecutor sobre el que corre el carril
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>(); // Tareas encoladas
+        private final AtomicInteger pending = new AtomicInteger(); // Tareas encoladas y no terminadas
+
+        Lane(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+            if (pending.getAndIncrement() == 0) {
+                // El carril estaba parado: ponerlo en marcha
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    drain(); // Ejecutor cerrado: el carril corre en el hilo que llama
+                }
+            }
+        }
+
+        /**
+         * Ejecuta tareas hasta vaciar la cola. Tras LANE_BATCH tareas cede el hilo volviendo a enviarse
+         * al ejecutor, para que un fragmento muy cargado no monopolice un hilo de plataforma; si el
+         * ejecutor ya está cerrado y rechaza el envío, sigue vaciando la cola en este hilo.
+         * Las tareas vienen de CompletableFuture.supplyAsync, que captura sus excepciones en el futuro.
+         */
+        private void drain() {
+            while (true) {
+                for (int n = 0; n < LANE_BATCH; n++) {
+                    tasks.poll().run();
+                    if (pending.decrementAndGet() == 0) {
+                        return;
+                    }
+                }
+                try {
+                    executor.execute(this::drain);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Ejecutor cerrado: seguir en este hilo
+                }
+            }
+        }
+    }
+
+    /**
+     * Operaciones de un fragmento, comunes a HashTable y StaticHashTable.
+     */
+    private interface Shard {
+        boolean put(String key, Object value);
+
+        Object get(String key);
+
+        boolean remove(String key);
+    }
+
+    private static final class HashTableShard implements Shard {
+        private final HashTable table;
+
+        HashTableShard(HashTable table) {
+            this.table = table;
+        }
+
+        @Override
+        public boolean put(String key, Object value) {
+            return table.put(new KeyValue(key, value));
+        }
+
+        @Override
+        public Object get(String key) {
+            KeyValue kv = table.get(key);
+            return kv == null ? null : kv.getValue();
+        }
+
+        @Override
+        public boolean remove(String key) {
+            return table.remove(key);
+        }
+    }
+
+    private static final class StaticHashTableShard implements Shard {
+        private final StaticHashTable table;
+
+        StaticHashTableShard(StaticHashTable table) {
+            this.table = table;
+        }
+
+        @Override
+        public boolean put(String key, Object value) {
+            return table.put(key, value);
+        }
+
+        @Override
+        public Object get(String key) {
+            return table.get(key);
+        }
+
+        @Override
+        public boolean remove(String key) {
+            return table.remove(key);
+        }
+    }
+}
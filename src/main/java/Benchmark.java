@@ -0,0 +1,830 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Pruebas de rendimiento en tiempo real (nanosegundos) de las tablas hash.
+ * A diferencia de Tester, que cuenta pasos de tiempo y memoria, esta clase mide
+ * el tiempo de reloj de las operaciones para comparar configuraciones entre sí.
+ */
+public class Benchmark {
+    private static final int REPETICIONES = 5; // Repeticiones de cada medida (la primera sirve de calentamiento)
+
+    /**
+     * Ejecuta todas las pruebas de rendimiento.
+     *
+     * @param args args[0] opcional: número de claves (por defecto 1.000.000).
+     */
+    public static void main(String[] args) {
+        int numClaves = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] claves = generarClaves(numClaves);
+
+        compararModosCapacidad(claves);
+        compararModosRedimensionado(claves);
+        compararRedimensionadoParalelo(1_000_000, 10_000_000, 50_000_000);
+        compararLecturasDireccionamientoAbierto(claves);
+        compararDisposiciones(claves);
+        compararClavesPrimitivas(numClaves);
+        compararTiposCubeta(claves);
+        compararLotes(claves);
+        compararCompactacion(claves);
+        compararCodificaciones(Arrays.copyOf(claves, Math.min(claves.length, 100_000)));
+        compararPersistencia(Arrays.copyOf(claves, Math.min(claves.length, 100_000)));
+        compararRegistro(Arrays.copyOf(claves, Math.min(claves.length, 20_000)));
+        compararImportacion(claves);
+        compararConcurrencia(claves);
+        compararLockFree(claves);
+        compararAsincrono(claves);
+    }
+
+    /**
+     * Compara el modo de capacidad con tamaños primos y módulo frente al modo con potencias de dos
+     * y máscara de bits, en HashTable y en StaticHashTable. Ambas tablas empiezan pequeñas para
+     * que el tiempo de inserción incluya todos los redimensionados.
+     *
+     * @param claves claves a insertar y buscar.
+     */
+    private static void compararModosCapacidad(String[] claves) {
+        System.out.println("MODOS DE CAPACIDAD (" + claves.length + " claves) ------------------------------");
+        for (CapacityMode modo : CapacityMode.values()) {
+            long mejorPut = Long.MAX_VALUE, mejorGet = Long.MAX_VALUE;
+            long mejorPutEstatica = Long.MAX_VALUE, mejorGetEstatica = Long.MAX_VALUE;
+            for (int r = 0; r < REPETICIONES; r++) {
+                HashTable dinamica = new HashTable(16, 0.75, HashFunction.MURMUR3, modo);
+                long inicio = System.nanoTime();
+                for (String clave : claves) {
+                    dinamica.put(new KeyValue(clave, clave));
+                }
+                mejorPut = Math.min(mejorPut, System.nanoTime() - inicio);
+                inicio = System.nanoTime();
+                for (String clave : claves) {
+                    dinamica.get(clave);
+                }
+                mejorGet = Math.min(mejorGet, System.nanoTime() - inicio);
+
+                StaticHashTable estatica = new StaticHashTable(16, 0.5, HashFunction.MURMUR3, modo);
+                inicio = System.nanoTime();
+                for (String clave : claves) {
+                    estatica.put(clave, clave);
+                }
+                mejorPutEstatica = Math.min(mejorPutEstatica, System.nanoTime() - inicio);
+                inicio = System.nanoTime();
+                for (String clave : claves) {
+                    estatica.get(clave);
+                }
+                mejorGetEstatica = Math.min(mejorGetEstatica, System.nanoTime() - inicio);
+            }
+            System.out.println(modo + ": HashTable put " + nsPorOperacion(mejorPut, claves.length)
+                    + " ns/op, get " + nsPorOperacion(mejorGet, claves.length)
+                    + " ns/op | StaticHashTable put " + nsPorOperacion(mejorPutEstatica, claves.length)
+                    + " ns/op, get " + nsPorOperacion(mejorGetEstatica, claves.length) + " ns/op");
+        }
+    }
+
+    /**
+     * Compara la latencia de put en HashTable con redimensionado de una vez frente al redimensionado
+     * incremental. Mide cada put por separado y muestra los percentiles 50, 99 y 99,99 y el máximo.
+     *
+     * @param claves claves a insertar.
+     */
+    private static void compararModosRedimensionado(String[] claves) {
+        System.out.println("MODOS DE REDIMENSIONADO (" + claves.length + " claves) --------------------------");
+        long[] latencias = new long[claves.length];
+        for (ResizeMode modo : ResizeMode.values()) {
+            for (int r = 0; r < REPETICIONES; r++) {
+                HashTable tabla = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+                tabla.setResizeMode(modo);
+                for (int i = 0; i < claves.length; i++) {
+                    long inicio = System.nanoTime();
+                    tabla.put(new KeyValue(claves[i], claves[i]));
+                    latencias[i] = System.nanoTime() - inicio;
+                }
+            }
+            Arrays.sort(latencias);
+            System.out.println(modo + ": put p50 " + latencias[(int) (latencias.length * 0.50)]
+                    + " ns, p99 " + latencias[(int) (latencias.length * 0.99)]
+                    + " ns, p99.99 " + latencias[(int) (latencias.length * 0.9999)]
+                    + " ns, máximo " + latencias[latencias.length - 1] + " ns");
+        }
+    }
+
+    /**
+     * Mide lo que tarda el reHash de HashTable (potencias de dos) en modo STOP_THE_WORLD y PARALLEL sobre
+     * tablas de varios tamaños: llena la tabla justo hasta su factor de carga y cronometra el put que lo
+     * supera. Con 50 millones de pares se necesitan varios GB de montículo (por ejemplo -Xmx24g); si no
+     * hay memoria suficiente para un tamaño, se indica y se sigue con el siguiente. La ganancia de PARALLEL
+     * depende del número de núcleos: en una máquina de un solo núcleo los dos modos tardan lo mismo y las
+     * diferencias son ruido del recolector, así que el escalado hay que medirlo en una máquina con varios.
+     *
+     * @param tamanos números de pares de las tablas.
+     */
+    private static void compararRedimensionadoParalelo(int... tamanos) {
+        System.out.println("REDIMENSIONADO PARALELO (" + ForkJoinPool.commonPool().getParallelism()
+                + " hilos) -------------------------------------------");
+        for (int tamano : tamanos) {
+            StringBuilder linea = new StringBuilder(tamano + " pares:");
+            try {
+                for (ResizeMode modo : new ResizeMode[]{ResizeMode.STOP_THE_WORLD, ResizeMode.PARALLEL}) {
+                    int capacidad = CapacityMode.POWER_OF_TWO.initialCapacity((int) Math.ceil(tamano / 0.75));
+                    HashTable tabla = new HashTable(capacidad, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+                    tabla.setResizeMode(modo);
+                    int llenado = (int) (capacidad * 0.75); // Pares que caben sin superar el factor de carga
+                    for (int i = 0; i < llenado; i++) {
+                        tabla.put(new KeyValue("k" + i, i));
+                    }
+                    long inicio = System.nanoTime();
+                    tabla.put(new KeyValue("k" + llenado, llenado)); // Supera el factor de carga: reHash
+                    linea.append(" ").append(modo).append(" ").append((System.nanoTime() - inicio) / 1_000_000).append(" ms");
+                }
+            } catch (OutOfMemoryError e) {
+                linea.append(" memoria insuficiente (aumentar -Xmx)");
+            }
+            System.out.println(linea);
+        }
+    }
+
+    /**
+     * Compara las búsquedas en StaticHashTable, RobinHoodHashTable y SwissHashTable, tanto de claves
+     * presentes como ausentes. Las tablas se llenan una vez y se miden solo las lecturas.
+     *
+     * @param claves claves a insertar y buscar.
+     */
+    private static void compararLecturasDireccionamientoAbierto(String[] claves) {
+        System.out.println("LECTURAS EN DIRECCIONAMIENTO ABIERTO (" + claves.length + " claves) -------------");
+        String[] ausentes = new String[claves.length];
+        for (int i = 0; i < claves.length; i++) {
+            ausentes[i] = claves[i] + "#";
+        }
+        StaticHashTable estatica = new StaticHashTable(16, 0.5, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+        RobinHoodHashTable robinHood = new RobinHoodHashTable(16, 0.875);
+        SwissHashTable swiss = new SwissHashTable(16, 0.875);
+        for (String clave : claves) {
+            estatica.put(clave, clave);
+            robinHood.put(clave, clave);
+            swiss.put(clave, clave);
+        }
+        long[] acierto = new long[3], fallo = new long[3];
+        Arrays.fill(acierto, Long.MAX_VALUE);
+        Arrays.fill(fallo, Long.MAX_VALUE);
+        for (int r = 0; r < REPETICIONES; r++) {
+            for (int motor = 0; motor < 3; motor++) {
+                long inicio = System.nanoTime();
+                leer(motor, estatica, robinHood, swiss, claves);
+                acierto[motor] = Math.min(acierto[motor], System.nanoTime() - inicio);
+                inicio = System.nanoTime();
+                leer(motor, estatica, robinHood, swiss, ausentes);
+                fallo[motor] = Math.min(fallo[motor], System.nanoTime() - inicio);
+            }
+        }
+        String[] nombres = {"StaticHashTable", "RobinHoodHashTable", "SwissHashTable"};
+        for (int motor = 0; motor < 3; motor++) {
+            System.out.println(nombres[motor] + ": get acierto " + nsPorOperacion(acierto[motor], claves.length)
+                    + " ns/op, get fallo " + nsPorOperacion(fallo[motor], claves.length) + " ns/op");
+        }
+    }
+
+    /**
+     * Compara put y get en StaticHashTable con entradas como objetos KeyValue frente a arrays paralelos.
+     *
+     * @param claves claves a insertar y buscar.
+     */
+    private static void compararDisposiciones(String[] claves) {
+        System.out.println("DISPOSICIONES DE StaticHashTable (" + claves.length + " claves) -------------------");
+        for (StorageLayout disposicion : StorageLayout.values()) {
+            long mejorPut = Long.MAX_VALUE, mejorGet = Long.MAX_VALUE;
+            for (int r = 0; r < REPETICIONES; r++) {
+                StaticHashTable tabla = new StaticHashTable(16, 0.5, HashFunction.MURMUR3,
+                        CapacityMode.POWER_OF_TWO, disposicion);
+                long inicio = System.nanoTime();
+                for (String clave : claves) {
+                    tabla.put(clave, clave);
+                }
+                mejorPut = Math.min(mejorPut, System.nanoTime() - inicio);
+                inicio = System.nanoTime();
+                for (String clave : claves) {
+                    tabla.get(clave);
+                }
+                mejorGet = Math.min(mejorGet, System.nanoTime() - inicio);
+            }
+            System.out.println(disposicion + ": put " + nsPorOperacion(mejorPut, claves.length)
+                    + " ns/op, get " + nsPorOperacion(mejorGet, claves.length) + " ns/op");
+        }
+    }
+
+    /**
+     * Compara IntObjectHashTable con StaticHashTable cuando las claves son enteros: la tabla genérica
+     * necesita convertir cada clave con String.valueOf y aplicar la función hash sobre su texto.
+     *
+     * @param numClaves número de claves enteras a insertar y buscar.
+     */
+    private static void compararClavesPrimitivas(int numClaves) {
+        System.out.println("CLAVES ENTERAS (" + numClaves + " claves) ---------------------------------------");
+        Random rand = new Random(42);
+        int[] claves = new int[numClaves];
+        for (int i = 0; i < numClaves; i++) {
+            claves[i] = rand.nextInt();
+        }
+        long mejorPut = Long.MAX_VALUE, mejorGet = Long.MAX_VALUE;
+        long mejorPutPrimitiva = Long.MAX_VALUE, mejorGetPrimitiva = Long.MAX_VALUE;
+        for (int r = 0; r < REPETICIONES; r++) {
+            StaticHashTable estatica = new StaticHashTable(16, 0.5, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+            long inicio = System.nanoTime();
+            for (int clave : claves) {
+                estatica.put(String.valueOf(clave), clave);
+            }
+            mejorPut = Math.min(mejorPut, System.nanoTime() - inicio);
+            inicio = System.nanoTime();
+            for (int clave : claves) {
+                estatica.get(String.valueOf(clave));
+            }
+            mejorGet = Math.min(mejorGet, System.nanoTime() - inicio);
+
+            IntObjectHashTable primitiva = new IntObjectHashTable(16, 0.5, CapacityMode.POWER_OF_TWO);
+            inicio = System.nanoTime();
+            for (int clave : claves) {
+                primitiva.put(clave, clave);
+            }
+            mejorPutPrimitiva = Math.min(mejorPutPrimitiva, System.nanoTime() - inicio);
+            inicio = System.nanoTime();
+            for (int clave : claves) {
+                primitiva.get(clave);
+            }
+            mejorGetPrimitiva = Math.min(mejorGetPrimitiva, System.nanoTime() - inicio);
+        }
+        System.out.println("StaticHashTable: put " + nsPorOperacion(mejorPut, numClaves)
+                + " ns/op, get " + nsPorOperacion(mejorGet, numClaves)
+                + " ns/op | IntObjectHashTable: put " + nsPorOperacion(mejorPutPrimitiva, numClaves)
+                + " ns/op, get " + nsPorOperacion(mejorGetPrimitiva, numClaves) + " ns/op");
+    }
+
+    /**
+     * Compara put y get en HashTable con cubetas ListaDinamica frente a cubetas ArrayBucket.
+     *
+     * @param claves claves a insertar y buscar.
+     */
+    private static void compararTiposCubeta(String[] claves) {
+        System.out.println("TIPOS DE CUBETA (" + claves.length + " claves) ---------------------------------------");
+        for (BucketType tipo : BucketType.values()) {
+            long mejorPut = Long.MAX_VALUE, mejorGet = Long.MAX_VALUE;
+            for (int r = 0; r < REPETICIONES; r++) {
+                HashTable tabla = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO, tipo);
+                long inicio = System.nanoTime();
+                for (String clave : claves) {
+                    tabla.put(new KeyValue(clave, clave));
+                }
+                mejorPut = Math.min(mejorPut, System.nanoTime() - inicio);
+                inicio = System.nanoTime();
+                for (String clave : claves) {
+                    tabla.get(clave);
+                }
+                mejorGet = Math.min(mejorGet, System.nanoTime() - inicio);
+            }
+            System.out.println(tipo + ": put " + nsPorOperacion(mejorPut, claves.length)
+                    + " ns/op, get " + nsPorOperacion(mejorGet, claves.length) + " ns/op");
+        }
+    }
+
+    /**
+     * Compara la inserción y la búsqueda clave a clave con putAll y getAll, que calculan todos los hashes,
+     * redimensionan una sola vez y recorren las cubetas en orden.
+     *
+     * @param claves claves a insertar y buscar.
+     */
+    private static void compararLotes(String[] claves) {
+        System.out.println("LOTES (" + claves.length + " claves) ---------------------------------------------------");
+        long mejorPut = Long.MAX_VALUE, mejorGet = Long.MAX_VALUE, mejorPutAll = Long.MAX_VALUE, mejorGetAll = Long.MAX_VALUE;
+        long mejorPutEstatica = Long.MAX_VALUE, mejorPutAllEstatica = Long.MAX_VALUE;
+        for (int r = 0; r < REPETICIONES; r++) {
+            HashTable tabla = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+            long inicio = System.nanoTime();
+            for (String clave : claves) {
+                tabla.put(new KeyValue(clave, clave));
+            }
+            mejorPut = Math.min(mejorPut, System.nanoTime() - inicio);
+            inicio = System.nanoTime();
+            for (String clave : claves) {
+                tabla.get(clave);
+            }
+            mejorGet = Math.min(mejorGet, System.nanoTime() - inicio);
+
+            tabla = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+            inicio = System.nanoTime();
+            KeyValue[] pares = new KeyValue[claves.length];
+            for (int i = 0; i < claves.length; i++) {
+                pares[i] = new KeyValue(claves[i], claves[i]);
+            }
+            tabla.putAll(pares);
+            mejorPutAll = Math.min(mejorPutAll, System.nanoTime() - inicio);
+            inicio = System.nanoTime();
+            tabla.getAll(claves);
+            mejorGetAll = Math.min(mejorGetAll, System.nanoTime() - inicio);
+
+            StaticHashTable estatica = new StaticHashTable(16, 0.5, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+            inicio = System.nanoTime();
+            for (String clave : claves) {
+                estatica.put(clave, clave);
+            }
+            mejorPutEstatica = Math.min(mejorPutEstatica, System.nanoTime() - inicio);
+            estatica = new StaticHashTable(16, 0.5, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+            inicio = System.nanoTime();
+            estatica.putAll(claves, claves);
+            mejorPutAllEstatica = Math.min(mejorPutAllEstatica, System.nanoTime() - inicio);
+        }
+        System.out.println("HashTable put " + nsPorOperacion(mejorPut, claves.length) + " ns/op, putAll "
+                + nsPorOperacion(mejorPutAll, claves.length) + " ns/op | get " + nsPorOperacion(mejorGet, claves.length)
+                + " ns/op, getAll " + nsPorOperacion(mejorGetAll, claves.length) + " ns/op");
+        System.out.println("StaticHashTable put " + nsPorOperacion(mejorPutEstatica, claves.length) + " ns/op, putAll "
+                + nsPorOperacion(mejorPutAllEstatica, claves.length) + " ns/op");
+    }
+
+    /**
+     * Elimina el 90% de las claves de StaticHashTable y HashTable y compara, antes y después de compact,
+     * la capacidad y el tiempo de búsqueda de claves ausentes, que recorren las entradas borradas.
+     *
+     * @param claves claves a insertar, eliminar y buscar.
+     */
+    private static void compararCompactacion(String[] claves) {
+        System.out.println("COMPACTACIÓN (" + claves.length + " claves, se elimina el 90%) -------------------------");
+        int eliminadas = claves.length / 10 * 9;
+        String[] ausentes = Arrays.copyOf(claves, eliminadas);
+        StaticHashTable estatica = new StaticHashTable(16, 0.5, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+        HashTable tabla = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+        for (String clave : claves) {
+            estatica.put(clave, clave);
+            tabla.put(new KeyValue(clave, clave));
+        }
+        for (String clave : ausentes) {
+            estatica.remove(clave);
+            tabla.remove(clave);
+        }
+        for (int fase = 0; fase < 2; fase++) {
+            if (fase == 1) {
+                estatica.compact();
+                tabla.compact();
+            }
+            long mejorEstatica = Long.MAX_VALUE, mejor = Long.MAX_VALUE;
+            for (int r = 0; r < REPETICIONES; r++) {
+                long inicio = System.nanoTime();
+                for (String clave : ausentes) {
+                    estatica.get(clave);
+                }
+                mejorEstatica = Math.min(mejorEstatica, System.nanoTime() - inicio);
+                inicio = System.nanoTime();
+                for (String clave : ausentes) {
+                    tabla.get(clave);
+                }
+                mejor = Math.min(mejor, System.nanoTime() - inicio);
+            }
+            System.out.println((fase == 0 ? "Tras eliminar: " : "Tras compact:  ") + "StaticHashTable "
+                    + estatica.getCapacity() + " posiciones, get ausente " + nsPorOperacion(mejorEstatica, ausentes.length)
+                    + " ns/op | HashTable " + tabla.getCapacity() + " cubetas, get ausente "
+                    + nsPorOperacion(mejor, ausentes.length) + " ns/op");
+        }
+    }
+
+    /**
+     * Compara la persistencia de HashTable en un fichero por cubeta (serializarFichero) con la instantánea
+     * en un único fichero (serializarInstantanea): tiempo de escritura, tiempo de lectura y tamaño en disco.
+     * Los ficheros se escriben en un directorio temporal que se borra al terminar.
+     *
+     * @param claves claves a guardar (con un fichero por cubeta, conviene que no sean demasiadas).
+     */
+    private static void compararPersistencia(String[] claves) {
+        System.out.println("PERSISTENCIA (" + claves.length + " claves) --------------------------------------------");
+        HashTable tabla = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+        for (String clave : claves) {
+            tabla.put(new KeyValue(clave, new Moto(clave, "rojo")));
+        }
+        try {
+            Path directorio = Files.createTempDirectory("hashtable");
+            try {
+                String prefijo = directorio + "/cubeta-";
+                long inicio = System.nanoTime();
+                tabla.serializarFichero(prefijo);
+                long escritura = System.nanoTime() - inicio;
+                inicio = System.nanoTime();
+                new HashTable(tabla.getCapacity(), 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO).deserializarFichero(prefijo);
+                long lectura = System.nanoTime() - inicio;
+                System.out.println("Un fichero por cubeta (" + tabla.getCapacity() + " ficheros): escribir " + escritura / 1_000_000
+                        + " ms, leer " + lectura / 1_000_000 + " ms, " + tamanoDirectorio(directorio, "cubeta-") / 1024 + " KiB");
+
+                String instantanea = directorio + "/tabla.snap";
+                inicio = System.nanoTime();
+                tabla.serializarInstantanea(instantanea);
+                escritura = System.nanoTime() - inicio;
+                inicio = System.nanoTime();
+                new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO).deserializarInstantanea(instantanea);
+                lectura = System.nanoTime() - inicio;
+                System.out.println("Instantánea en un fichero: escribir " + escritura / 1_000_000 + " ms, leer "
+                        + lectura / 1_000_000 + " ms, " + Files.size(Path.of(instantanea)) / 1024 + " KiB");
+
+                String mapeada = directorio + "/tabla.map";
+                inicio = System.nanoTime();
+                tabla.serializarMapeada(mapeada);
+                escritura = System.nanoTime() - inicio;
+                inicio = System.nanoTime();
+                try (MappedHashTable tablaMapeada = new MappedHashTable(mapeada)) {
+                    long apertura = System.nanoTime() - inicio;
+                    inicio = System.nanoTime();
+                    for (String clave : claves) {
+                        tablaMapeada.getBytes(clave);
+                    }
+                    long getBytes = System.nanoTime() - inicio;
+                    inicio = System.nanoTime();
+                    for (String clave : claves) {
+                        tablaMapeada.get(clave);
+                    }
+                    long get = System.nanoTime() - inicio;
+                    System.out.println("Tabla mapeada: escribir " + escritura / 1_000_000 + " ms, abrir "
+                            + apertura / 1_000 + " µs, getBytes " + nsPorOperacion(getBytes, claves.length)
+                            + " ns/op, get " + nsPorOperacion(get, claves.length) + " ns/op, "
+                            + Files.size(Path.of(mapeada)) / 1024 + " KiB");
+                }
+            } finally {
+                try (Stream<Path> ficheros = Files.list(directorio)) {
+                    for (Path fichero : (Iterable<Path>) ficheros::iterator) {
+                        Files.delete(fichero);
+                    }
+                }
+                Files.delete(directorio);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Compara la codificación compacta de valores con la serialización de Java: tiempo de codificar y
+     * decodificar una Moto y tamaño de la instantánea de una tabla con una Moto por clave.
+     *
+     * @param claves claves de la tabla.
+     */
+    private static void compararCodificaciones(String[] claves) {
+        System.out.println("CODIFICACIÓN DE VALORES (" + claves.length + " Motos) ----------------------------");
+        Moto[] motos = new Moto[claves.length];
+        for (int i = 0; i < claves.length; i++) {
+            motos[i] = new Moto(claves[i], "rojo");
+        }
+        byte[][] codificados = new byte[claves.length][];
+        for (ValueCodec codec : new ValueCodec[]{ValueCodec.JAVA, ValueCodec.COMPACT}) {
+            long mejorCodificar = Long.MAX_VALUE, mejorDecodificar = Long.MAX_VALUE;
+            for (int r = 0; r < REPETICIONES; r++) {
+                long inicio = System.nanoTime();
+                for (int i = 0; i < motos.length; i++) {
+                    codificados[i] = codec.encode(motos[i]);
+                }
+                mejorCodificar = Math.min(mejorCodificar, System.nanoTime() - inicio);
+                inicio = System.nanoTime();
+                for (byte[] bytes : codificados) {
+                    codec.decode(bytes);
+                }
+                mejorDecodificar = Math.min(mejorDecodificar, System.nanoTime() - inicio);
+            }
+            HashTable tabla = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+            tabla.setValueCodec(codec);
+            for (int i = 0; i < claves.length; i++) {
+                tabla.put(new KeyValue(claves[i], motos[i]));
+            }
+            try {
+                Path instantanea = Files.createTempFile("hashtable", ".snap");
+                try {
+                    tabla.serializarInstantanea(instantanea.toString());
+                    System.out.println(codec.getClass().getSimpleName() + ": codificar " + nsPorOperacion(mejorCodificar, motos.length)
+                            + " ns/op, decodificar " + nsPorOperacion(mejorDecodificar, motos.length) + " ns/op, "
+                            + codificados[0].length + " B por Moto, instantánea " + Files.size(instantanea) / 1024 + " KiB");
+                } finally {
+                    Files.delete(instantanea);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Mide el coste de hacer duradera cada inserción con el registro de escritura anticipada, con distintos
+     * tamaños de grupo de forzado a disco, y lo compara con los bytes que habría que escribir guardando
+     * una instantánea de la tabla completa tras cada cambio.
+     *
+     * @param claves claves a insertar.
+     */
+    private static void compararRegistro(String[] claves) {
+        System.out.println("REGISTRO DE ESCRITURA ANTICIPADA (" + claves.length + " claves) ------------------");
+        try {
+            Path directorio = Files.createTempDirectory("hashtable");
+            try {
+                for (int grupo : new int[]{1, 64, 0}) {
+                    Path registro = directorio.resolve("tabla-" + grupo + ".wal");
+                    HashTable tabla = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+                    long inicio;
+                    try (WriteAheadLog log = new WriteAheadLog(registro.toString(), grupo, 0)) {
+                        tabla.setWriteAheadLog(log);
+                        inicio = System.nanoTime();
+                        for (String clave : claves) {
+                            tabla.put(new KeyValue(clave, new Moto(clave, "rojo")));
+                        }
+                    }
+                    long tiempo = System.nanoTime() - inicio;
+                    Path instantanea = directorio.resolve("tabla.snap");
+                    tabla.serializarInstantanea(instantanea.toString());
+                    System.out.println("Forzado cada " + (grupo == 0 ? "cierre" : grupo + " registros") + ": put "
+                            + nsPorOperacion(tiempo, claves.length) + " ns/op, " + Files.size(registro) / claves.length
+                            + " B por cambio (una instantánea completa: " + Files.size(instantanea) / 1024 + " KiB)");
+                }
+            } finally {
+                try (Stream<Path> ficheros = Files.list(directorio)) {
+                    for (Path fichero : (Iterable<Path>) ficheros::iterator) {
+                        Files.delete(fichero);
+                    }
+                }
+                Files.delete(directorio);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Compara la importación en streaming de un fichero de texto (TextImporter y putAll por lotes) con la
+     * lectura del fichero entero en un String con FileUtil, partido después por líneas e insertado con put.
+     *
+     * @param claves claves de las líneas del fichero (clave#matricula@color).
+     */
+    private static void compararImportacion(String[] claves) {
+        System.out.println("IMPORTACIÓN DE TEXTO (" + claves.length + " líneas) -------------------------------");
+        try {
+            Path fichero = Files.createTempFile("hashtable", ".txt");
+            try {
+                try (BufferedWriter writer = Files.newBufferedWriter(fichero)) {
+                    for (String clave : claves) {
+                        writer.write(clave + "#" + clave + "@rojo\n");
+                    }
+                }
+                long inicio = System.nanoTime();
+                new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO).importarFicheroTexto(fichero.toString());
+                long streaming = System.nanoTime() - inicio;
+
+                inicio = System.nanoTime();
+                HashTable tabla = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+                for (String linea : new FileUtil(fichero.toString()).readFromFile().split("\n")) {
+                    String[] par = linea.split("#");
+                    String[] atributos = par[1].split("@");
+                    tabla.put(new KeyValue(par[0], new Moto(atributos[0], atributos[1])));
+                }
+                long completo = System.nanoTime() - inicio;
+                System.out.println("Streaming: " + streaming / 1_000_000 + " ms | Fichero entero en memoria: "
+                        + completo / 1_000_000 + " ms (" + Files.size(fichero) / (1024 * 1024) + " MiB)");
+            } finally {
+                Files.delete(fichero);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Suma el tamaño de los ficheros de un directorio cuyo nombre empieza por un prefijo.
+     */
+    private static long tamanoDirectorio(Path directorio, String prefijo) throws IOException {
+        long total = 0;
+        try (Stream<Path> ficheros = Files.list(directorio)) {
+            for (Path fichero : (Iterable<Path>) ficheros::iterator) {
+                if (fichero.getFileName().toString().startsWith(prefijo)) {
+                    total += Files.size(fichero);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Compara el rendimiento con varios hilos de ConcurrentHashTable y de StampedHashTable (lecturas
+     * optimistas) frente a HashTable protegida por un único cerrojo global. Cada hilo hace 9 lecturas por cada inserción sobre una tabla precargada
+     * con la mitad de las claves.
+     *
+     * @param claves claves a insertar y buscar.
+     */
+    private static void compararConcurrencia(String[] claves) {
+        System.out.println("CONCURRENCIA (" + claves.length + " claves, 90% get / 10% put) ---------------------");
+        int operacionesPorHilo = 1_000_000;
+        for (int hilos = 1; hilos <= 16; hilos *= 2) {
+            ConcurrentHashTable concurrente = new ConcurrentHashTable(16, 0.75);
+            HashTable global = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+            StampedHashTable optimista = new StampedHashTable(
+                    new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO));
+            for (int i = 0; i < claves.length / 2; i++) {
+                concurrente.put(new KeyValue(claves[i], claves[i]));
+                global.put(new KeyValue(claves[i], claves[i]));
+                optimista.put(new KeyValue(claves[i], claves[i]));
+            }
+            long nanosConcurrente = ejecutarEnHilos(hilos, operacionesPorHilo, (clave, esPut) -> {
+                if (esPut) {
+                    concurrente.put(new KeyValue(clave, clave));
+                } else {
+                    concurrente.get(clave);
+                }
+            }, claves);
+            long nanosOptimista = ejecutarEnHilos(hilos, operacionesPorHilo, (clave, esPut) -> {
+                if (esPut) {
+                    optimista.put(new KeyValue(clave, clave));
+                } else {
+                    optimista.get(clave);
+                }
+            }, claves);
+            long nanosGlobal = ejecutarEnHilos(hilos, operacionesPorHilo, (clave, esPut) -> {
+                synchronized (global) {
+                    if (esPut) {
+                        global.put(new KeyValue(clave, clave));
+                    } else {
+                        global.get(clave);
+                    }
+                }
+            }, claves);
+            long total = (long) hilos * operacionesPorHilo;
+            System.out.println(hilos + " hilos: ConcurrentHashTable " + operacionesPorMs(nanosConcurrente, total)
+                    + " ops/ms | StampedHashTable " + operacionesPorMs(nanosOptimista, total)
+                    + " ops/ms | HashTable con cerrojo global " + operacionesPorMs(nanosGlobal, total) + " ops/ms");
+        }
+    }
+
+    /**
+     * Compara el rendimiento con varios hilos de LockFreeHashTable frente a StaticHashTable protegida por
+     * un único cerrojo global, con 9 lecturas por cada inserción sobre una tabla precargada con la mitad
+     * de las claves.
+     *
+     * @param claves claves a insertar y buscar.
+     */
+    private static void compararLockFree(String[] claves) {
+        System.out.println("SIN BLOQUEOS (" + claves.length + " claves, 90% get / 10% put) ---------------------");
+        int operacionesPorHilo = 1_000_000;
+        for (int hilos = 1; hilos <= 16; hilos *= 2) {
+            LockFreeHashTable sinBloqueos = new LockFreeHashTable(16);
+            StaticHashTable global = new StaticHashTable(16, 0.5, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+            for (int i = 0; i < claves.length / 2; i++) {
+                sinBloqueos.put(claves[i], claves[i]);
+                global.put(claves[i], claves[i]);
+            }
+            long nanosSinBloqueos = ejecutarEnHilos(hilos, operacionesPorHilo, (clave, esPut) -> {
+                if (esPut) {
+                    sinBloqueos.put(clave, clave);
+                } else {
+                    sinBloqueos.get(clave);
+                }
+            }, claves);
+            long nanosGlobal = ejecutarEnHilos(hilos, operacionesPorHilo, (clave, esPut) -> {
+                synchronized (global) {
+                    if (esPut) {
+                        global.put(clave, clave);
+                    } else {
+                        global.get(clave);
+                    }
+                }
+            }, claves);
+            long total = (long) hilos * operacionesPorHilo;
+            System.out.println(hilos + " hilos: LockFreeHashTable " + operacionesPorMs(nanosSinBloqueos, total)
+                    + " ops/ms | StaticHashTable con cerrojo global " + operacionesPorMs(nanosGlobal, total) + " ops/ms");
+        }
+    }
+
+    /**
+     * Compara HashTable síncrona con AsyncHashTable con varios fragmentos. Mide el rendimiento total hasta
+     * completar todas las inserciones y la latencia máxima que ve el hilo que llama en una inserción: en la
+     * tabla síncrona incluye los reHash, en la asíncrona solo el encolado de la tarea.
+     *
+     * @param claves claves a insertar.
+     */
+    private static void compararAsincrono(String[] claves) {
+        System.out.println("ASÍNCRONO (" + claves.length + " claves) ------------------------------------------------");
+        long mejor = Long.MAX_VALUE, peorLlamada = 0;
+        for (int r = 0; r < REPETICIONES; r++) {
+            HashTable tabla = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+            long inicio = System.nanoTime();
+            for (String clave : claves) {
+                long llamada = System.nanoTime();
+                tabla.put(new KeyValue(clave, clave));
+                peorLlamada = Math.max(peorLlamada, System.nanoTime() - llamada);
+            }
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        System.out.println("HashTable síncrona: " + operacionesPorMs(mejor, claves.length) + " ops/ms, llamada más lenta "
+                + peorLlamada / 1000 + " µs");
+        for (int fragmentos = 1; fragmentos <= 16; fragmentos *= 4) {
+            mejor = Long.MAX_VALUE;
+            peorLlamada = 0;
+            for (int r = 0; r < REPETICIONES; r++) {
+                HashTable[] tablas = new HashTable[fragmentos];
+                for (int i = 0; i < fragmentos; i++) {
+                    tablas[i] = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+                }
+                try (AsyncHashTable asincrona = new AsyncHashTable(tablas)) {
+                    CompletableFuture<?>[] futuros = new CompletableFuture<?>[claves.length];
+                    long inicio = System.nanoTime();
+                    for (int i = 0; i < claves.length; i++) {
+                        long llamada = System.nanoTime();
+                        futuros[i] = asincrona.putAsync(claves[i], claves[i]);
+                        peorLlamada = Math.max(peorLlamada, System.nanoTime() - llamada);
+                    }
+                    CompletableFuture.allOf(futuros).join();
+                    mejor = Math.min(mejor, System.nanoTime() - inicio);
+                }
+            }
+            System.out.println("AsyncHashTable, " + fragmentos + " fragmentos: " + operacionesPorMs(mejor, claves.length)
+                    + " ops/ms, llamada más lenta " + peorLlamada / 1000 + " µs");
+        }
+    }
+
+    /**
+     * Ejecuta una operación en varios hilos a la vez y mide el tiempo hasta que terminan todos.
+     *
+     * @param hilos       número de hilos.
+     * @param operaciones operaciones por hilo.
+     * @param operacion   operación a ejecutar, que recibe la clave y si debe insertar (1 de cada 10).
+     * @param claves      claves entre las que elige cada hilo.
+     * @return tiempo total en nanosegundos.
+     */
+    private static long ejecutarEnHilos(int hilos, int operaciones, BiConsumer<String, Boolean> operacion,
+                                        String[] claves) {
+        Thread[] trabajadores = new Thread[hilos];
+        for (int t = 0; t < hilos; t++) {
+            Random rand = new Random(t);
+            trabajadores[t] = new Thread(() -> {
+                for (int i = 0; i < operaciones; i++) {
+                    operacion.accept(claves[rand.nextInt(claves.length)], i % 10 == 0);
+                }
+            });
+        }
+        long inicio = System.nanoTime();
+        for (Thread trabajador : trabajadores) {
+            trabajador.start();
+        }
+        for (Thread trabajador : trabajadores) {
+            try {
+                trabajador.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Prueba interrumpida", e);
+            }
+        }
+        return System.nanoTime() - inicio;
+    }
+
+    /**
+     * Calcula las operaciones por milisegundo.
+     *
+     * @param nanos      tiempo total en nanosegundos.
+     * @param operations número de operaciones.
+     * @return operaciones por milisegundo, sin decimales.
+     */
+    private static String operacionesPorMs(long nanos, long operations) {
+        return String.format("%.0f", operations / (nanos / 1_000_000.0));
+    }
+
+    /**
+     * Busca todas las claves dadas en una de las tablas de direccionamiento abierto.
+     */
+    private static void leer(int motor, StaticHashTable estatica, RobinHoodHashTable robinHood,
+                             SwissHashTable swiss, String[] claves) {
+        for (String clave : claves) {
+            switch (motor) {
+                case 0 -> estatica.get(clave);
+                case 1 -> robinHood.get(clave);
+                default -> swiss.get(clave);
+            }
+        }
+    }
+
+    /**
+     * Genera claves a partir de números enteros aleatorios, con una semilla fija
+     * para que todas las configuraciones se midan con los mismos datos.
+     *
+     * @param count número de claves a generar.
+     * @return array de claves.
+     */
+    private static String[] generarClaves(int count) {
+        Random rand = new Random(42);
+        String[] claves = new String[count];
+        for (int i = 0; i < count; i++) {
+            claves[i] = String.valueOf(rand.nextInt());
+        }
+        return claves;
+    }
+
+    /**
+     * Calcula los nanosegundos por operación.
+     *
+     * @param nanos      tiempo total en nanosegundos.
+     * @param operations número de operaciones.
+     * @return nanosegundos por operación, con un decimal.
+     */
+    private static String nsPorOperacion(long nanos, int operations) {
+        return String.format("%.1f", (double) nanos / operations);
+    }
+}
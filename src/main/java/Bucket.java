@@ -0,0 +1,58 @@
+import java.io.Serializable;
+import java.util.function.Consumer;
+
+/**
+ * Cubeta de una tabla hash encadenada (HashTable). Almacena los pares KeyValue cuyas claves
+ * caen en la misma posición de la tabla. Todas las búsquedas comparan primero el hash
+ * almacenado en el par y solo después la clave.
+ */
+public interface Bucket extends Serializable {
+
+    /**
+     * Obtiene el par con la clave dada.
+     *
+     * @param hash hash completo de la clave.
+     * @param key  clave a buscar.
+     * @return el par con la clave dada, o null si no está en la cubeta.
+     */
+    KeyValue find(long hash, String key);
+
+    /**
+     * Inserta el par solo si no existe otro con la misma clave.
+     *
+     * @param kv par a insertar, con su hash ya calculado.
+     * @return el par existente con la misma clave, o null si se ha insertado.
+     */
+    KeyValue putIfAbsent(KeyValue kv);
+
+    /**
+     * Reemplaza el par que tiene la misma clave que el par dado.
+     *
+     * @param kv par con el que reemplazar, con su hash ya calculado.
+     * @return true si se encontró y reemplazó el par, false en caso contrario.
+     */
+    boolean set(KeyValue kv);
+
+    /**
+     * Elimina el par con la clave dada.
+     *
+     * @param hash hash completo de la clave.
+     * @param key  clave del par a eliminar.
+     * @return el par eliminado, o null si no está en la cubeta.
+     */
+    KeyValue remove(long hash, String key);
+
+    /**
+     * Obtiene el número de pares de la cubeta.
+     *
+     * @return número de pares.
+     */
+    int getSize();
+
+    /**
+     * Recorre todos los pares de la cubeta.
+     *
+     * @param action acción a aplicar sobre cada par.
+     */
+    void forEach(Consumer<KeyValue> action);
+}
@@ -0,0 +1,40 @@
+/**
+ * Ordenación de las operaciones de un lote por la zona de la tabla a la que van. Procesar el lote
+ * en ese orden recorre las cubetas (o las zonas de sondeo) de forma secuencial, con cada una en caché
+ * mientras se atienden todas sus operaciones, en lugar de saltar a una posición aleatoria en cada operación.
+ */
+public final class BucketOrder {
+
+    private BucketOrder() {
+    }
+
+    /**
+     * Calcula el orden en que procesar un lote. Reparte los elementos en tantos tramos consecutivos de
+     * la tabla como elementos tiene el lote, con una ordenación por recuento en tiempo lineal: el lote se
+     * procesa recorriendo la tabla de principio a fin, y los elementos de una misma posición quedan
+     * siempre en el mismo tramo. La ordenación es estable: los elementos que van a la misma posición
+     * conservan su orden original, así que si una clave se repite en el lote gana la primera aparición,
+     * igual que al procesar el lote elemento a elemento.
+     *
+     * @param positions posición de la tabla de cada elemento del lote, entre 0 y capacity - 1.
+     * @param capacity  capacidad de la tabla.
+     * @return índices del lote ordenados por tramo de la tabla.
+     */
+    public static int[] sort(int[] positions, int capacity) {
+        int n = positions.length;
+        int[] starts = new int[n + 1]; // Primer hueco de cada tramo en el resultado
+        int[] ranges = new int[n];
+        for (int i = 0; i < n; i++) {
+            ranges[i] = (int) ((long) positions[i] * n / capacity);
+            starts[ranges[i] + 1]++;
+        }
+        for (int r = 0; r < n; r++) {
+            starts[r + 1] += starts[r];
+        }
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[starts[ranges[i]]++] = i;
+        }
+        return order;
+    }
+}
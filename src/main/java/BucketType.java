@@ -0,0 +1,34 @@
+/**
+ * Implementación de las cubetas de HashTable. Las cubetas se crean al insertar el primer par
+ * en su posición, por lo que una tabla grande y poco poblada no reserva cubetas vacías.
+ */
+public enum BucketType {
+
+    /**
+     * Lista doblemente enlazada (ListaDinamica): un Node por par.
+     */
+    LINKED_LIST {
+        @Override
+        public Bucket create() {
+            return new ListaDinamica();
+        }
+    },
+
+    /**
+     * Arrays que crecen según se necesita (ArrayBucket): sin objetos por par además del KeyValue
+     * y con los hashes de la cadena contiguos en memoria.
+     */
+    ARRAY {
+        @Override
+        public Bucket create() {
+            return new ArrayBucket();
+        }
+    };
+
+    /**
+     * Crea una cubeta vacía de este tipo.
+     *
+     * @return cubeta nueva.
+     */
+    public abstract Bucket create();
+}
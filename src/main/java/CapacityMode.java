@@ -0,0 +1,161 @@
+/**
+ * Modo de capacidad de una tabla hash. Determina cómo se eligen los tamaños de la tabla
+ * al crearla y al redimensionarla, y cómo se convierte un hash en un índice.
+ */
+public enum CapacityMode {
+
+    /**
+     * Tamaños primos e índice por módulo. Es el modo clásico de las tablas.
+     */
+    PRIME {
+        @Override
+        public int initialCapacity(int requested) {
+            return getNextPrime(Math.max(requested, 3));
+        }
+
+        @Override
+        public int nextCapacity(int capacity, double factor) {
+            return getNextPrime((int) Math.min(capacity * factor, MAX_PRIME_CAPACITY));
+        }
+
+        @Override
+        public int indexFor(long hash, int capacity) {
+            return Math.floorMod(hash, capacity);
+        }
+
+        @Override
+        public int stepFor(long hash, int capacity) {
+            return 1 + Math.floorMod(hash >>> 32, capacity - 1);
+        }
+    },
+
+    /**
+     * Tamaños potencia de dos e índice por máscara de bits sobre el hash mezclado con fmix64.
+     * El cálculo del índice y el del nuevo tamaño en cada redimensionado son prácticamente gratuitos.
+     */
+    POWER_OF_TWO {
+        @Override
+        public int initialCapacity(int requested) {
+            return tableSizeFor(requested);
+        }
+
+        @Override
+        public int nextCapacity(int capacity, double factor) {
+            return tableSizeFor((int) Math.min(Math.ceil(capacity * factor), MAX_POWER_OF_TWO));
+        }
+
+        @Override
+        public int indexFor(long hash, int capacity) {
+            return (int) fmix64(hash) & (capacity - 1);
+        }
+
+        @Override
+        public int stepFor(long hash, int capacity) {
+            return ((int) (fmix64(hash) >>> 32) | 1) & (capacity - 1); // Paso impar: recorre toda la tabla
+        }
+    };
+
+    private static final int MAX_POWER_OF_TWO = 1 << 30;
+    private static final int MAX_PRIME_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * Calcula la capacidad inicial de la tabla a partir de la capacidad pedida.
+     *
+     * @param requested capacidad pedida.
+     * @return capacidad real de la tabla.
+     */
+    public abstract int initialCapacity(int requested);
+
+    /**
+     * Calcula la nueva capacidad de la tabla al redimensionarla.
+     *
+     * @param capacity capacidad actual.
+     * @param factor   factor por el cual se multiplica la capacidad (menor que 1 para encoger).
+     * @return nueva capacidad de la tabla.
+     */
+    public abstract int nextCapacity(int capacity, double factor);
+
+    /**
+     * Convierte un hash completo en un índice de la tabla.
+     *
+     * @param hash     hash completo de la clave.
+     * @param capacity capacidad de la tabla.
+     * @return índice entre 0 y capacity - 1.
+     */
+    public abstract int indexFor(long hash, int capacity);
+
+    /**
+     * Calcula un paso de sondeo para el doble hash que nunca es 0 y recorre todas las posiciones de la tabla.
+     *
+     * @param hash     hash completo de la clave.
+     * @param capacity capacidad de la tabla.
+     * @return paso de sondeo.
+     */
+    public abstract int stepFor(long hash, int capacity);
+
+    /**
+     * Mezclador final de MurmurHash3 para 64 bits. Reparte la entropía del hash en todos los bits,
+     * de forma que los bits bajos usados por la máscara dependan de todo el hash.
+     *
+     * @param k valor a mezclar.
+     * @return valor mezclado.
+     */
+    public static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * Obtiene la menor potencia de dos mayor o igual que un número dado (como mínimo 2).
+     *
+     * @param num número de referencia.
+     * @return potencia de dos.
+     */
+    static int tableSizeFor(int num) {
+        if (num <= 2) {
+            return 2;
+        }
+        if (num >= MAX_POWER_OF_TWO) {
+            return MAX_POWER_OF_TWO;
+        }
+        return Integer.highestOneBit(num - 1) << 1;
+    }
+
+    /**
+     * Obtiene el siguiente número primo después de un número dado, utilizado para calcular la capacidad de la tabla.
+     *
+     * @param num número a partir del cual buscar el siguiente número primo.
+     * @return el siguiente número primo.
+     */
+    static int getNextPrime(int num) {
+        while (true) {
+            if (!isPrime(num)) {
+                num++;
+            } else {
+                return num;
+            }
+        }
+    }
+
+    /**
+     * Comprueba si un número es primo.
+     *
+     * @param num número a comprobar.
+     * @return verdadero si el número es primo, falso en caso contrario.
+     */
+    static boolean isPrime(int num) {
+        if ((num % 2) == 0) {
+            return false;
+        }
+        for (int i = 3; i <= Math.sqrt(num); i += 2) {
+            if ((num % i) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,253 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Codificación binaria compacta de valores. Cada valor empieza con un byte de tipo seguido de sus campos:
+ * los Strings como longitud (entero de longitud variable) y bytes UTF-8, los enteros en zigzag con longitud
+ * variable, los decimales con sus 8 o 4 bytes, y las Motos y los KeyValue como sus campos uno detrás de otro.
+ * No se escriben descriptores de clase ni referencias entre objetos, así que una Moto ocupa unos pocos bytes
+ * más que sus dos Strings.
+ * <p>
+ * Los valores de otros tipos se guardan con la serialización de Java, precedidos de su longitud.
+ */
+public class CompactValueCodec implements ValueCodec {
+    private static final long serialVersionUID = 1L;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte MOTO = 2;
+    private static final byte KEY_VALUE = 3;
+    private static final byte INTEGER = 4;
+    private static final byte LONG = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte FLOAT = 7;
+    private static final byte TRUE = 8;
+    private static final byte FALSE = 9;
+    private static final byte CHARACTER = 10;
+    private static final byte BYTES = 11;
+    private static final byte SERIALIZABLE = 12; // Longitud y bytes de la serialización de Java
+
+    @Override
+    public byte[] encode(Object value) {
+        Output out = new Output();
+        write(out, value);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        return read(new Input(bytes));
+    }
+
+    private static void write(Output out, Object value) {
+        if (value == null) {
+            out.put(NULL);
+            return;
+        }
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            out.put(STRING);
+            writeString(out, (String) value);
+        } else if (type == Moto.class) {
+            Moto moto = (Moto) value;
+            out.put(MOTO);
+            writeString(out, moto.getMatricula());
+            writeString(out, moto.getColor());
+        } else if (type == KeyValue.class) {
+            KeyValue kv = (KeyValue) value;
+            out.put(KEY_VALUE);
+            writeString(out, kv.getKey());
+            write(out, kv.getValue());
+        } else if (type == Integer.class) {
+            out.put(INTEGER);
+            out.putVarLong(zigzag((Integer) value));
+        } else if (type == Long.class) {
+            out.put(LONG);
+            out.putVarLong(zigzag((Long) value));
+        } else if (type == Double.class) {
+            out.put(DOUBLE);
+            out.putFixed(Double.doubleToRawLongBits((Double) value), 8);
+        } else if (type == Float.class) {
+            out.put(FLOAT);
+            out.putFixed(Float.floatToRawIntBits((Float) value), 4);
+        } else if (type == Boolean.class) {
+            out.put((Boolean) value ? TRUE : FALSE);
+        } else if (type == Character.class) {
+            out.put(CHARACTER);
+            out.putVarLong((Character) value);
+        } else if (type == byte[].class) {
+            byte[] bytes = (byte[]) value;
+            out.put(BYTES);
+            out.putVarLong(bytes.length);
+            out.put(bytes);
+        } else {
+            byte[] bytes = JavaSerialization.serialize(value);
+            out.put(SERIALIZABLE);
+            out.putVarLong(bytes.length);
+            out.put(bytes);
+        }
+    }
+
+    /**
+     * Escribe un String que puede ser null: longitud + 1 (0 para null) y bytes UTF-8.
+     */
+    private static void writeString(Output out, String s) {
+        if (s == null) {
+            out.putVarLong(0);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.putVarLong(bytes.length + 1L);
+        out.put(bytes);
+    }
+
+    private static Object read(Input in) {
+        byte type = in.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case MOTO:
+                String matricula = readString(in);
+                return new Moto(matricula, readString(in));
+            case KEY_VALUE:
+                String key = readString(in);
+                return new KeyValue(key, read(in));
+            case INTEGER:
+                return (int) unzigzag(in.getVarLong());
+            case LONG:
+                return unzigzag(in.getVarLong());
+            case DOUBLE:
+                return Double.longBitsToDouble(in.getFixed(8));
+            case FLOAT:
+                return Float.intBitsToFloat((int) in.getFixed(4));
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case CHARACTER:
+                return (char) in.getVarLong();
+            case BYTES:
+                return in.getBytes((int) in.getVarLong());
+            case SERIALIZABLE:
+                return JavaSerialization.deserialize(in.getBytes((int) in.getVarLong()));
+            default:
+                throw new IllegalArgumentException("Tipo de valor desconocido: " + type);
+        }
+    }
+
+    private static String readString(Input in) {
+        int length = (int) in.getVarLong() - 1;
+        if (length < 0) {
+            return null;
+        }
+        return in.getString(length);
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Buffer de escritura que crece según se necesita.
+     */
+    private static final class Output {
+        private byte[] buffer = new byte[32];
+        private int position;
+
+        private void ensure(int n) {
+            if (position + n > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + n));
+            }
+        }
+
+        void put(byte b) {
+            ensure(1);
+            buffer[position++] = b;
+        }
+
+        void put(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        /**
+         * Escribe un entero no negativo con 7 bits por byte y el bit alto indicando si siguen más bytes.
+         */
+        void putVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buffer[position++] = (byte) v;
+        }
+
+        /**
+         * Escribe los n bytes bajos de un valor en orden big-endian.
+         */
+        void putFixed(long v, int n) {
+            ensure(n);
+            for (int shift = (n - 1) * 8; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (v >>> shift);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    /**
+     * Lectura secuencial de un array de bytes.
+     */
+    private static final class Input {
+        private final byte[] bytes;
+        private int position;
+
+        Input(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        byte get() {
+            return bytes[position++];
+        }
+
+        long getVarLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        long getFixed(int n) {
+            long value = 0;
+            for (int i = 0; i < n; i++) {
+                value = (value << 8) | (bytes[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        byte[] getBytes(int length) {
+            byte[] result = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return result;
+        }
+
+        String getString(int length) {
+            String s = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return s;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tabla hash encadenada para uso concurrente, con el diseño de HashTable (cubetas con cadenas de pares
+ * y hash completo almacenado en cada par) y capacidad potencia de dos.
+ * <p>
+ * Las escrituras toman solo el cerrojo de una de STRIPES franjas; la cubeta i pertenece a la franja
+ * i % STRIPES, así que escrituras sobre cubetas de franjas distintas no se bloquean entre sí.
+ * Las lecturas no toman ningún cerrojo: las cadenas son inmutables salvo por el par de cada nodo
+ * (volatile), las cabezas de cadena se publican con semántica release/acquire y el array de cubetas
+ * se publica en un campo volatile. Un borrado copia los nodos anteriores al eliminado en lugar de
+ * modificar su enlace, por lo que un lector siempre ve una cadena completa.
+ * <p>
+ * El redimensionado toma todas las franjas, construye una tabla nueva y la publica; mientras tanto
+ * los lectores siguen leyendo la tabla anterior, que no se modifica.
+ * Incluye contadores para pasos (time) y memoria (memory) por tipo de operación en {@link TableMetrics}
+ * para monitorear el rendimiento.
+ */
+public class ConcurrentHashTable implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int STRIPES = 64; // Número de franjas de cerrojos (potencia de dos)
+    private static final VarHandle BUCKET = MethodHandles.arrayElementVarHandle(Node[].class);
+
+    private volatile Node[] table; // Cubetas; cada posición es la cabeza de una cadena, o null
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES]; // Cerrojo de cada franja
+    private final int[] counts = new int[STRIPES]; // Pares de cada franja, protegidos por su cerrojo
+    private final double loadFactor; // Factor de carga máximo
+    private final HashFunction hashFunction; // Función hash aplicada a las claves
+    private final TableMetrics metrics = new TableMetrics(); // Contadores por operación, sin contención entre hilos
+
+    /**
+     * Constructor para ConcurrentHashTable. Utiliza MurmurHash3 como función hash.
+     *
+     * @param capacity   capacidad inicial de la tabla hash (se redondea a potencia de dos, mínimo STRIPES).
+     * @param loadFactor factor de carga máximo para la tabla hash.
+     */
+    public ConcurrentHashTable(int capacity, double loadFactor) {
+        this(capacity, loadFactor, HashFunction.MURMUR3);
+    }
+
+    /**
+     * Constructor para ConcurrentHashTable con una función hash dada.
+     *
+     * @param capacity     capacidad inicial de la tabla hash (se redondea a potencia de dos, mínimo STRIPES).
+     * @param loadFactor   factor de carga máximo para la tabla hash.
+     * @param hashFunction función hash aplicada a las claves.
+     */
+    public ConcurrentHashTable(int capacity, double loadFactor, HashFunction hashFunction) {
+        this.loadFactor = loadFactor;
+        this.hashFunction = hashFunction;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        // Con al menos STRIPES cubetas, una cubeta y las dos en que se divide al duplicar quedan en la misma franja
+        this.table = new Node[CapacityMode.POWER_OF_TWO.initialCapacity(Math.max(capacity, STRIPES))];
+    }
+
+    private long hash(String key, Operation op) {
+        metrics.step(op); // Contar como un paso para la operación de hashing
+        return hashFunction.hash(key);
+    }
+
+    private static int indexFor(long hash, int capacity) {
+        return CapacityMode.POWER_OF_TWO.indexFor(hash, capacity);
+    }
+
+    /**
+     * Obtiene la franja de un hash. Como las capacidades son múltiplos de STRIPES,
+     * coincide con la posición de su cubeta módulo STRIPES para cualquier capacidad.
+     */
+    private static int stripeFor(long hash) {
+        return indexFor(hash, STRIPES);
+    }
+
+    private static Node bucketAt(Node[] tab, int i) {
+        return (Node) BUCKET.getAcquire(tab, i);
+    }
+
+    private static void setBucket(Node[] tab, int i, Node head) {
+        BUCKET.setRelease(tab, i, head);
+    }
+
+    /**
+     * Busca el nodo con la clave dada en una cadena.
+     */
+    private Node findNode(Node head, long hash, String key, Operation op) {
+        for (Node node = head; node != null; node = node.next) {
+            metrics.memory(op); // Contar la operación de acceso a la memoria
+            KeyValue kv = node.kv;
+            if (kv.getHash() == hash && kv.getKey().equals(key)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene el par asociado a una clave sin tomar ningún cerrojo.
+     *
+     * @param key clave del par a obtener.
+     * @return el par con la clave dada, o null si no se encuentra en la tabla.
+     */
+    public KeyValue get(String key) {
+        metrics.step(Operation.GET); // Contar como un paso
+        long h = hash(key, Operation.GET);
+        Node[] tab = table;
+        Node node = findNode(bucketAt(tab, indexFor(h, tab.length)), h, key, Operation.GET);
+        return node == null ? null : node.kv;
+    }
+
+    /**
+     * Inserta un par si su clave no está ya en la tabla. El nuevo nodo se coloca a la cabeza de su cadena.
+     *
+     * @param kv par a insertar.
+     * @return verdadero si la inserción fue exitosa, falso si la clave ya existe en la tabla.
+     */
+    public boolean put(KeyValue kv) {
+        metrics.step(Operation.PUT); // Contar como un paso
+        kv.setHash(hash(kv.getKey(), Operation.PUT));
+        int stripe = stripeFor(kv.getHash());
+        boolean resize;
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            Node[] tab = table; // Estable: el redimensionado necesita este cerrojo
+            int i = indexFor(kv.getHash(), tab.length);
+            Node head = bucketAt(tab, i);
+            if (findNode(head, kv.getHash(), kv.getKey(), Operation.PUT) != null) {
+                return false;
+            }
+            setBucket(tab, i, new Node(kv, head));
+            metrics.memory(Operation.PUT); // Contar la operación de almacenamiento en memoria
+            counts[stripe]++;
+            // Cada franja tiene tab.length / STRIPES cubetas; se usa su carga como estimación de la global
+            resize = counts[stripe] > (double) tab.length / STRIPES * loadFactor;
+        } finally {
+            lock.unlock();
+        }
+        if (resize) {
+            resize();
+        }
+        return true;
+    }
+
+    /**
+     * Reemplaza el par que tiene la misma clave que el par dado.
+     *
+     * @param kv par con el que reemplazar.
+     * @return verdadero si el reemplazo fue exitoso, falso si la clave no se encuentra en la tabla.
+     */
+    public boolean replace(KeyValue kv) {
+        metrics.step(Operation.REPLACE); // Contar como un paso
+        kv.setHash(hash(kv.getKey(), Operation.REPLACE));
+        ReentrantLock lock = locks[stripeFor(kv.getHash())];
+        lock.lock();
+        try {
+            Node[] tab = table;
+            Node node = findNode(bucketAt(tab, indexFor(kv.getHash(), tab.length)), kv.getHash(), kv.getKey(), Operation.REPLACE);
+            if (node == null) {
+                return false;
+            }
+            node.kv = kv;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Elimina el par con la clave dada. Los nodos anteriores al eliminado se copian, de modo que
+     * un lector que esté recorriendo la cadena antigua sigue viéndola completa.
+     *
+     * @param key clave del par a eliminar.
+     * @return verdadero si la eliminación fue exitosa, falso si la clave no se encuentra en la tabla.
+     */
+    public boolean remove(String key) {
+        metrics.step(Operation.REMOVE); // Contar como un paso
+        long h = hash(key, Operation.REMOVE);
+        int stripe = stripeFor(h);
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            Node[] tab = table;
+            int i = indexFor(h, tab.length);
+            Node head = bucketAt(tab, i);
+            Node target = findNode(head, h, key, Operation.REMOVE);
+            if (target == null) {
+                return false;
+            }
+            Node newHead = target.next;
+            for (Node node = head; node != target; node = node.next) {
+                newHead = new Node(node.kv, newHead);
+                metrics.memory(Operation.REMOVE); // Contar la copia del nodo en memoria
+            }
+            setBucket(tab, i, newHead);
+            counts[stripe]--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Duplica la capacidad de la tabla. Toma todas las franjas en orden, por lo que bloquea a los
+     * escritores pero no a los lectores, que siguen usando la tabla anterior hasta que se publica la nueva.
+     */
+    private void resize() {
+        Node[] before = table;
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            Node[] oldTab = table;
+            if (oldTab != before) {
+                return; // Otro hilo ya ha redimensionado mientras se esperaban los cerrojos
+            }
+            metrics.step(Operation.REHASH); // Contar como un paso
+            int newCapacity = CapacityMode.POWER_OF_TWO.nextCapacity(oldTab.length, 2);
+            if (newCapacity == oldTab.length) {
+                return; // Capacidad máxima alcanzada
+            }
+            Node[] newTab = new Node[newCapacity];
+            for (int i = 0; i < oldTab.length; i++) {
+                for (Node node = bucketAt(oldTab, i); node != null; node = node.next) {
+                    int j = indexFor(node.kv.getHash(), newCapacity);
+                    newTab[j] = new Node(node.kv, newTab[j]);
+                    metrics.memory(Operation.REHASH); // Contar la operación de reubicación en memoria
+                }
+            }
+            table = newTab; // Publicación volatile de la tabla completa
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de pares de la tabla hash. Bajo escrituras concurrentes es una estimación.
+     *
+     * @return El número de pares.
+     */
+    public int getSize() {
+        int size = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            ReentrantLock lock = locks[i];
+            lock.lock();
+            try {
+                size += counts[i];
+            } finally {
+                lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Imprime todos los valores almacenados en la tabla hash.
+     */
+    public void printAll() {
+        Node[] tab = table;
+        for (int i = 0; i < tab.length; i++) {
+            for (Node node = bucketAt(tab, i); node != null; node = node.next) {
+                System.out.println("Clave: " + node.kv.getKey() + ", Valor: " + node.kv.getValue());
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número total de pasos realizados en las operaciones de la tabla hash.
+     *
+     * @return El número total de pasos.
+     */
+    public long getTime() {
+        return metrics.getTotalSteps();
+    }
+
+    /**
+     * Obtiene el número total de operaciones de memoria realizadas en las operaciones de la tabla hash.
+     *
+     * @return El número total de operaciones de memoria.
+     */
+    public long getMemory() {
+        return metrics.getTotalMemory();
+    }
+
+    /**
+     * Obtiene las métricas de la tabla hash por tipo de operación.
+     *
+     * @return métricas de la tabla.
+     */
+    public TableMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Nodo de una cadena. El enlace es final; solo el par puede cambiar (replace), y es volatile.
+     */
+    private static class Node implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private volatile KeyValue kv; // Par almacenado en el nodo
+        private final Node next; // Siguiente nodo de la cadena
+
+        Node(KeyValue kv, Node next) {
+            this.kv = kv;
+            this.next = next;
+        }
+    }
+}
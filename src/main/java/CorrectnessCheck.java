@@ -0,0 +1,316 @@
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Comprobaciones de corrección de las tablas concurrentes y del redimensionado paralelo de HashTable. A diferencia de Benchmark, que solo mide,
+ * cada comprobación lanza IllegalStateException en cuanto encuentra un resultado incorrecto, de modo que
+ * el programa termina con error. Maven lo ejecuta en la fase test (exec-maven-plugin), así que un fallo
+ * hace fallar la construcción; -DskipTests lo omite.
+ */
+public class CorrectnessCheck {
+
+    /**
+     * Ejecuta todas las comprobaciones.
+     *
+     * @param args Argumentos de línea de comandos (no utilizados).
+     * @throws IllegalStateException si alguna comprobación falla.
+     */
+    public static void main(String[] args) {
+        validarConcurrenteBajoContencion();
+        validarLockFreeBajoContencion();
+        validarRedimensionadoParalelo();
+        System.out.println("Todas las comprobaciones son correctas");
+    }
+
+    /**
+     * Operaciones comunes de las tablas concurrentes, para aplicarles las mismas comprobaciones.
+     */
+    private interface TablaConcurrente {
+        /**
+         * Inserta un par.
+         *
+         * @return verdadero si la clave no estaba en la tabla.
+         */
+        boolean put(String key, Object value);
+
+        boolean replace(String key, Object value);
+
+        boolean remove(String key);
+
+        Object get(String key);
+
+        int getSize();
+    }
+
+    /**
+     * Comprueba ConcurrentHashTable, cuyo put no modifica una clave existente.
+     *
+     * @throws IllegalStateException si la tabla pierde, resucita o corrompe algún par.
+     */
+    static void validarConcurrenteBajoContencion() {
+        System.out.println("ESTRÉS DE ConcurrentHashTable --------------------------------------------");
+        validarBajoContencion(() -> {
+            ConcurrentHashTable tabla = new ConcurrentHashTable(16, 0.75);
+            return new TablaConcurrente() {
+                @Override
+                public boolean put(String key, Object value) {
+                    return tabla.put(new KeyValue(key, value));
+                }
+
+                @Override
+                public boolean replace(String key, Object value) {
+                    return tabla.replace(new KeyValue(key, value));
+                }
+
+                @Override
+                public boolean remove(String key) {
+                    return tabla.remove(key);
+                }
+
+                @Override
+                public Object get(String key) {
+                    KeyValue kv = tabla.get(key);
+                    return kv == null ? null : kv.getValue();
+                }
+
+                @Override
+                public int getSize() {
+                    return tabla.getSize();
+                }
+            };
+        }, false);
+    }
+
+    /**
+     * Comprueba LockFreeHashTable, cuyo put actualiza el valor de una clave existente. La tabla mínima obliga
+     * a pasar muchas veces por la copia cooperativa entre tablas mientras los demás hilos escriben.
+     *
+     * @throws IllegalStateException si la tabla pierde, resucita o corrompe algún par.
+     */
+    static void validarLockFreeBajoContencion() {
+        System.out.println("ESTRÉS DE LockFreeHashTable ----------------------------------------------");
+        validarBajoContencion(() -> {
+            LockFreeHashTable tabla = new LockFreeHashTable(16);
+            return new TablaConcurrente() {
+                @Override
+                public boolean put(String key, Object value) {
+                    return tabla.put(key, value);
+                }
+
+                @Override
+                public boolean replace(String key, Object value) {
+                    return tabla.replace(new StaticHashTable.KeyValue(key, value));
+                }
+
+                @Override
+                public boolean remove(String key) {
+                    return tabla.remove(key);
+                }
+
+                @Override
+                public Object get(String key) {
+                    return tabla.get(key);
+                }
+
+                @Override
+                public int getSize() {
+                    return tabla.getSize();
+                }
+            };
+        }, true);
+    }
+
+    /**
+     * Comprueba que el redimensionado PARALLEL deja la tabla igual que STOP_THE_WORLD. Aplica a dos tablas
+     * de potencias de dos la misma secuencia aleatoria de put, replace y remove, con claves suficientes para
+     * que varios reHash pasen de PARALLEL_MIN_CAPACITY cubetas y se repartan entre hilos, y compara tras cada
+     * reHash la capacidad, el tamaño y los pares reubicados, y al final el valor de cada clave.
+     *
+     * @throws IllegalStateException si las dos tablas difieren en algo.
+     */
+    static void validarRedimensionadoParalelo() {
+        System.out.println("REDIMENSIONADO PARALELO FRENTE A STOP_THE_WORLD -------------------------");
+        HashTable secuencial = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+        HashTable paralela = new HashTable(16, 0.75, HashFunction.MURMUR3, CapacityMode.POWER_OF_TWO);
+        paralela.setResizeMode(ResizeMode.PARALLEL);
+        int numClaves = 400_000;
+        Random aleatorio = new Random(7);
+        int redimensionados = 0;
+        for (int i = 0; i < 2 * numClaves; i++) {
+            String clave = "clave" + aleatorio.nextInt(numClaves);
+            boolean esperado, obtenido;
+            switch (aleatorio.nextInt(8)) {
+                case 0:
+                    esperado = secuencial.remove(clave);
+                    obtenido = paralela.remove(clave);
+                    break;
+                case 1:
+                    esperado = secuencial.replace(new KeyValue(clave, -i));
+                    obtenido = paralela.replace(new KeyValue(clave, -i));
+                    break;
+                default:
+                    esperado = secuencial.put(new KeyValue(clave, i));
+                    obtenido = paralela.put(new KeyValue(clave, i));
+            }
+            if (esperado != obtenido) {
+                throw new IllegalStateException("Resultado distinto en la operación " + i + " sobre " + clave);
+            }
+            if (secuencial.getCapacity() != paralela.getCapacity()) {
+                throw new IllegalStateException("Capacidad " + paralela.getCapacity() + ", esperada " + secuencial.getCapacity());
+            }
+            long reubicados = secuencial.getMetrics().getMemory(Operation.REHASH);
+            if (paralela.getMetrics().getMemory(Operation.REHASH) != reubicados) {
+                throw new IllegalStateException("Pares reubicados " + paralela.getMetrics().getMemory(Operation.REHASH)
+                        + ", esperados " + reubicados + " con capacidad " + paralela.getCapacity());
+            }
+            redimensionados = (int) secuencial.getMetrics().getSteps(Operation.REHASH);
+        }
+        if (secuencial.getSize() != paralela.getSize()) {
+            throw new IllegalStateException("Tamaño " + paralela.getSize() + ", esperado " + secuencial.getSize());
+        }
+        for (int i = 0; i < numClaves; i++) {
+            KeyValue esperado = secuencial.get("clave" + i);
+            KeyValue obtenido = paralela.get("clave" + i);
+            if (!Objects.equals(esperado == null ? null : esperado.getValue(), obtenido == null ? null : obtenido.getValue())) {
+                throw new IllegalStateException("Valor incorrecto para clave" + i + ": " + obtenido);
+            }
+        }
+        if (paralela.getCapacity() <= HashTable.PARALLEL_MIN_CAPACITY) {
+            throw new IllegalStateException("La tabla no ha llegado a redimensionarse en paralelo");
+        }
+        System.out.println("Correcta: " + redimensionados + " redimensionados, capacidad final " + paralela.getCapacity()
+                + ", " + paralela.getSize() + " pares");
+    }
+
+    /**
+     * Comprueba una tabla concurrente en dos fases. Primero, con un solo hilo, aplica una secuencia aleatoria
+     * de put, replace, remove y get y compara cada resultado con HashMap. Después, 8 hilos escritores
+     * insertan, reemplazan y borran claves propias y compiten por un pequeño conjunto de claves compartidas
+     * sobre una tabla mínima, para forzar muchos redimensionados, mientras 2 hilos lectores comprueban que
+     * una clave propia solo se ve sin valor o con uno de los valores que su escritor le ha dado. Al final
+     * comprueba el valor de cada clave propia y el tamaño.
+     *
+     * @param nuevaTabla   crea una tabla vacía de capacidad mínima.
+     * @param putActualiza verdadero si put actualiza el valor de una clave existente (si no, la deja igual).
+     * @throws IllegalStateException si la tabla pierde, resucita o corrompe algún par.
+     */
+    private static void validarBajoContencion(Supplier<TablaConcurrente> nuevaTabla, boolean putActualiza) {
+        TablaConcurrente secuencial = nuevaTabla.get();
+        HashMap<String, Object> referencia = new HashMap<>();
+        Random aleatorio = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            String clave = "clave" + aleatorio.nextInt(20_000);
+            boolean esperado, obtenido;
+            switch (aleatorio.nextInt(4)) {
+                case 0:
+                    esperado = (putActualiza ? referencia.put(clave, i) : referencia.putIfAbsent(clave, i)) == null;
+                    obtenido = secuencial.put(clave, i);
+                    break;
+                case 1:
+                    esperado = referencia.replace(clave, i) != null;
+                    obtenido = secuencial.replace(clave, i);
+                    break;
+                case 2:
+                    esperado = referencia.remove(clave) != null;
+                    obtenido = secuencial.remove(clave);
+                    break;
+                default:
+                    esperado = true;
+                    obtenido = Objects.equals(secuencial.get(clave), referencia.get(clave));
+            }
+            if (esperado != obtenido) {
+                throw new IllegalStateException("Resultado distinto de HashMap en la operación " + i + " sobre " + clave);
+            }
+        }
+        if (secuencial.getSize() != referencia.size()) {
+            throw new IllegalStateException("Tamaño " + secuencial.getSize() + ", esperado " + referencia.size());
+        }
+
+        int escritores = 8, lectores = 2, clavesPorHilo = 100_000, compartidas = 64;
+        TablaConcurrente tabla = nuevaTabla.get();
+        String[] errores = new String[escritores + lectores];
+        Thread[] hilos = new Thread[escritores + lectores];
+        AtomicBoolean terminado = new AtomicBoolean();
+        for (int t = 0; t < escritores; t++) {
+            int id = t;
+            hilos[t] = new Thread(() -> {
+                Random rand = new Random(id);
+                for (int i = 0; i < clavesPorHilo && errores[id] == null; i++) {
+                    String clave = id + ":" + i;
+                    if (!tabla.put(clave, i)) {
+                        errores[id] = "clave nueva vista como existente " + clave;
+                    } else if (!Integer.valueOf(i).equals(tabla.get(clave))) {
+                        errores[id] = "par perdido " + clave;
+                    } else if (i % 3 == 0 && (!tabla.remove(clave) || tabla.get(clave) != null)) {
+                        errores[id] = "borrado incorrecto " + clave;
+                    } else if (i % 3 == 1 && !tabla.replace(clave, -i)) {
+                        errores[id] = "reemplazo incorrecto " + clave;
+                    }
+                    String compartida = "compartida" + rand.nextInt(compartidas);
+                    if (!tabla.put(compartida, i)) {
+                        tabla.replace(compartida, i);
+                    }
+                    if (rand.nextInt(4) == 0) {
+                        tabla.remove(compartida);
+                    }
+                }
+            });
+        }
+        for (int t = escritores; t < escritores + lectores; t++) {
+            int id = t;
+            hilos[t] = new Thread(() -> {
+                Random rand = new Random(id);
+                while (!terminado.get() && errores[id] == null) {
+                    int i = rand.nextInt(clavesPorHilo);
+                    String clave = rand.nextInt(escritores) + ":" + i;
+                    Object valor = tabla.get(clave);
+                    if (valor != null && !Integer.valueOf(i).equals(valor) && !Integer.valueOf(-i).equals(valor)) {
+                        errores[id] = "valor imposible " + valor + " en " + clave;
+                    }
+                }
+            });
+        }
+        for (Thread hilo : hilos) {
+            hilo.start();
+        }
+        try {
+            for (int t = 0; t < escritores; t++) {
+                hilos[t].join();
+            }
+            terminado.set(true);
+            for (int t = escritores; t < escritores + lectores; t++) {
+                hilos[t].join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Prueba interrumpida", e);
+        }
+        for (int t = 0; t < escritores + lectores; t++) {
+            if (errores[t] != null) {
+                throw new IllegalStateException("Hilo " + t + ": " + errores[t]);
+            }
+        }
+        int esperados = 0;
+        for (int t = 0; t < escritores; t++) {
+            for (int i = 0; i < clavesPorHilo; i++) {
+                Object valor = tabla.get(t + ":" + i);
+                Object esperado = i % 3 == 0 ? null : Integer.valueOf(i % 3 == 1 ? -i : i);
+                if (!Objects.equals(valor, esperado)) {
+                    throw new IllegalStateException("Valor incorrecto para " + t + ":" + i + ": " + valor);
+                }
+                esperados += esperado == null ? 0 : 1;
+            }
+        }
+        for (int c = 0; c < compartidas; c++) {
+            esperados += tabla.get("compartida" + c) == null ? 0 : 1;
+        }
+        if (tabla.getSize() != esperados) {
+            throw new IllegalStateException("Tamaño " + tabla.getSize() + ", esperado " + esperados);
+        }
+        System.out.println("Correcta: secuencia igual que HashMap; " + escritores + " escritores y " + lectores
+                + " lectores, " + esperados + " pares finales");
+    }
+}
@@ -52,23 +52,24 @@ public class FileUtil {
 		return bRet;
 	}
 	/**
-	 * Reads the content of a file
+	 * Reads the content of a file. Each line ends with a newline in the result.
+	 * For big files use TextImporter, which does not load the whole file in memory.
 	 * @return String content of the file
 	 */
 	public String readFromFile(){
-		String sRet="";
+		StringBuilder sRet=new StringBuilder();
 		Path file=Paths.get(filePath);
 		Charset charset = Charset.forName("UTF-8");
 		String sTemp="";
 		try (BufferedReader reader = Files.newBufferedReader(file, charset)) {
 			while ((sTemp=reader.readLine())!= null) {
-				sRet+=sTemp;
+				sRet.append(sTemp).append('\n');
 			}
 			reader.close();
 		} catch (IOException x) {
 			System.err.format("IOException: %s%n", x);
 		}
-		return sRet;
+		return sRet.toString();
 	}
 	
 	/**
@@ -0,0 +1,38 @@
+import java.io.Serializable;
+
+/**
+ * Función hash de 64 bits utilizada por las tablas hash para distribuir las claves.
+ * Las implementaciones rápidas trabajan directamente sobre los caracteres del String
+ * (unidades UTF-16), sin codificarlo a bytes ni reservar memoria en cada llamada.
+ * Implementa Serializable para que las tablas que la usan puedan serializarse.
+ */
+public interface HashFunction extends Serializable {
+
+    /**
+     * MurmurHash3 (variante x64 de 128 bits, primera mitad). Función por defecto de las tablas.
+     */
+    HashFunction MURMUR3 = new Murmur3Hash();
+
+    /**
+     * xxHash64.
+     */
+    HashFunction XXHASH64 = new XxHash64();
+
+    /**
+     * wyhash (versión final 4).
+     */
+    HashFunction WYHASH = new WyHash();
+
+    /**
+     * SHA-256 truncado a 64 bits. Mucho más lento; solo tiene sentido si se necesita un hash criptográfico.
+     */
+    HashFunction SHA256 = new Sha256Hash();
+
+    /**
+     * Calcula el hash de 64 bits de una clave.
+     *
+     * @param key clave para la cual calcular el hash.
+     * @return hash de 64 bits de la clave.
+     */
+    long hash(String key);
+}
@@ -1,66 +1,140 @@
+import java.io.IOException;
 import java.io.Serializable;
-import java.io.UnsupportedEncodingException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class HashTable implements Serializable {
     private final static String RUTA_TXT = "src/main/java/data/";
     private final static String RUTA_BINARY = "src/main/java/data/";
+    private final static int TREEIFY_THRESHOLD = 8; // Longitud a partir de la cual una cadena se convierte en árbol
+    private final static int UNTREEIFY_THRESHOLD = 6; // Tamaño por debajo del cual un árbol vuelve a ser una cadena
+    private final static int MIGRATION_STEP = 4; // Cubetas migradas por operación durante un redimensionado incremental
+    final static int PARALLEL_MIN_CAPACITY = 1 << 16; // Capacidad a partir de la cual se redimensiona en paralelo
+    private final static int PARALLEL_CHUNK = 1 << 13; // Cubetas antiguas que reubica cada tarea del redimensionado paralelo
+    private final static int IMPORT_BATCH = 4096; // Pares de cada lote de putAll al importar un fichero de texto
     private final double loadFactor;
-    private ListaDinamica[] table;
+    private double minLoadFactor; // Factor de carga por debajo del cual la tabla se reduce; 0 para no reducirla nunca
+    private final int minCapacity; // Capacidad inicial, por debajo de la cual la tabla no se reduce
+    private final HashFunction hashFunction; // Función hash aplicada a las claves
+    private final CapacityMode capacityMode; // Modo de cálculo de tamaños e índices
+    private final BucketType bucketType; // Implementación de las cubetas que no son árboles
+    private Bucket[] table; // Cubetas; una posición es null hasta que se inserta en ella
     private int capacity;
     private int population;
-    // Contadores
-    private int time; // Para contar los pasos (como una medida de tiempo)
-    private int memory; // Para contar las operaciones de memoria
+    private ResizeMode resizeMode = ResizeMode.STOP_THE_WORLD; // Modo de redimensionado
+    private Bucket[] oldTable; // Tabla anterior mientras dura una migración incremental, null si no hay ninguna
+    private int oldCapacity; // Capacidad de la tabla anterior
+    private int migrateIndex; // Siguiente cubeta de la tabla anterior por migrar
+    // Contadores de pasos (como una medida de tiempo), operaciones de memoria y longitudes de cadena
+    private final TableMetrics metrics = new TableMetrics();
+    private transient WriteAheadLog log; // Registro de escritura anticipada de las modificaciones, o null
+    private ValueCodec valueCodec = ValueCodec.COMPACT; // Codificación de los valores en los ficheros
 
     /**
-     * Constructor para HashTable.
+     * Constructor para HashTable. Utiliza MurmurHash3 como función hash.
      *
      * @param capacity   capacidad inicial de la tabla hash.
      * @param loadFactor factor de carga máximo para la tabla hash.
      */
     public HashTable(int capacity, double loadFactor) {
-        this.capacity = capacity;
+        this(capacity, loadFactor, HashFunction.MURMUR3);
+    }
+
+    /**
+     * Constructor para HashTable con una función hash dada.
+     *
+     * @param capacity     capacidad inicial de la tabla hash.
+     * @param loadFactor   factor de carga máximo para la tabla hash.
+     * @param hashFunction función hash aplicada a las claves (por ejemplo {@link HashFunction#SHA256}).
+     */
+    public HashTable(int capacity, double loadFactor, HashFunction hashFunction) {
+        this(capacity, loadFactor, hashFunction, CapacityMode.PRIME);
+    }
+
+    /**
+     * Constructor para HashTable con una función hash y un modo de capacidad dados.
+     *
+     * @param capacity     capacidad inicial de la tabla hash (se ajusta según el modo de capacidad).
+     * @param loadFactor   factor de carga máximo para la tabla hash.
+     * @param hashFunction función hash aplicada a las claves.
+     * @param capacityMode modo de capacidad: tamaños primos o potencias de dos.
+     */
+    public HashTable(int capacity, double loadFactor, HashFunction hashFunction, CapacityMode capacityMode) {
+        this(capacity, loadFactor, hashFunction, capacityMode, BucketType.LINKED_LIST);
+    }
+
+    /**
+     * Constructor para HashTable con una función hash, un modo de capacidad y un tipo de cubeta dados.
+     *
+     * @param capacity     capacidad inicial de la tabla hash (se ajusta según el modo de capacidad).
+     * @param loadFactor   factor de carga máximo para la tabla hash.
+     * @param hashFunction función hash aplicada a las claves.
+     * @param capacityMode modo de capacidad: tamaños primos o potencias de dos.
+     * @param bucketType   implementación de las cubetas: listas enlazadas o arrays.
+     */
+    public HashTable(int capacity, double loadFactor, HashFunction hashFunction, CapacityMode capacityMode,
+                     BucketType bucketType) {
+        this.capacity = capacityMode.initialCapacity(capacity);
+        this.minCapacity = this.capacity;
         this.loadFactor = loadFactor;
-        this.table = new ListaDinamica[capacity];
-        for (int i = 0; i < capacity; i++) {
-            table[i] = new ListaDinamica();
-        }
+        this.hashFunction = hashFunction;
+        this.capacityMode = capacityMode;
+        this.bucketType = bucketType;
+        this.table = new Bucket[this.capacity];
     }
 
     /**
-     * Obtiene el siguiente número primo después de un número dado, utilizado para calcular la capacidad de la tabla.
+     * Establece el modo de redimensionado. Si hay una migración incremental en curso, se completa antes.
      *
-     * @param num número a partir del cual buscar el siguiente número primo.
-     * @return el siguiente número primo.
+     * @param resizeMode nuevo modo de redimensionado.
      */
-    private int getNextPrime(int num) {
-        while (true) {
-            if (!isPrime(num)) {
-                num++;
-            } else {
-                return num;
-            }
-        }
+    public void setResizeMode(ResizeMode resizeMode) {
+        finishMigration();
+        this.resizeMode = resizeMode;
     }
 
     /**
-     * Comprueba si un número es primo.
+     * Establece el factor de carga mínimo. Cuando una eliminación deja la carga por debajo de él, la tabla
+     * se reduce a la capacidad con la que su carga queda en la mitad del máximo, sin bajar de la capacidad
+     * inicial. Por defecto es 0 y la tabla no se reduce nunca.
      *
-     * @param num número a comprobar.
-     * @return verdadero si el número es primo, falso en caso contrario.
+     * @param minLoadFactor factor de carga mínimo, o 0 para no reducir la tabla.
+     * @throws IllegalArgumentException si es negativo o no es menor que la mitad del factor de carga
+     *                                  máximo (la tabla se volvería a ampliar enseguida tras reducirse).
      */
-    private boolean isPrime(int num) {
-        if ((num % 2) == 0) {
-            return false;
+    public void setMinLoadFactor(double minLoadFactor) {
+        if (minLoadFactor < 0 || minLoadFactor >= loadFactor / 2) {
+            throw new IllegalArgumentException("El factor de carga mínimo debe estar entre 0 y " + loadFactor / 2);
         }
-        for (int i = 3; i <= Math.sqrt(num); i += 2) {
-            if ((num % i) == 0) {
-                return false;
-            }
-        }
-        return true;
+        this.minLoadFactor = minLoadFactor;
+    }
+
+    /**
+     * Establece la codificación de los valores en todos los ficheros binarios de la tabla: ficheros por
+     * cubeta, instantáneas, registro de escritura anticipada y tablas mapeadas. Un fichero debe leerse con
+     * la misma codificación con la que se escribió. Por defecto es {@link ValueCodec#COMPACT}.
+     *
+     * @param valueCodec codificación de los valores.
+     */
+    public void setValueCodec(ValueCodec valueCodec) {
+        this.valueCodec = valueCodec;
+    }
+
+    /**
+     * Establece el registro de escritura anticipada en el que se anota, a partir de ahora, cada put, replace
+     * y remove que modifica la tabla (también en lotes). Cada operación se anota y se confirma en el registro,
+     * según la política de forzado del registro, antes de aplicarse en memoria, así que si el registro falla la
+     * tabla no cambia; un lote se confirma una sola vez. El registro no se serializa con la tabla.
+     *
+     * @param log registro de escritura anticipada, o null para dejar de registrar las modificaciones.
+     */
+    public void setWriteAheadLog(WriteAheadLog log) {
+        this.log = log;
     }
 
     /**
@@ -69,7 +143,7 @@ public class HashTable implements Serializable {
      * @return el factor de carga actual.
      */
     private double calculateLoadFactor() {
-        return (double) (population / capacity);
+        return (double) population / capacity;
     }
 
     /**
@@ -82,46 +156,59 @@ public class HashTable implements Serializable {
     }
 
     /**
-     * Calcula el índice de hash para una clave dada utilizando SHA-256.
+     * Calcula el hash completo de una clave utilizando la función hash de la tabla.
      *
-     * @param key clave para la cual calcular el índice de hash.
-     * @return índice de hash calculado.
+     * @param key clave para la cual calcular el hash.
+     * @return hash de 64 bits de la clave.
      */
-    private int hash(String key) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(key.getBytes("UTF-8"));
-            int hashInt = 0;
-
-            // Convertir los primeros 4 bytes del hash a un entero (para simplificar, podríamos usar más bytes y un tipo de dato más grande si es necesario)
-            for (int i = 0; i < 4; i++) {
-                hashInt <<= 8; // Desplazar 8 bits a la izquierda
-                hashInt |= (hash[i] & 0xFF); // Añadir el siguiente byte del hash
-            }
+    private long hash(String key) {
+        return hashFunction.hash(key);
+    }
 
-            return Math.abs(hashInt % capacity); // Usar el valor absoluto para asegurarnos de que el índice es positivo
-        } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
-            // Manejar de alguna manera el error en caso de que el algoritmo SHA-256 no esté disponible
-            throw new RuntimeException("SHA-256 no disponible", e);
-        }
+    /**
+     * Calcula el índice de la cubeta que corresponde a un hash para una capacidad dada.
+     *
+     * @param hash     hash completo de la clave.
+     * @param capacity número de cubetas de la tabla.
+     * @return índice de la cubeta.
+     */
+    private int indexFor(long hash, int capacity) {
+        return capacityMode.indexFor(hash, capacity);
     }
 
     /**
-     * Incrementa el contador de pasos (time).
+     * Incrementa el contador de pasos (time) de una operación.
      * Cada llamada a este método representa una operación realizada,
      * ayudando a medir la complejidad en términos de pasos de ejecución.
+     *
+     * @param op operación a la que se atribuye el paso.
      */
-    private void incrementTime() {
-        this.time++;
+    private void incrementTime(Operation op) {
+        metrics.step(op);
     }
 
     /**
-     * Incrementa el contador de memoria (memory).
+     * Incrementa el contador de memoria (memory) de una operación.
      * Cada llamada a este método representa una operación de acceso a memoria,
      * ayudando a estimar el uso de memoria de la tabla hash.
+     *
+     * @param op operación a la que se atribuye el acceso.
+     */
+    private void incrementMemory(Operation op) {
+        metrics.memory(op);
+    }
+
+    /**
+     * Registra la longitud de la cadena de la cubeta que corresponde a un hash en la tabla actual.
+     *
+     * @param op operación a la que se atribuye la longitud.
+     * @param h  hash completo de la clave.
      */
-    private void incrementMemory() {
-        this.memory++;
+    private void recordChainLength(Operation op, long h) {
+        if (TableMetrics.ENABLED) {
+            Bucket bucket = table[indexFor(h, capacity)];
+            metrics.chainLength(op, bucket == null ? 0 : bucket.getSize());
+        }
     }
 
     /**
@@ -132,12 +219,25 @@ public class HashTable implements Serializable {
      * @return verdadero si la inserción fue exitosa, falso si la clave ya existe en la tabla.
      */
     public boolean put(KeyValue kv) {
-        incrementTime(); // Contar como un paso
-        if (get(kv.getKey()) == null) {
-            int pos = hash(kv.getKey());
-            incrementMemory(); // Contar la operación de acceso a la memoria
-            table[pos].addUltimo(kv);
-            incrementMemory(); // Contar la operación de almacenamiento en memoria
+        incrementTime(Operation.PUT); // Contar como un paso
+        migrateStep();
+        kv.setHash(hash(kv.getKey()));
+        incrementMemory(Operation.PUT); // Contar la operación de acceso a la memoria
+        recordChainLength(Operation.PUT, kv.getHash());
+        Bucket old = oldBucketFor(kv.getHash());
+        if (old != null && old.find(kv.getHash(), kv.getKey()) != null) {
+            return false;
+        }
+        int pos = indexFor(kv.getHash(), capacity);
+        if (log != null) {
+            if (table[pos] != null && table[pos].find(kv.getHash(), kv.getKey()) != null) {
+                return false;
+            }
+            commitLog(appendLog(Operation.PUT, kv.getKey(), kv.getValue()));
+        }
+        if (bucketAt(table, pos).putIfAbsent(kv) == null) {
+            incrementMemory(Operation.PUT); // Contar la operación de almacenamiento en memoria
+            treeifyIfNeeded(table, pos);
             population++;
             if (checkLoad()) {
                 reHash(2);
@@ -155,13 +255,42 @@ public class HashTable implements Serializable {
      * @return verdadero si la eliminación fue exitosa, falso si la clave no se encuentra en la tabla.
      */
     public boolean remove(String key) {
-        incrementTime(); // Contar como un paso
-        int pos = hash(key);
-        incrementMemory(); // Contar la operación de acceso a la memoria
-        int index = table[pos].remove(new KeyValue(key, null));
-        if (index != -1) {
+        incrementTime(Operation.REMOVE); // Contar como un paso
+        migrateStep();
+        long h = hash(key);
+        incrementMemory(Operation.REMOVE); // Contar la operación de acceso a la memoria
+        recordChainLength(Operation.REMOVE, h);
+        if (log != null) {
+            if (find(h, key) == null) {
+                return false;
+            }
+            commitLog(appendLog(Operation.REMOVE, key, null));
+        }
+        boolean removed = removeEntry(h, key);
+        if (removed) {
             population--;
-            incrementMemory(); // Contar la operación de eliminación en memoria
+            incrementMemory(Operation.REMOVE); // Contar la operación de eliminación en memoria
+            shrinkIfNeeded();
+        }
+        return removed;
+    }
+
+    /**
+     * Quita el par con la clave dada de su cubeta: durante una migración incremental, de la cubeta de la
+     * tabla anterior si aún no se ha migrado, o si no de la de la tabla nueva. No actualiza la población.
+     *
+     * @param h   hash completo de la clave.
+     * @param key clave del par a quitar.
+     * @return verdadero si el par estaba en la tabla.
+     */
+    private boolean removeEntry(long h, String key) {
+        Bucket old = oldBucketFor(h);
+        if (old != null && old.remove(h, key) != null) {
+            return true;
+        }
+        int pos = indexFor(h, capacity);
+        if (table[pos] != null && table[pos].remove(h, key) != null) {
+            untreeifyIfNeeded(pos);
             return true;
         }
         return false;
@@ -175,39 +304,260 @@ public class HashTable implements Serializable {
      * @return objeto asociado a la clave, o null si la clave no se encuentra en la tabla.
      */
     public KeyValue get(String k) {
-        incrementTime(); // Contar como un paso
-        int pos = hash(k);
-        incrementMemory(); // Contar la operación de acceso a la memoria
-        ListaDinamica lista = table[pos];
-        KeyValue res = (KeyValue) lista.get(lista.indexOf(new KeyValue(k, null)));
-        incrementMemory(); // Contar la operación de lectura en memoria
+        incrementTime(Operation.GET); // Contar como un paso
+        migrateStep();
+        long h = hash(k);
+        incrementMemory(Operation.GET); // Contar la operación de acceso a la memoria
+        recordChainLength(Operation.GET, h);
+        KeyValue res = find(h, k);
+        incrementMemory(Operation.GET); // Contar la operación de lectura en memoria
         return res;
     }
 
+    /**
+     * Busca el par con la clave dada. Durante una migración incremental consulta primero
+     * la cubeta de la tabla anterior, si aún no se ha migrado, y después la de la tabla nueva.
+     *
+     * @param h hash completo de la clave.
+     * @param k clave a buscar.
+     * @return el par con la clave dada, o null si no se encuentra en la tabla.
+     */
+    private KeyValue find(long h, String k) {
+        Bucket old = oldBucketFor(h);
+        if (old != null) {
+            KeyValue res = old.find(h, k);
+            if (res != null) {
+                return res;
+            }
+        }
+        Bucket bucket = table[indexFor(h, capacity)];
+        return bucket == null ? null : bucket.find(h, k);
+    }
+
     /**
      * Realiza el rehashing de la tabla hash cuando el factor de carga excede el máximo permitido.
      * Incrementa los contadores de tiempo y memoria para medir el rendimiento.
-     * Crea una nueva tabla con capacidad aumentada y reubica los elementos existentes.
+     * Crea una nueva tabla con capacidad aumentada y reubica los elementos existentes
+     * usando el hash almacenado en cada par, sin volver a calcularlo. En modo incremental
+     * solo instala la tabla nueva; las operaciones siguientes migran las cubetas poco a poco.
      *
      * @param factor factor por el cual se aumentará la capacidad de la tabla.
      */
     private void reHash(float factor) {
-        incrementTime(); // Contar como un paso (podría considerarse más debido a la complejidad de esta operación)
-        int newCapacity = getNextPrime((int) (capacity * factor));
-        HashTable hsTemp = new HashTable(newCapacity, loadFactor);
-        for (int i = 0; i < capacity; i++) {
-            ListaDinamica lista = table[i];
-            int size = lista.getSize();
-            for (int j = 0; j < size; j++) {
-                hsTemp.put((KeyValue) lista.removeFirst());
-                incrementMemory(); // Contar la operación de reubicación en memoria
-            }
+        incrementTime(Operation.REHASH); // Contar como un paso (podría considerarse más debido a la complejidad de esta operación)
+        finishMigration();
+        int newCapacity = capacityMode.nextCapacity(capacity, factor);
+        if (resizeMode == ResizeMode.INCREMENTAL) {
+            this.oldTable = table;
+            this.oldCapacity = capacity;
+            this.migrateIndex = 0;
+            this.table = new Bucket[newCapacity];
+            this.capacity = newCapacity;
+            return;
+        }
+        rebuild(newCapacity);
+    }
+
+    /**
+     * Reubica de una vez todos los pares en una tabla nueva de la capacidad dada. Debe llamarse
+     * sin ninguna migración incremental en curso.
+     *
+     * @param newCapacity capacidad de la tabla nueva.
+     */
+    private void rebuild(int newCapacity) {
+        Bucket[] newTable = new Bucket[newCapacity];
+        if (canRelocateInParallel(newCapacity)) {
+            ForkJoinPool.commonPool().invoke(new RelocateTask(newTable, newCapacity, 0, capacity));
+        } else {
+            relocateRange(newTable, newCapacity, 0, capacity);
         }
-        this.table = hsTemp.table;
+        this.table = newTable; // Se publica cuando todas las tareas han terminado
         this.capacity = newCapacity;
         // Considerar si se debería contar la memoria utilizada por la nueva tabla hash
     }
 
+    /**
+     * Reduce la tabla si su carga ha bajado del factor de carga mínimo. La capacidad nueva deja la carga
+     * en la mitad del máximo, de modo que ni una inserción ni una eliminación la vuelven a redimensionar enseguida.
+     */
+    private void shrinkIfNeeded() {
+        if (population < capacity * minLoadFactor && capacity > minCapacity) {
+            resizeTo(Math.ceil(population * 2 / loadFactor));
+        }
+    }
+
+    /**
+     * Compacta la tabla: la reconstruye con la menor capacidad (no inferior a la inicial) en la que su
+     * población cabe sin superar el factor de carga máximo. Libera las cubetas sobrantes tras eliminaciones
+     * masivas y recorta las cubetas que crecieron. Si hay una migración incremental en curso, se completa antes.
+     */
+    public void compact() {
+        resizeTo(Math.ceil(population / loadFactor));
+    }
+
+    /**
+     * Reconstruye la tabla con la capacidad que corresponde a un número de cubetas deseado, sin bajar de la
+     * capacidad inicial, si es distinta de la actual.
+     *
+     * @param wanted número de cubetas deseado.
+     */
+    private void resizeTo(double wanted) {
+        finishMigration();
+        int newCapacity = capacityMode.initialCapacity((int) Math.min(Math.max(wanted, minCapacity), Integer.MAX_VALUE));
+        if (newCapacity != capacity) {
+            incrementTime(Operation.REHASH); // Contar como un paso
+            rebuild(newCapacity);
+        }
+    }
+
+    /**
+     * Indica si el redimensionado a una capacidad puede repartirse entre varios hilos. Con capacidades
+     * potencia de dos y una capacidad nueva múltiplo de la anterior, los pares de la cubeta antigua i solo
+     * van a cubetas nuevas congruentes con i módulo la capacidad anterior, así que rangos distintos de
+     * cubetas antiguas escriben en cubetas nuevas distintas y no necesitan sincronización.
+     *
+     * @param newCapacity capacidad de la tabla nueva.
+     * @return verdadero si el modo es PARALLEL y el redimensionado cumple esas condiciones.
+     */
+    private boolean canRelocateInParallel(int newCapacity) {
+        return resizeMode == ResizeMode.PARALLEL && capacityMode == CapacityMode.POWER_OF_TWO
+                && capacity >= PARALLEL_MIN_CAPACITY && newCapacity % capacity == 0;
+    }
+
+    /**
+     * Reubica en un array de cubetas nuevo los pares de un rango de cubetas de la tabla actual.
+     *
+     * @param buckets         array de cubetas destino.
+     * @param bucketsCapacity capacidad del array destino.
+     * @param from            primera cubeta del rango.
+     * @param to              cubeta siguiente a la última del rango.
+     */
+    private void relocateRange(Bucket[] buckets, int bucketsCapacity, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (table[i] != null) {
+                table[i].forEach(kv -> relocate(buckets, bucketsCapacity, kv));
+            }
+        }
+    }
+
+    /**
+     * Aumenta la capacidad de una sola vez, si hace falta, para que la tabla pueda alcanzar una
+     * población dada sin superar el factor de carga. Debe llamarse sin ninguna migración en curso.
+     *
+     * @param expectedPopulation número de pares que tendrá la tabla.
+     */
+    private void ensureCapacity(long expectedPopulation) {
+        double needed = Math.ceil(expectedPopulation / loadFactor);
+        if (needed > capacity) {
+            incrementTime(Operation.REHASH); // Contar como un paso
+            rebuild(capacityMode.initialCapacity((int) Math.min(needed, Integer.MAX_VALUE)));
+        }
+    }
+
+    /**
+     * Calcula la cubeta de la tabla actual de cada hash de un lote y el orden en que procesarlo.
+     *
+     * @param hashes hash completo de cada elemento del lote.
+     * @return índices del lote ordenados por cubeta.
+     */
+    private int[] bucketOrder(long[] hashes) {
+        int[] positions = new int[hashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            positions[i] = indexFor(hashes[i], capacity);
+        }
+        return BucketOrder.sort(positions, capacity);
+    }
+
+    /**
+     * Coloca un par ya presente en la tabla en su cubeta de un nuevo array de cubetas, usando su hash almacenado.
+     *
+     * @param buckets         array de cubetas destino.
+     * @param bucketsCapacity capacidad del array destino.
+     * @param kv              par a reubicar.
+     */
+    private void relocate(Bucket[] buckets, int bucketsCapacity, KeyValue kv) {
+        int pos = indexFor(kv.getHash(), bucketsCapacity);
+        bucketAt(buckets, pos).putIfAbsent(kv);
+        treeifyIfNeeded(buckets, pos);
+        incrementMemory(Operation.REHASH); // Contar la operación de reubicación en memoria
+    }
+
+    /**
+     * Migra a la tabla nueva hasta MIGRATION_STEP cubetas de la tabla anterior, si hay una migración en curso.
+     */
+    private void migrateStep() {
+        if (oldTable != null) {
+            migrateBuckets(MIGRATION_STEP);
+        }
+    }
+
+    /**
+     * Completa de una vez la migración incremental en curso, si la hay.
+     */
+    private void finishMigration() {
+        if (oldTable != null) {
+            migrateBuckets(oldCapacity - migrateIndex);
+        }
+    }
+
+    /**
+     * Migra un número de cubetas de la tabla anterior a la nueva y libera la tabla anterior al terminar.
+     *
+     * @param count número máximo de cubetas a migrar.
+     */
+    private void migrateBuckets(int count) {
+        int end = Math.min(migrateIndex + count, oldCapacity);
+        for (; migrateIndex < end; migrateIndex++) {
+            Bucket bucket = oldTable[migrateIndex];
+            if (bucket != null) {
+                bucket.forEach(kv -> relocate(table, capacity, kv));
+                oldTable[migrateIndex] = null;
+            }
+        }
+        if (migrateIndex == oldCapacity) {
+            oldTable = null;
+        }
+    }
+
+    /**
+     * Obtiene la cubeta de la tabla anterior que corresponde a un hash, si esa cubeta aún no se ha migrado.
+     *
+     * @param h hash completo de la clave.
+     * @return la cubeta pendiente de migrar, o null si no hay migración en curso o ya se migró.
+     */
+    private Bucket oldBucketFor(long h) {
+        return oldTable == null ? null : oldTable[indexFor(h, oldCapacity)];
+    }
+
+    /**
+     * Obtiene la cubeta de una posición, creándola con el tipo de cubeta de la tabla si todavía no existe.
+     *
+     * @param buckets array de cubetas.
+     * @param pos     posición de la cubeta.
+     * @return la cubeta de esa posición.
+     */
+    private Bucket bucketAt(Bucket[] buckets, int pos) {
+        Bucket bucket = buckets[pos];
+        if (bucket == null) {
+            bucket = bucketType.create();
+            buckets[pos] = bucket;
+        }
+        return bucket;
+    }
+
+    /**
+     * Obtiene el par con la clave dada sin modificar nada: no cuenta pasos ni memoria y no avanza una
+     * migración incremental en curso. StampedHashTable lo usa para lecturas optimistas concurrentes,
+     * que no deben escribir en memoria compartida; si la tabla cambia mientras tanto, el resultado
+     * puede ser inconsistente o lanzar una excepción, y quien llama debe validarlo.
+     *
+     * @param k clave del objeto a obtener.
+     * @return objeto asociado a la clave, o null si la clave no se encuentra en la tabla.
+     */
+    KeyValue peek(String k) {
+        return find(hash(k), k);
+    }
+
     /**
      * Reemplaza un objeto KeyValue existente en la tabla hash con otro objeto KeyValue dado.
      * Incrementa los contadores de tiempo y memoria para medir el rendimiento.
@@ -216,10 +566,187 @@ public class HashTable implements Serializable {
      * @return verdadero si el reemplazo fue exitoso, falso en caso contrario.
      */
     public boolean replace(KeyValue kv) {
-        incrementTime(); // Contar como un paso
-        int index = hash(kv.getKey());
-        incrementMemory(); // Contar la operación de acceso a la memoria
-        return table[index].set(kv);
+        incrementTime(Operation.REPLACE); // Contar como un paso
+        migrateStep();
+        kv.setHash(hash(kv.getKey()));
+        incrementMemory(Operation.REPLACE); // Contar la operación de acceso a la memoria
+        recordChainLength(Operation.REPLACE, kv.getHash());
+        if (log != null) {
+            if (find(kv.getHash(), kv.getKey()) == null) {
+                return false;
+            }
+            commitLog(appendLog(Operation.REPLACE, kv.getKey(), kv.getValue()));
+        }
+        Bucket old = oldBucketFor(kv.getHash());
+        Bucket bucket = table[indexFor(kv.getHash(), capacity)];
+        return (old != null && old.set(kv)) || (bucket != null && bucket.set(kv));
+    }
+
+    /**
+     * Inserta un lote de pares. Calcula primero todos los hashes, aumenta la capacidad una sola vez
+     * para la población final (en lugar de redimensionar varias veces durante el lote) y después
+     * inserta los pares en el orden de sus cubetas, recorriendo la tabla de forma secuencial.
+     * En modo INCREMENTAL la tabla crece como en put, sin reubicar los pares de una vez: cada par busca su
+     * clave en la tabla anterior y en la nueva y avanza la migración en curso igual que una inserción suelta.
+     *
+     * @param kvs pares a insertar.
+     * @return para cada par, verdadero si se insertó y falso si su clave ya existía (en la tabla o antes en el lote).
+     */
+    public boolean[] putAll(KeyValue[] kvs) {
+        long[] hashes = new long[kvs.length];
+        for (int i = 0; i < kvs.length; i++) {
+            kvs[i].setHash(hash(kvs[i].getKey()));
+            hashes[i] = kvs[i].getHash();
+        }
+        if (resizeMode != ResizeMode.INCREMENTAL) {
+            ensureCapacity((long) population + kvs.length);
+        }
+        int[] order = bucketOrder(hashes);
+        if (log != null) {
+            // Anotar antes de aplicar los pares que se van a insertar, en el mismo orden en que se insertan
+            Set<String> inserted = new HashSet<>();
+            long lastRecord = 0;
+            for (int i : order) {
+                if (find(hashes[i], kvs[i].getKey()) == null && inserted.add(kvs[i].getKey())) {
+                    lastRecord = appendLog(Operation.PUT, kvs[i].getKey(), kvs[i].getValue());
+                }
+            }
+            if (lastRecord != 0) {
+                commitLog(lastRecord); // Un único commit para todo el lote
+            }
+        }
+        boolean[] results = new boolean[kvs.length];
+        for (int i : order) {
+            incrementTime(Operation.PUT); // Contar como un paso
+            migrateStep();
+            incrementMemory(Operation.PUT); // Contar la operación de acceso a la memoria
+            recordChainLength(Operation.PUT, hashes[i]);
+            Bucket old = oldBucketFor(hashes[i]);
+            if (old != null && old.find(hashes[i], kvs[i].getKey()) != null) {
+                continue;
+            }
+            int pos = indexFor(hashes[i], capacity);
+            if (bucketAt(table, pos).putIfAbsent(kvs[i]) == null) {
+                incrementMemory(Operation.PUT); // Contar la operación de almacenamiento en memoria
+                treeifyIfNeeded(table, pos);
+                population++;
+                results[i] = true;
+                if (checkLoad()) {
+                    reHash(2); // Solo en modo INCREMENTAL: en los demás la capacidad ya alcanza para el lote
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Obtiene los pares de un lote de claves, visitando las cubetas en orden. Durante una migración
+     * incremental cada clave se busca como en get, en la tabla anterior y en la nueva, y avanza la migración.
+     *
+     * @param keys claves a buscar.
+     * @return para cada clave, su par, o null si no se encuentra en la tabla.
+     */
+    public KeyValue[] getAll(String[] keys) {
+        long[] hashes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = hash(keys[i]);
+        }
+        KeyValue[] results = new KeyValue[keys.length];
+        for (int i : bucketOrder(hashes)) {
+            incrementTime(Operation.GET); // Contar como un paso
+            migrateStep();
+            incrementMemory(Operation.GET); // Contar la operación de acceso a la memoria
+            recordChainLength(Operation.GET, hashes[i]);
+            results[i] = find(hashes[i], keys[i]);
+            incrementMemory(Operation.GET); // Contar la operación de lectura en memoria
+        }
+        return results;
+    }
+
+    /**
+     * Elimina un lote de claves, visitando las cubetas en orden. Durante una migración incremental cada
+     * clave se elimina como en remove, de la tabla anterior o de la nueva, y avanza la migración.
+     *
+     * @param keys claves a eliminar.
+     * @return para cada clave, verdadero si se eliminó y falso si no se encontraba en la tabla.
+     */
+    public boolean[] removeAll(String[] keys) {
+        long[] hashes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = hash(keys[i]);
+        }
+        int[] order = bucketOrder(hashes);
+        if (log != null) {
+            // Anotar antes de aplicar las claves que se van a eliminar
+            Set<String> removed = new HashSet<>();
+            long lastRecord = 0;
+            for (int i : order) {
+                if (find(hashes[i], keys[i]) != null && removed.add(keys[i])) {
+                    lastRecord = appendLog(Operation.REMOVE, keys[i], null);
+                }
+            }
+            if (lastRecord != 0) {
+                commitLog(lastRecord); // Un único commit para todo el lote
+            }
+        }
+        boolean[] results = new boolean[keys.length];
+        for (int i : order) {
+            incrementTime(Operation.REMOVE); // Contar como un paso
+            migrateStep();
+            incrementMemory(Operation.REMOVE); // Contar la operación de acceso a la memoria
+            recordChainLength(Operation.REMOVE, hashes[i]);
+            if (removeEntry(hashes[i], keys[i])) {
+                population--;
+                incrementMemory(Operation.REMOVE); // Contar la operación de eliminación en memoria
+                results[i] = true;
+            }
+        }
+        shrinkIfNeeded();
+        return results;
+    }
+
+    /**
+     * Convierte una cadena en árbol cuando su longitud supera TREEIFY_THRESHOLD,
+     * acotando el coste de las operaciones sobre esa cubeta a O(log n).
+     *
+     * @param buckets array de cubetas que contiene la cubeta.
+     * @param pos     posición de la cubeta.
+     */
+    private void treeifyIfNeeded(Bucket[] buckets, int pos) {
+        if (!(buckets[pos] instanceof TreeBucket) && buckets[pos].getSize() > TREEIFY_THRESHOLD) {
+            buckets[pos] = TreeBucket.of(buckets[pos]);
+        }
+    }
+
+    /**
+     * Convierte un árbol de nuevo en una cubeta del tipo de la tabla cuando su tamaño baja de
+     * UNTREEIFY_THRESHOLD. Los dos umbrales distintos evitan conversiones continuas alrededor de un mismo tamaño.
+     *
+     * @param pos posición de la cubeta.
+     */
+    private void untreeifyIfNeeded(int pos) {
+        if (table[pos] instanceof TreeBucket && table[pos].getSize() < UNTREEIFY_THRESHOLD) {
+            Bucket bucket = bucketType.create();
+            table[pos].forEach(bucket::putIfAbsent);
+            table[pos] = bucket;
+        }
+    }
+
+    /**
+     * Obtiene una cubeta como ListaDinamica, que es el formato de los ficheros de la tabla.
+     *
+     * @param bucket cubeta a convertir.
+     * @return la propia cubeta si ya es una lista, una lista con sus pares en otro caso, o una lista vacía si es null.
+     */
+    private static ListaDinamica toLista(Bucket bucket) {
+        if (bucket instanceof ListaDinamica) {
+            return (ListaDinamica) bucket;
+        }
+        ListaDinamica lista = new ListaDinamica();
+        if (bucket != null) {
+            bucket.forEach(lista::addUltimo);
+        }
+        return lista;
     }
 
 
@@ -227,8 +754,18 @@ public class HashTable implements Serializable {
      * Serializa los elementos de la tabla hash y los almacena en archivos binarios.
      */
     public void serializarFichero() {
+        serializarFichero(RUTA_BINARY);
+    }
+
+    /**
+     * Serializa los elementos de la tabla hash y los almacena en archivos binarios con un prefijo de ruta dado.
+     *
+     * @param prefijo prefijo de las rutas; la cubeta i se guarda en prefijo + i + ".data".
+     */
+    public void serializarFichero(String prefijo) {
+        finishMigration();
         for (int i = 0; i < capacity; i++) {
-            this.table[i].serializarFichero(RUTA_BINARY + i + ".data");
+            toLista(this.table[i]).serializarFichero(prefijo + i + ".data", valueCodec);
         }
     }
 
@@ -236,18 +773,227 @@ public class HashTable implements Serializable {
      * Deserializa los elementos de la tabla hash desde archivos binarios y los carga en la tabla.
      */
     public void deserializarFichero() {
+        deserializarFichero(RUTA_BINARY);
+    }
+
+    /**
+     * Deserializa los elementos de la tabla hash desde archivos binarios con un prefijo de ruta dado.
+     *
+     * @param prefijo prefijo de las rutas; la cubeta i se lee de prefijo + i + ".data".
+     */
+    public void deserializarFichero(String prefijo) {
+        finishMigration();
         for (int i = 0; i < capacity; i++) {
-            this.table[i].deserializarFichero(RUTA_BINARY + i + ".data");
+            ListaDinamica lista = new ListaDinamica();
+            lista.deserializarFichero(prefijo + i + ".data", valueCodec);
+            if (lista.getSize() == 0) {
+                this.table[i] = null; // Las cubetas vacías no se reservan
+                continue;
+            }
+            lista.forEach(kv -> kv.setHash(hash(kv.getKey()))); // El fichero no guarda los hashes
+            if (bucketType == BucketType.LINKED_LIST) {
+                this.table[i] = lista;
+            } else {
+                this.table[i] = bucketType.create();
+                lista.forEach(this.table[i]::putIfAbsent);
+            }
+            treeifyIfNeeded(table, i);
             this.population += this.table[i].getSize();
         }
     }
 
+    /**
+     * Guarda todos los pares de la tabla en un único fichero de instantánea ({@link SnapshotFile}). A diferencia
+     * de serializarFichero, que crea un fichero por cubeta, el coste depende solo del número de pares.
+     * Si hay una migración incremental en curso, se completa antes.
+     *
+     * @param ruta ruta del fichero de la instantánea.
+     * @throws UncheckedIOException si no se puede escribir el fichero; en ese caso la instantánea anterior no cambia.
+     */
+    public void serializarInstantanea(String ruta) {
+        finishMigration();
+        try (SnapshotFile.Writer writer = new SnapshotFile.Writer(ruta, population, capacity)) {
+            for (int i = 0; i < capacity; i++) {
+                if (table[i] != null) {
+                    table[i].forEach(kv -> {
+                        try {
+                            writer.write(kv.getKey(), valueCodec.encode(kv.getValue()));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Carga en la tabla los pares de un fichero de instantánea, como si se insertaran con put. Reserva la
+     * capacidad necesaria de una vez, a partir del número de pares de la cabecera. Los pares cargados no se
+     * anotan en el registro de escritura anticipada, igual que en recuperar: ya están en la instantánea.
+     *
+     * @param ruta ruta del fichero de la instantánea.
+     * @throws UncheckedIOException si no se puede leer el fichero o si está dañado (los pares de los bloques
+     *                              anteriores al dañado ya se habrán insertado).
+     */
+    public void deserializarInstantanea(String ruta) {
+        finishMigration();
+        WriteAheadLog current = log;
+        log = null;
+        try {
+            SnapshotFile.read(ruta, header -> ensureCapacity(population + header.getEntries()),
+                    (key, value) -> put(new KeyValue(key, valueCodec.decode(value))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            log = current;
+        }
+    }
+
+    /**
+     * Añade al registro de escritura anticipada una modificación que se va a aplicar en la tabla.
+     *
+     * @return número del registro.
+     * @throws UncheckedIOException si falla la escritura en el registro (la modificación no se aplica).
+     */
+    private long appendLog(Operation op, String key, Object value) {
+        try {
+            return log.append(op, key, op == Operation.REMOVE ? null : valueCodec.encode(value));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Confirma en el registro de escritura anticipada los registros hasta uno dado.
+     *
+     * @throws UncheckedIOException si falla el forzado a disco (la modificación no se aplica).
+     */
+    private void commitLog(long seq) {
+        try {
+            log.commit(seq);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Recupera la tabla tras un reinicio o una caída: carga la última instantánea, si existe, y aplica
+     * encima en orden las modificaciones del registro de escritura anticipada posteriores a ella. Un registro
+     * incompleto al final del fichero (una escritura interrumpida) se ignora. Mientras se aplica, las
+     * modificaciones no se vuelven a anotar en el registro de la tabla.
+     *
+     * @param instantanea ruta de la última instantánea, escrita por compactarRegistro o serializarInstantanea.
+     * @param rutaLog     ruta del fichero del registro de escritura anticipada.
+     * @throws UncheckedIOException si no se puede leer la instantánea o el registro.
+     */
+    public void recuperar(String instantanea, String rutaLog) {
+        WriteAheadLog current = log;
+        log = null;
+        try {
+            if (Files.exists(Path.of(instantanea))) {
+                deserializarInstantanea(instantanea);
+            }
+            WriteAheadLog.replay(rutaLog, (op, key, value) -> {
+                switch (op) {
+                    case PUT:
+                        put(new KeyValue(key, valueCodec.decode(value)));
+                        break;
+                    case REPLACE:
+                        replace(new KeyValue(key, valueCodec.decode(value)));
+                        break;
+                    case REMOVE:
+                        remove(key);
+                        break;
+                    default:
+                        throw new UncheckedIOException(new IOException("Operación inesperada en el registro: " + op));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            log = current;
+        }
+    }
+
+    /**
+     * Compacta el registro de escritura anticipada: guarda la tabla en una instantánea nueva, que ya contiene
+     * todas las modificaciones registradas, y vacía el registro. Si el proceso cae entre los dos pasos,
+     * recuperar vuelve a aplicar el registro sobre la instantánea nueva, con el mismo resultado: cada clave
+     * queda como la dejó su última modificación registrada.
+     *
+     * @param instantanea ruta de la instantánea; la anterior se sustituye de forma atómica.
+     * @throws IllegalStateException si la tabla no tiene registro de escritura anticipada.
+     * @throws UncheckedIOException  si no se puede escribir la instantánea o vaciar el registro.
+     */
+    public void compactarRegistro(String instantanea) {
+        if (log == null) {
+            throw new IllegalStateException("La tabla no tiene registro de escritura anticipada");
+        }
+        serializarInstantanea(instantanea);
+        try {
+            log.truncate();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Guarda todos los pares de la tabla en un fichero de tabla mapeada ({@link MappedHashTable}), que otros
+     * procesos pueden abrir y consultar sin cargarlo. Si hay una migración incremental en curso, se completa antes.
+     *
+     * @param ruta ruta del fichero de la tabla mapeada.
+     * @throws UncheckedIOException si no se puede escribir el fichero; en ese caso el fichero anterior no cambia.
+     */
+    public void serializarMapeada(String ruta) {
+        finishMigration();
+        try (MappedHashTable.Writer writer = new MappedHashTable.Writer(ruta, population)) {
+            for (int i = 0; i < capacity; i++) {
+                if (table[i] != null) {
+                    table[i].forEach(kv -> {
+                        try {
+                            writer.write(kv.getKey(), valueCodec.encode(kv.getValue()));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Escribe los elementos de la tabla hash en archivos de texto.
      */
     public void escribirFicheroTexto() {
+        escribirFicheroTexto(RUTA_TXT);
+    }
+
+    /**
+     * Escribe los elementos de la tabla hash en archivos de texto con un prefijo de ruta dado.
+     *
+     * Los ficheros de cubetas que ya no existen (de una escritura anterior con más capacidad) se borran, para
+     * que leerFicheroTexto no los cargue.
+     *
+     * @param prefijo prefijo de las rutas; la cubeta i se escribe en prefijo + i + ".data".
+     * @throws UncheckedIOException si no se puede borrar un fichero antiguo.
+     */
+    public void escribirFicheroTexto(String prefijo) {
+        finishMigration();
         for (int i = 0; i < capacity; i++) {
-            this.table[i].escribirFicheroTexto(RUTA_TXT + i + ".data");
+            toLista(this.table[i]).escribirFicheroTexto(prefijo + i + ".data");
+        }
+        try {
+            int i = capacity;
+            while (Files.deleteIfExists(Path.of(prefijo + i + ".data"))) {
+                i++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -255,28 +1001,48 @@ public class HashTable implements Serializable {
      * Lee los elementos de la tabla hash desde archivos de texto y los carga en la tabla.
      */
     public void leerFicheroTexto() {
-        for (int i = 0; i < capacity; i++) {
-            String texto = this.table[i].leerFicheroTexto(RUTA_TXT + i + ".data");
-            String[] pares = texto.split("\n");
-            for (int j = 0; j < pares.length - 1; j++) {
-                String[] par = pares[i].split("#");
-                String[] atributos = par[1].split("@");
-                //TODO ESTO NO SE CAMBIA NO METER COCHE
-                KeyValue kv = new KeyValue(par[0], new Moto(atributos[0], atributos[1]));
-                this.put(kv);
-            }
+        leerFicheroTexto(RUTA_TXT);
+    }
+
+    /**
+     * Lee los elementos de la tabla hash desde los archivos de texto escritos con el mismo prefijo
+     * (prefijo + i + ".data", desde i = 0 mientras existan) y los carga en la tabla.
+     *
+     * @param prefijo prefijo de las rutas de los ficheros.
+     * @throws UncheckedIOException si no se puede leer un fichero o tiene una línea mal formada.
+     */
+    public void leerFicheroTexto(String prefijo) {
+        for (int i = 0; Files.exists(Path.of(prefijo + i + ".data")); i++) {
+            importarFicheroTexto(prefijo + i + ".data");
+        }
+    }
 
+    /**
+     * Carga en la tabla los pares de un fichero de texto con un par por línea (clave#matricula@color, o
+     * clave#valor para valores de texto). El fichero se lee en streaming con {@link TextImporter} y los pares
+     * se insertan con putAll en lotes de IMPORT_BATCH, así que la memoria usada no depende del tamaño del fichero.
+     *
+     * @param ruta ruta del fichero.
+     * @return número de pares leídos del fichero (los de claves que ya estaban en la tabla no se insertan).
+     * @throws UncheckedIOException si no se puede leer el fichero o tiene una línea mal formada (los pares de
+     *                              los lotes anteriores ya se habrán insertado).
+     */
+    public long importarFicheroTexto(String ruta) {
+        try {
+            return TextImporter.read(ruta, IMPORT_BATCH, this::putAll);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
+
     /**
      * Imprime todos los valores almacenados en la tabla hash.
      */
     public void printAll() {
+        finishMigration();
         for (int i = 0; i < capacity; i++) {
-            ListaDinamica lista = table[i];
-            for (int j = 0; j < lista.getSize(); j++) {
-                KeyValue kv = (KeyValue) lista.get(j);
-                System.out.println("Clave: " + kv.getKey() + ", Valor: " + kv.getValue());
+            if (table[i] != null) {
+                table[i].forEach(kv -> System.out.println("Clave: " + kv.getKey() + ", Valor: " + kv.getValue()));
             }
         }
     }
@@ -284,12 +1050,69 @@ public class HashTable implements Serializable {
     /**
      Métodos para obtener los contadores
      */
-    public int getTime() {
-        return time;
+    public long getTime() {
+        return metrics.getTotalSteps();
+    }
+
+    public long getMemory() {
+        return metrics.getTotalMemory();
+    }
+
+    /**
+     * Obtiene el número de pares de la tabla hash.
+     *
+     * @return la población actual.
+     */
+    public int getSize() {
+        return population;
+    }
+
+    /**
+     * Obtiene el número de cubetas de la tabla hash.
+     *
+     * @return la capacidad actual.
+     */
+    public int getCapacity() {
+        return capacity;
     }
 
-    public int getMemory() {
-        return memory;
+    /**
+     * Obtiene las métricas de la tabla hash, desglosadas por tipo de operación.
+     *
+     * @return las métricas de la tabla.
+     */
+    public TableMetrics getMetrics() {
+        return metrics;
     }
 
+    /**
+     * Tarea del redimensionado paralelo: divide un rango de cubetas de la tabla actual hasta que tiene
+     * como mucho PARALLEL_CHUNK cubetas y reubica cada parte en un hilo del ForkJoinPool.
+     */
+    private final class RelocateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Bucket[] buckets; // Array de cubetas destino
+        private final int bucketsCapacity; // Capacidad del array destino
+        private final int from; // Primera cubeta del rango
+        private final int to; // Cubeta siguiente a la última del rango
+
+        RelocateTask(Bucket[] buckets, int bucketsCapacity, int from, int to) {
+            this.buckets = buckets;
+            this.bucketsCapacity = bucketsCapacity;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                relocateRange(buckets, bucketsCapacity, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RelocateTask(buckets, bucketsCapacity, from, mid),
+                    new RelocateTask(buckets, bucketsCapacity, mid, to));
+        }
+    }
 }
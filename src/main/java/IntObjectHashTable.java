@@ -0,0 +1,149 @@
+/**
+ * Tabla hash de direccionamiento abierto con claves int primitivas y valores Object.
+ * Sigue el diseño de StaticHashTable (doble hash, marcas de borrado y rehashing al superar el factor
+ * de carga), pero guarda las claves en un int[] en lugar de en objetos String: no crea objetos por
+ * clave y el hash de una clave es su propio valor mezclado con fmix64. El sondeo y el estado de
+ * las posiciones están en {@link PrimitiveHashTable}.
+ */
+public class IntObjectHashTable extends PrimitiveHashTable {
+    private static final long serialVersionUID = 1L;
+
+    private int[] keys; // Clave de cada posición
+    private Object[] values; // Valor de cada posición
+
+    /**
+     * Constructor para la tabla hash con tamaños primos.
+     *
+     * @param size El tamaño inicial de la tabla hash.
+     * @param loadFactor El factor de carga máximo permitido antes de realizar un rehashing.
+     */
+    public IntObjectHashTable(int size, double loadFactor) {
+        this(size, loadFactor, CapacityMode.PRIME);
+    }
+
+    /**
+     * Constructor para la tabla hash con un modo de capacidad dado.
+     *
+     * @param size El tamaño inicial de la tabla hash (se ajusta según el modo de capacidad).
+     * @param loadFactor El factor de carga máximo permitido antes de realizar un rehashing.
+     * @param capacityMode El modo de capacidad: tamaños primos o potencias de dos.
+     */
+    public IntObjectHashTable(int size, double loadFactor, CapacityMode capacityMode) {
+        this(capacityMode, capacityMode.initialCapacity(size), loadFactor);
+    }
+
+    private IntObjectHashTable(CapacityMode capacityMode, int capacity, double loadFactor) {
+        super(capacity, loadFactor, capacityMode);
+        allocateSlots(capacity);
+    }
+
+    /**
+     * Reserva los arrays de claves y valores para una capacidad dada.
+     *
+     * @param capacity nueva capacidad.
+     */
+    private void allocateSlots(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+    }
+
+    @Override
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    void moveSlots(byte[] oldStates) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocateSlots(capacity());
+        for (int i = 0; i < oldStates.length; i++) {
+            if (oldStates[i] == ACTIVE) {
+                int slot = placeSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Inserta un par clave-valor en la tabla hash. Si la clave ya existe, actualiza el valor.
+     * Si se alcanza el factor de carga, realiza un rehashing antes de insertar.
+     *
+     * @param key La clave a insertar.
+     * @param value El valor asociado a la clave.
+     * @return true si la inserción fue exitosa, false si la tabla está llena.
+     */
+    public boolean put(int key, Object value) {
+        int slot = insertSlot(key);
+        if (slot == -1) {
+            return false;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        return true;
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave en la tabla hash.
+     *
+     * @param key La clave para la cual se busca el valor.
+     * @return El valor asociado a la clave o null si la clave no está en la tabla.
+     */
+    public Object get(int key) {
+        int slot = findSlot(key, Operation.GET);
+        return slot == -1 ? null : values[slot];
+    }
+
+    /**
+     * Indica si una clave está en la tabla hash.
+     *
+     * @param key La clave a buscar.
+     * @return true si la clave está en la tabla.
+     */
+    public boolean containsKey(int key) {
+        return findSlot(key, Operation.GET) != -1;
+    }
+
+    /**
+     * Reemplaza el valor de una clave existente en la tabla hash.
+     *
+     * @param key La clave cuyo valor se reemplaza.
+     * @param value El nuevo valor.
+     * @return true si el reemplazo fue exitoso, false si la clave no se encuentra en la tabla.
+     */
+    public boolean replace(int key, Object value) {
+        int slot = findSlot(key, Operation.REPLACE);
+        if (slot == -1) {
+            return false; // La clave no está en la tabla
+        }
+        values[slot] = value;
+        return true;
+    }
+
+    /**
+     * Elimina un par clave-valor de la tabla hash.
+     *
+     * @param key La clave del par clave-valor a eliminar.
+     * @return true si la eliminación fue exitosa, false si la clave no se encuentra en la tabla.
+     */
+    public boolean remove(int key) {
+        int slot = removeSlot(key);
+        if (slot == -1) {
+            return false; // La clave no está en la tabla
+        }
+        values[slot] = null; // Liberar la referencia al valor
+        return true;
+    }
+
+    /**
+     * Imprime todos los pares clave-valor almacenados en la tabla hash que están activos.
+     */
+    public void printAll() {
+        for (int i = 0; i < capacity(); i++) {
+            if (isActive(i)) {
+                System.out.println("Clave: " + keys[i] + ", Valor: " + values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Conversión de valores a bytes y de bytes a valores con la serialización estándar de Java,
+ * para las tablas que guardan sus valores como bytes (fuera del heap o en ficheros).
+ */
+public final class JavaSerialization {
+
+    private JavaSerialization() {
+    }
+
+    /**
+     * Serializa un valor con la serialización estándar de Java.
+     *
+     * @param value valor a serializar.
+     * @return bytes del valor.
+     * @throws IllegalArgumentException si el valor no es serializable.
+     */
+    public static byte[] serialize(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException("El valor no es serializable: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializa un valor escrito por {@link #serialize(Object)}.
+     *
+     * @param data bytes del valor.
+     * @return el valor.
+     */
+    public static Object deserialize(byte[] data) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("No se ha encontrado la clase al deserializar", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * Codificación de valores con la serialización estándar de Java ({@link JavaSerialization}).
+ */
+public class JavaValueCodec implements ValueCodec {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public byte[] encode(Object value) {
+        return JavaSerialization.serialize(value);
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        return JavaSerialization.deserialize(bytes);
+    }
+}
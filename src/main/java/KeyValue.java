@@ -8,6 +8,7 @@ import java.io.Serializable;
 public class KeyValue implements Serializable {
 	private String key; // Clave única para el par clave-valor
 	private Object value; // Valor asociado a la clave
+	private long hash; // Hash completo de la clave, calculado por la tabla al insertar
 
 	/**
 	 * Constructor para crear una nueva instancia de KeyValue.
@@ -20,6 +21,19 @@ public class KeyValue implements Serializable {
 		this.value = value;
 	}
 
+	/**
+	 * Constructor para crear una nueva instancia de KeyValue con su hash ya calculado.
+	 *
+	 * @param key La clave para el par clave-valor.
+	 * @param value El valor asociado a la clave.
+	 * @param hash El hash completo de la clave.
+	 */
+	public KeyValue(String key, Object value, long hash) {
+		this.key = key;
+		this.value = value;
+		this.hash = hash;
+	}
+
 	/**
 	 * Obtiene la clave del par clave-valor.
 	 *
@@ -56,6 +70,25 @@ public class KeyValue implements Serializable {
 		this.value = value;
 	}
 
+	/**
+	 * Obtiene el hash completo de la clave almacenado en el par.
+	 *
+	 * @return El hash de la clave.
+	 */
+	public long getHash() {
+		return hash;
+	}
+
+	/**
+	 * Establece el hash completo de la clave. Lo asigna la tabla hash al insertar el par,
+	 * de modo que los redimensionados no necesitan volver a calcularlo.
+	 *
+	 * @param hash El hash de la clave.
+	 */
+	public void setHash(long hash) {
+		this.hash = hash;
+	}
+
 	/**
 	 * Compara esta instancia de KeyValue con otro objeto para determinar si son iguales.
 	 * Dos instancias de KeyValue se consideran iguales si sus claves son iguales.
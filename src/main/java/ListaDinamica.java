@@ -1,13 +1,27 @@
-import java.io.Serializable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.Consumer;
 
 /**
  * Una implementación de lista dinámica doblemente enlazada.
  * Esta estructura de datos permite almacenar objetos de manera secuencial y dinámica.
+ * Es además la cubeta por defecto de HashTable, para lo que ofrece métodos específicos sobre KeyValue.
  */
-public class ListaDinamica implements Serializable {
+public class ListaDinamica implements Bucket {
+    private static final int FILE_MAGIC = 0x48544C31; // "HTL1": fichero de lista escrito con un ValueCodec
+    private static final int FILE_BUFFER_SIZE = 64 * 1024; // Tamaño de los buffers de fichero
+
     private int size; // Número de elementos en la lista
-    private Node begin; // Referencia al primer nodo de la lista
-    private Node last; // Referencia al último nodo de la lista
+    // Los nodos no se serializan por defecto (serializarían la cadena de forma recursiva): ver writeObject
+    private transient Node begin; // Referencia al primer nodo de la lista
+    private transient Node last; // Referencia al último nodo de la lista
 
     /**
      * Constructor para la lista dinámica. Inicializa la lista vacía.
@@ -164,7 +178,7 @@ public class ListaDinamica implements Serializable {
         Node aux = begin;
         int i = 0;
         while (i < size) {
-            if (kv.getKey().equals(((KeyValue) aux.getData()).getKey())) {
+            if (sameKey(kv, (KeyValue) aux.getData())) {
                 aux.setData(kv);
                 return true;
             }
@@ -294,11 +308,18 @@ public class ListaDinamica implements Serializable {
         return -1;
     }
 
+    /**
+     * Método específico para trabajar con hash table. Compara primero los hashes almacenados
+     * y solo compara las claves cuando coinciden.
+     *
+     * @param keyValue El par cuya clave se busca.
+     * @return El índice del par con la misma clave, o -1 si no se encuentra en la lista.
+     */
     public int indexOf(KeyValue keyValue) {
         Node aux = begin;
         int i = 0;
         while (i < size) {
-            if (keyValue.getKey().equals(((KeyValue) aux.getData()).getKey())) {
+            if (sameKey(keyValue, (KeyValue) aux.getData())) {
                 return i;
             }
             aux = aux.getNext();
@@ -307,6 +328,124 @@ public class ListaDinamica implements Serializable {
         return -1;
     }
 
+    /**
+     * Método específico para trabajar con hash table. Busca en una sola pasada el nodo
+     * cuyo par tiene la clave dada, comparando primero el hash almacenado.
+     * El nodo devuelto sirve de cursor para {@link #unlink(Node)} o para reemplazar su dato.
+     *
+     * @param hash hash completo de la clave.
+     * @param key  clave a buscar.
+     * @return el nodo que contiene el par, o null si no se encuentra en la lista.
+     */
+    public Node findNode(long hash, String key) {
+        Node aux = begin;
+        // Acotado por el tamaño: una lectura optimista concurrente (StampedHashTable) nunca queda en un ciclo
+        for (int i = 0, n = size; aux != null && i < n; i++) {
+            KeyValue kv = (KeyValue) aux.getData();
+            if (kv.getHash() == hash && kv.getKey().equals(key)) {
+                return aux;
+            }
+            aux = aux.getNext();
+        }
+        return null;
+    }
+
+    /**
+     * Método específico para trabajar con hash table. Obtiene en una sola pasada el par con la clave dada.
+     *
+     * @param hash hash completo de la clave.
+     * @param key  clave a buscar.
+     * @return el par con la clave dada, o null si no se encuentra en la lista.
+     */
+    public KeyValue find(long hash, String key) {
+        Node node = findNode(hash, key);
+        return node == null ? null : (KeyValue) node.getData();
+    }
+
+    /**
+     * Método específico para trabajar con hash table. Inserta el par al final de la lista
+     * solo si no existe otro con la misma clave, recorriendo la lista una única vez.
+     *
+     * @param kv par a insertar, con su hash ya calculado.
+     * @return el par existente con la misma clave, o null si se ha insertado.
+     */
+    public KeyValue putIfAbsent(KeyValue kv) {
+        Node aux = begin;
+        while (aux != null) {
+            KeyValue other = (KeyValue) aux.getData();
+            if (sameKey(kv, other)) {
+                return other;
+            }
+            aux = aux.getNext();
+        }
+        addUltimo(kv);
+        return null;
+    }
+
+    /**
+     * Método específico para trabajar con hash table. Elimina en una sola pasada el par con la clave dada.
+     *
+     * @param hash hash completo de la clave.
+     * @param key  clave del par a eliminar.
+     * @return el par eliminado, o null si no se encuentra en la lista.
+     */
+    public KeyValue remove(long hash, String key) {
+        Node node = findNode(hash, key);
+        if (node == null) {
+            return null;
+        }
+        unlink(node);
+        return (KeyValue) node.getData();
+    }
+
+    /**
+     * Desenlaza de la lista un nodo obtenido previamente como cursor, sin recorrerla.
+     *
+     * @param node nodo de esta lista a desenlazar.
+     */
+    public void unlink(Node node) {
+        Node back = node.getBack();
+        Node next = node.getNext();
+        if (back == null) {
+            begin = next;
+        } else {
+            back.setNext(next);
+        }
+        if (next == null) {
+            last = back;
+        } else {
+            next.setBack(back);
+        }
+        node.setNext(null);
+        node.setBack(null);
+        size--;
+    }
+
+    /**
+     * Método específico para trabajar con hash table. Recorre todos los pares de la lista.
+     *
+     * @param action acción a aplicar sobre cada par.
+     */
+    public void forEach(Consumer<KeyValue> action) {
+        Node aux = begin;
+        while (aux != null) {
+            action.accept((KeyValue) aux.getData());
+            aux = aux.getNext();
+        }
+    }
+
+    /**
+     * Comprueba si dos pares tienen la misma clave, comparando antes el hash almacenado
+     * para evitar la llamada a String.equals cuando los hashes difieren.
+     *
+     * @param a primer par.
+     * @param b segundo par.
+     * @return true si ambos pares tienen la misma clave.
+     */
+    private static boolean sameKey(KeyValue a, KeyValue b) {
+        return a.getHash() == b.getHash() && a.getKey().equals(b.getKey());
+    }
+
     /**
      * Elimina el primer objeto en la lista que es igual al objeto proporcionado.
      *
@@ -338,29 +477,99 @@ public class ListaDinamica implements Serializable {
     }
 
     /**
-     * Serializa la lista y la almacena en un archivo.
+     * Serializa la lista y la almacena en un archivo, con la codificación compacta de valores.
      *
      * @param rutaFichero Ruta del archivo donde se almacenará la lista.
      * @return true si la serialización y almacenamiento fue exitosa, false en caso contrario.
      */
     public boolean serializarFichero(String rutaFichero) {
-        FileUtil f = new FileUtil(rutaFichero);
-        return f.serializeToFile(this);
+        return serializarFichero(rutaFichero, ValueCodec.COMPACT);
+    }
 
+    /**
+     * Serializa la lista y la almacena en un archivo: número mágico, número de elementos y, para cada
+     * elemento, su longitud y sus bytes según la codificación dada. Los nodos se recorren en un bucle,
+     * así que la longitud de la lista no está limitada por la pila.
+     *
+     * @param rutaFichero Ruta del archivo donde se almacenará la lista.
+     * @param codec       codificación de los elementos.
+     * @return true si la serialización y almacenamiento fue exitosa, false en caso contrario.
+     */
+    public boolean serializarFichero(String rutaFichero, ValueCodec codec) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(rutaFichero), FILE_BUFFER_SIZE))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(size);
+            for (Node aux = begin; aux != null; aux = aux.getNext()) {
+                byte[] bytes = codec.encode(aux.getData());
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            return true;
+        } catch (IOException e) {
+            System.out.println("Problema de IO al serializar");
+            System.out.println(e);
+            return false;
+        }
     }
 
     /**
-     * Deserializa la lista desde un archivo.
+     * Deserializa la lista desde un archivo, con la codificación compacta de valores.
      *
      * @param rutaFichero Ruta del archivo desde donde se leerá y deserializará la lista.
      */
     public void deserializarFichero(String rutaFichero) {
-        FileUtil f = new FileUtil(rutaFichero);
-        ListaDinamica l = (ListaDinamica) f.deserializeFromFile();
-        if (l != null) {
-            this.size = l.size;
-            this.begin = l.begin;
-            this.last = l.last;
+        deserializarFichero(rutaFichero, ValueCodec.COMPACT);
+    }
+
+    /**
+     * Deserializa la lista desde un archivo escrito por serializarFichero con la misma codificación.
+     * Si no se puede leer el archivo, la lista no cambia.
+     *
+     * @param rutaFichero Ruta del archivo desde donde se leerá y deserializará la lista.
+     * @param codec       codificación de los elementos.
+     */
+    public void deserializarFichero(String rutaFichero, ValueCodec codec) {
+        ListaDinamica l = new ListaDinamica();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(rutaFichero), FILE_BUFFER_SIZE))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException(rutaFichero + " no es un archivo de lista");
+            }
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                l.addUltimo(codec.decode(bytes));
+            }
+        } catch (IOException e) {
+            System.out.println("Problema de IO al deserializar");
+            System.out.println(e.toString());
+            return;
+        }
+        this.size = l.size;
+        this.begin = l.begin;
+        this.last = l.last;
+    }
+
+    /**
+     * Serialización de Java de la lista: escribe el número de elementos y los elementos uno a uno, en lugar
+     * de la cadena de nodos, que la serialización por defecto recorrería de forma recursiva (y desbordaría
+     * la pila con listas largas).
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        for (Node aux = begin; aux != null; aux = aux.getNext()) {
+            out.writeObject(aux.getData());
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int n = size;
+        size = 0;
+        for (int i = 0; i < n; i++) {
+            addUltimo(in.readObject());
         }
     }
 
@@ -381,7 +590,10 @@ public class ListaDinamica implements Serializable {
     }
 
     /**
-     * Escribe el contenido de la lista en un archivo de texto.
+     * Escribe el contenido de la lista en un archivo de texto, un elemento por línea. Los pares se escriben
+     * como clave#valor, o clave#matricula@color si el valor es una Moto, el formato que lee TextImporter;
+     * '\', '#', '@' y los saltos de línea de la clave y del valor se escapan para que no se confundan con
+     * los separadores. Los valores que no son String ni Moto se escriben con toString y se leen como String.
      *
      * @param pathFile Ruta del archivo donde se escribirá el contenido de la lista.
      * @return true si la escritura fue exitosa, false en caso contrario.
@@ -389,12 +601,55 @@ public class ListaDinamica implements Serializable {
     public boolean escribirFicheroTexto(String pathFile) {
         FileUtil f = new FileUtil(pathFile);
         Node aux = begin;
-        String text = "";
+        StringBuilder text = new StringBuilder();
         while (aux != null) {
-            text += aux.getData() + "\n";
+            appendLineaTexto(text, aux.getData());
+            text.append('\n');
             aux = aux.getNext();
         }
-        return f.writeToFile(text);
+        return f.writeToFile(text.toString());
+    }
+
+    private static void appendLineaTexto(StringBuilder text, Object data) {
+        if (!(data instanceof KeyValue)) {
+            text.append(data);
+            return;
+        }
+        KeyValue kv = (KeyValue) data;
+        appendEscapado(text, kv.getKey());
+        text.append('#');
+        if (kv.getValue() instanceof Moto) {
+            Moto moto = (Moto) kv.getValue();
+            appendEscapado(text, moto.getMatricula());
+            text.append('@');
+            appendEscapado(text, moto.getColor());
+        } else {
+            appendEscapado(text, String.valueOf(kv.getValue()));
+        }
+    }
+
+    /**
+     * Añade un texto escapando los caracteres que separan los campos de una línea.
+     */
+    private static void appendEscapado(StringBuilder text, String campo) {
+        for (int i = 0; i < campo.length(); i++) {
+            char c = campo.charAt(i);
+            switch (c) {
+                case '\\':
+                case '#':
+                case '@':
+                    text.append('\\').append(c);
+                    break;
+                case '\n':
+                    text.append("\\n");
+                    break;
+                case '\r':
+                    text.append("\\r");
+                    break;
+                default:
+                    text.append(c);
+            }
+        }
     }
 
     /**
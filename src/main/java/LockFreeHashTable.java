@@ -0,0 +1,494 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tabla hash de direccionamiento abierto sin bloqueos, variante concurrente de StaticHashTable.
+ * Ninguna operación toma cerrojos ni espera a otro hilo: todas las escrituras son compareAndSet
+ * sobre posiciones de los arrays de claves y valores (VarHandle).
+ * <p>
+ * Una posición se reclama una única vez escribiendo su clave con CAS y nunca vuelve a quedar libre.
+ * Los valores se actualizan con CAS y el borrado escribe TOMBSTONE como valor. Cuando la tabla se llena
+ * de posiciones reclamadas se instala una tabla nueva; cada posición de la antigua se marca con un
+ * valor Prime mientras se copia y con TOMBPRIME al terminar, y los hilos que escriben ayudan a copiar
+ * por bloques de COPY_CHUNK posiciones. Las marcas de borrado no se copian, así que el redimensionado
+ * las elimina. Cuando todas las posiciones se han copiado, la tabla nueva pasa a ser la principal.
+ * <p>
+ * Incluye contadores para pasos (time) y memoria (memory) por tipo de operación en {@link TableMetrics}
+ * para monitorear el rendimiento.
+ */
+public class LockFreeHashTable {
+    private static final int MIN_CAPACITY = 16; // Capacidad mínima de una tabla
+    private static final int REPROBE_LIMIT = 10; // Sondeos base antes de pasar a una tabla nueva
+    private static final int COPY_CHUNK = 1024; // Posiciones que copia un hilo cada vez que ayuda
+
+    private static final Object TOMBSTONE = new Object(); // Valor borrado, o clave de una posición anulada
+    private static final Prime TOMBPRIME = new Prime(TOMBSTONE); // Posición ya copiada a la tabla nueva
+    private static final Object NO_MATCH_OLD = new Object(); // Valor esperado: escribir sea cual sea el actual
+    private static final Object MATCH_ANY = new Object(); // Valor esperado: escribir solo si hay un valor presente
+
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle TOP;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TOP = lookup.findVarHandle(LockFreeHashTable.class, "top", Table.class);
+            NEXT = lookup.findVarHandle(Table.class, "next", Table.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Table top; // Tabla principal
+    private final HashFunction hashFunction; // Función hash aplicada a las claves
+    private final LongAdder size = new LongAdder(); // Número de pares activos
+    // Contadores, sin contención entre hilos
+    private final TableMetrics metrics = new TableMetrics(); // Contadores de pasos y memoria por operación
+
+    /**
+     * Constructor para la tabla hash. Utiliza MurmurHash3 como función hash.
+     *
+     * @param size El tamaño inicial de la tabla hash (se redondea a potencia de dos).
+     */
+    public LockFreeHashTable(int size) {
+        this(size, HashFunction.MURMUR3);
+    }
+
+    /**
+     * Constructor para la tabla hash con una función hash dada.
+     *
+     * @param size El tamaño inicial de la tabla hash (se redondea a potencia de dos).
+     * @param hashFunction La función hash aplicada a las claves.
+     */
+    public LockFreeHashTable(int size, HashFunction hashFunction) {
+        this.hashFunction = hashFunction;
+        this.top = new Table(CapacityMode.POWER_OF_TWO.initialCapacity(Math.max(size, MIN_CAPACITY)));
+    }
+
+    private Key key(String key, Operation op) {
+        metrics.step(op); // Contar como un paso para la operación de hashing
+        return new Key(key, hashFunction.hash(key));
+    }
+
+    private static int reprobeLimit(int capacity) {
+        return REPROBE_LIMIT + (capacity >> 2);
+    }
+
+    /**
+     * Inserta un par clave-valor. Si la clave ya existe, actualiza el valor.
+     *
+     * @param key La clave a insertar.
+     * @param value El valor asociado a la clave (no puede ser null).
+     * @return true si la clave no estaba en la tabla, false si ya estaba y se ha actualizado su valor.
+     */
+    public boolean put(String key, Object value) {
+        metrics.step(Operation.PUT); // Contar como un paso
+        Object old = putIfMatch(helpTop(), key(key, Operation.PUT), value, NO_MATCH_OLD);
+        return old == null || old == TOMBSTONE;
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave.
+     *
+     * @param key La clave para la cual se busca el valor.
+     * @return El valor asociado a la clave o null si la clave no está en la tabla.
+     */
+    public Object get(String key) {
+        Object value = get(top, key(key, Operation.GET));
+        return value == TOMBSTONE ? null : value;
+    }
+
+    /**
+     * Reemplaza el valor de una clave existente.
+     *
+     * @param kv par clave valor con el nuevo valor (no puede ser null).
+     * @return true si el reemplazo fue exitoso, false si la clave no se encuentra en la tabla.
+     */
+    public boolean replace(StaticHashTable.KeyValue kv) {
+        metrics.step(Operation.REPLACE); // Contar como un paso
+        Object old = putIfMatch(helpTop(), key(kv.getKey(), Operation.REPLACE), kv.getValue(), MATCH_ANY);
+        return old != null && old != TOMBSTONE;
+    }
+
+    /**
+     * Elimina un par clave-valor escribiendo una marca de borrado como valor.
+     *
+     * @param key La clave del par clave-valor a eliminar.
+     * @return true si la eliminación fue exitosa, false si la clave no se encuentra en la tabla.
+     */
+    public boolean remove(String key) {
+        metrics.step(Operation.REMOVE); // Contar como un paso
+        Object old = putIfMatch(helpTop(), key(key, Operation.REMOVE), TOMBSTONE, NO_MATCH_OLD);
+        return old != null && old != TOMBSTONE;
+    }
+
+    /**
+     * Obtiene la tabla principal, ayudando antes a copiar un bloque si hay un redimensionado en curso.
+     */
+    private Table helpTop() {
+        Table t = top;
+        if (t.next != null) {
+            helpCopy(t);
+        }
+        return t;
+    }
+
+    /**
+     * Busca el valor de una clave en una tabla, continuando en la tabla nueva si la posición
+     * ya se ha copiado o si la clave no está dentro del límite de sondeos.
+     */
+    private Object get(Table t, Key key) {
+        int capacity = t.capacity();
+        int idx = CapacityMode.POWER_OF_TWO.indexFor(key.hash, capacity);
+        for (int reprobes = 0; ; reprobes++) {
+            metrics.memory(Operation.GET); // Contar la operación de acceso a la memoria
+            Object k = t.key(idx);
+            Object v = t.val(idx);
+            if (k == null) {
+                return null; // Las claves se reclaman en orden de sondeo: no está en la tabla
+            }
+            Table next = t.next;
+            if (key.equals(k)) {
+                if (!(v instanceof Prime)) {
+                    return v;
+                }
+                return get(copySlotAndCheck(t, idx), key);
+            }
+            if (reprobes >= reprobeLimit(capacity) || k == TOMBSTONE) {
+                // Una posición anulada o el límite de sondeos indican que la clave solo puede estar en la tabla nueva
+                return next == null ? null : get(next, key);
+            }
+            idx = (idx + 1) & (capacity - 1);
+        }
+    }
+
+    /**
+     * Obtiene la operación a la que se atribuye una escritura, según sus argumentos de putIfMatch.
+     */
+    private static Operation operationOf(Object putVal, Object expVal) {
+        if (expVal == null) {
+            return Operation.REHASH; // Copia entre tablas
+        }
+        if (putVal == TOMBSTONE) {
+            return Operation.REMOVE;
+        }
+        return expVal == MATCH_ANY ? Operation.REPLACE : Operation.PUT;
+    }
+
+    /**
+     * Escribe un valor en la posición de una clave si el valor actual coincide con el esperado.
+     *
+     * @param t      tabla en la que escribir.
+     * @param key    clave.
+     * @param putVal valor a escribir (TOMBSTONE para borrar).
+     * @param expVal valor esperado: NO_MATCH_OLD (cualquiera), MATCH_ANY (cualquier valor presente)
+     *               o null (solo si la posición no tiene valor; lo usa la copia entre tablas).
+     * @return el valor anterior; null o TOMBSTONE si la clave no tenía valor.
+     */
+    private Object putIfMatch(Table t, Key key, Object putVal, Object expVal) {
+        Operation op = operationOf(putVal, expVal);
+        int capacity = t.capacity();
+        int idx = CapacityMode.POWER_OF_TWO.indexFor(key.hash, capacity);
+        int reprobes = 0;
+        Object k;
+        Object v;
+        while (true) {
+            metrics.memory(op); // Contar la operación de acceso a la memoria
+            v = t.val(idx);
+            k = t.key(idx);
+            if (k == null) {
+                if (putVal == TOMBSTONE || expVal == MATCH_ANY) {
+                    return null; // Borrar o reemplazar una clave que no está: nada que hacer
+                }
+                if (t.casKey(idx, null, key)) {
+                    t.slots.incrementAndGet();
+                    k = key;
+                    break;
+                }
+                k = t.key(idx); // Otro hilo ha reclamado la posición: comprobar si es la misma clave
+            }
+            if (key.equals(k)) {
+                break;
+            }
+            if (++reprobes >= reprobeLimit(capacity) || k == TOMBSTONE) {
+                Table next = resize(t);
+                if (expVal != null) {
+                    helpCopy(t); // Las escrituras normales ayudan a copiar; la propia copia no
+                }
+                return putIfMatch(next, key, putVal, expVal);
+            }
+            idx = (idx + 1) & (capacity - 1);
+        }
+
+        if (putVal == v) {
+            return v; // Sin cambios
+        }
+        Table next = t.next;
+        if (next == null && ((v == null && t.slots.get() >= capacity - (capacity >> 2)) || v instanceof Prime)) {
+            next = resize(t); // Tres cuartos de las posiciones reclamadas: redimensionar antes de escribir
+        }
+        if (next != null) {
+            return putIfMatch(copySlotAndCheck(t, idx), key, putVal, expVal);
+        }
+
+        while (true) {
+            boolean absent = v == null || v == TOMBSTONE;
+            if (expVal == MATCH_ANY && absent) {
+                return v;
+            }
+            if (expVal == null && v != null) {
+                return v; // Copia: ya hay un valor más reciente en la tabla nueva
+            }
+            if (t.casVal(idx, v, putVal)) {
+                if (expVal != null) { // La copia entre tablas no cambia el número de pares
+                    if (absent && putVal != TOMBSTONE) {
+                        size.increment();
+                    } else if (!absent && putVal == TOMBSTONE) {
+                        size.decrement();
+                    }
+                }
+                return v;
+            }
+            v = t.val(idx);
+            if (v instanceof Prime) {
+                return putIfMatch(copySlotAndCheck(t, idx), key, putVal, expVal);
+            }
+        }
+    }
+
+    /**
+     * Instala una tabla nueva a continuación de una tabla, si no la tiene ya. La capacidad nueva depende
+     * de los pares activos: si son pocos, se mantiene y el redimensionado solo elimina marcas de borrado.
+     *
+     * @return la tabla siguiente.
+     */
+    private Table resize(Table t) {
+        Table next = t.next;
+        if (next != null) {
+            return next;
+        }
+        metrics.step(Operation.REHASH); // Contar como un paso
+        int capacity = t.capacity();
+        long live = size.sum();
+        int newCapacity = capacity;
+        if (live >= capacity >> 2) {
+            newCapacity = capacity << 1;
+        }
+        if (live >= capacity >> 1) {
+            newCapacity = capacity << 2;
+        }
+        Table fresh = new Table(Math.min(newCapacity, 1 << 30));
+        return NEXT.compareAndSet(t, null, fresh) ? fresh : t.next;
+    }
+
+    /**
+     * Copia el siguiente bloque de posiciones pendiente de una tabla a su tabla siguiente. El bloque se
+     * reclama con un CAS que no avanza copyIndex más allá de la capacidad, así que el índice no puede
+     * desbordarse por muchos hilos que ayudan cuando ya no quedan bloques.
+     */
+    private void helpCopy(Table t) {
+        Table next = t.next;
+        int capacity = t.capacity();
+        int start;
+        do {
+            start = t.copyIndex.get();
+            if (start >= capacity) {
+                copyCheckAndPromote(t, 0); // Todos los bloques ya están repartidos: solo queda promover
+                return;
+            }
+        } while (!t.copyIndex.compareAndSet(start, Math.min(start + COPY_CHUNK, capacity)));
+        int copied = 0;
+        for (int idx = start; idx < Math.min(start + COPY_CHUNK, capacity); idx++) {
+            if (copySlot(t, idx, next)) {
+                copied++;
+            }
+        }
+        copyCheckAndPromote(t, copied);
+    }
+
+    /**
+     * Copia una posición de una tabla a su tabla siguiente y devuelve la tabla siguiente.
+     */
+    private Table copySlotAndCheck(Table t, int idx) {
+        Table next = t.next;
+        if (copySlot(t, idx, next)) {
+            copyCheckAndPromote(t, 1);
+        }
+        return next;
+    }
+
+    /**
+     * Suma las posiciones copiadas y, si ya están todas, hace principal a la tabla siguiente.
+     * Se comprueba también sin trabajo nuevo porque una tabla puede terminar de copiarse antes
+     * de que la anterior deje de ser la principal.
+     */
+    private void copyCheckAndPromote(Table t, int copied) {
+        int done = copied > 0 ? t.copyDone.addAndGet(copied) : t.copyDone.get();
+        if (done == t.capacity() && top == t) {
+            TOP.compareAndSet(this, t, t.next);
+        }
+    }
+
+    /**
+     * Copia una posición a la tabla siguiente. Una posición sin clave se anula (clave TOMBSTONE);
+     * su valor se envuelve en Prime mientras se copia y se sustituye por TOMBPRIME al terminar.
+     *
+     * @return true si este hilo ha completado la copia de la posición (solo un hilo lo hace).
+     */
+    private boolean copySlot(Table t, int idx, Table next) {
+        metrics.memory(Operation.REHASH); // Contar la operación de copia en memoria
+        Object k;
+        while ((k = t.key(idx)) == null) {
+            t.casKey(idx, null, TOMBSTONE);
+        }
+        Object v = t.val(idx);
+        while (!(v instanceof Prime)) {
+            Prime box = (v == null || v == TOMBSTONE) ? TOMBPRIME : new Prime(v);
+            if (t.casVal(idx, v, box)) {
+                if (box == TOMBPRIME) {
+                    return true; // Nada que copiar
+                }
+                v = box;
+                break;
+            }
+            v = t.val(idx);
+        }
+        if (v == TOMBPRIME) {
+            return false; // Otro hilo ya la ha copiado
+        }
+        boolean copied = putIfMatch(next, (Key) k, ((Prime) v).value, null) == null;
+        while (v != TOMBPRIME && !t.casVal(idx, v, TOMBPRIME)) {
+            v = t.val(idx);
+        }
+        return copied;
+    }
+
+    /**
+     * Obtiene el número de pares de la tabla hash. Bajo escrituras concurrentes es una estimación.
+     *
+     * @return El número de pares.
+     */
+    public int getSize() {
+        return size.intValue();
+    }
+
+    /**
+     * Imprime todos los pares clave-valor de la tabla hash.
+     */
+    public void printAll() {
+        Table t = top;
+        for (int idx = 0; idx < t.capacity(); idx++) {
+            Object k = t.key(idx);
+            if (k instanceof Key) {
+                Object v = get(t, (Key) k);
+                if (v != null && v != TOMBSTONE) {
+                    System.out.println("Clave: " + ((Key) k).key + ", Valor: " + v);
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número total de pasos realizados en las operaciones de la tabla hash.
+     *
+     * @return El número total de pasos.
+     */
+    public long getTime() {
+        return metrics.getTotalSteps();
+    }
+
+    /**
+     * Obtiene el número total de operaciones de memoria realizadas en las operaciones de la tabla hash.
+     *
+     * @return El número total de operaciones de memoria.
+     */
+    public long getMemory() {
+        return metrics.getTotalMemory();
+    }
+
+    /**
+     * Obtiene las métricas de la tabla hash por tipo de operación.
+     *
+     * @return métricas de la tabla.
+     */
+    public TableMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Clave reclamada en una posición, con su hash completo para poder copiarla sin recalcularlo.
+     */
+    private static final class Key {
+        private final String key;
+        private final long hash;
+
+        Key(String key, long hash) {
+            this.key = key;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            return o instanceof Key && ((Key) o).hash == hash && ((Key) o).key.equals(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash);
+        }
+    }
+
+    /**
+     * Valor de una posición que se está copiando a la tabla siguiente.
+     */
+    private static final class Prime {
+        private final Object value;
+
+        Prime(Object value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Arrays de claves y valores de una tabla, con el estado de su copia a la tabla siguiente.
+     */
+    private static final class Table {
+        private final Object[] keys; // Key, TOMBSTONE (posición anulada) o null
+        private final Object[] vals; // Valor, TOMBSTONE, Prime o null
+        private final AtomicInteger slots = new AtomicInteger(); // Posiciones con clave reclamada
+        private final AtomicInteger copyIndex = new AtomicInteger(); // Siguiente bloque por copiar
+        private final AtomicInteger copyDone = new AtomicInteger(); // Posiciones ya copiadas
+        private volatile Table next; // Tabla nueva durante un redimensionado, o null
+
+        Table(int capacity) {
+            this.keys = new Object[capacity];
+            this.vals = new Object[capacity];
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        Object key(int idx) {
+            return SLOT.getVolatile(keys, idx);
+        }
+
+        Object val(int idx) {
+            return SLOT.getVolatile(vals, idx);
+        }
+
+        boolean casKey(int idx, Object expected, Object key) {
+            return SLOT.compareAndSet(keys, idx, expected, key);
+        }
+
+        boolean casVal(int idx, Object expected, Object value) {
+            return SLOT.compareAndSet(vals, idx, expected, value);
+        }
+    }
+}
@@ -0,0 +1,483 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tabla hash de solo lectura que se consulta directamente sobre un fichero proyectado en memoria
+ * (MappedByteBuffer). El fichero ya contiene el índice de direccionamiento abierto y las entradas tal
+ * como se consultan, así que abrir la tabla solo lee la cabecera y proyecta el fichero: no hay fase de
+ * carga ni se crea ningún objeto por par. Las páginas se leen del disco la primera vez que se tocan y
+ * viven en la caché de páginas del sistema operativo, compartidas por todos los procesos que abren el
+ * mismo fichero.
+ * <p>
+ * Formato del fichero (enteros en orden big-endian):
+ * <ul>
+ * <li>Cabecera de HEADER_BYTES bytes: número mágico, versión, capacidad del índice, número de pares y
+ * longitud de la zona de datos.</li>
+ * <li>Índice de sondeo lineal con capacity posiciones (potencia de dos) de SLOT_BYTES bytes, igual que el de
+ * OffHeapHashTable: el hash MurmurHash3 de la clave y la referencia a su entrada (0 indica posición vacía).</li>
+ * <li>Zona de datos en tramos de CHUNK_SIZE bytes, cada uno proyectado por separado (un MappedByteBuffer
+ * no pasa de 2 GiB). Cada entrada guarda la longitud de la clave y del valor, la clave en UTF-8 y los bytes
+ * del valor, y nunca cruza el final de un tramo.</li>
+ * </ul>
+ * Las consultas comparan la clave en el propio fichero, codificándola a UTF-8 sobre la marcha, sin crear
+ * ningún objeto; solo se copian los bytes del valor encontrado. Varias hebras pueden consultar la tabla a la vez,
+ * también mientras otra la cierra: close no libera las proyecciones, solo deja de ofrecerlas, y el recolector
+ * las libera cuando ya nadie las usa. Incluye contadores para pasos (time) y memoria (memory)
+ * en {@link TableMetrics}, todos atribuidos a GET.
+ */
+public class MappedHashTable implements AutoCloseable {
+    private static final int MAGIC = 0x48544D31; // "HTM1"
+    private static final int VERSION = 1; // Versión del formato
+    private static final int HEADER_BYTES = 32; // Mágico, versión, capacidad, relleno, pares (long) y longitud de los datos (long)
+    private static final int SLOT_BYTES = 16; // Bytes por posición del índice: hash (long) y referencia (long)
+    private static final int ENTRY_HEADER_BYTES = 8; // Cabecera de cada entrada: longitud de la clave y del valor (int)
+    private static final int CHUNK_SIZE = 1 << 30; // Tamaño de cada tramo proyectado de la zona de datos (1 GiB)
+    private static final int MAX_CAPACITY = 1 << 26; // Posiciones máximas del índice, que se proyecta de una vez (1 GiB)
+    private static final HashFunction HASH = HashFunction.MURMUR3; // Función hash del formato
+
+    private volatile Mapping mapping; // Proyecciones del fichero, o null si la tabla está cerrada
+    private final int capacity; // Número de posiciones del índice (potencia de dos)
+    private final int population; // Número de pares de la tabla
+    private final ValueCodec valueCodec; // Codificación de los valores
+    private final TableMetrics metrics = new TableMetrics(); // Contadores de pasos y memoria (todo son lecturas: GET)
+
+    /**
+     * Abre un fichero de tabla mapeada con los valores en la codificación compacta (la que usa por defecto
+     * HashTable.serializarMapeada).
+     *
+     * @param ruta ruta del fichero, escrito con {@link Writer} o con HashTable.serializarMapeada.
+     * @throws UncheckedIOException si no se puede abrir el fichero o no es una tabla mapeada válida.
+     */
+    public MappedHashTable(String ruta) {
+        this(ruta, ValueCodec.COMPACT);
+    }
+
+    /**
+     * Abre un fichero de tabla mapeada: comprueba la cabecera y proyecta el índice y los datos en modo
+     * de solo lectura. El canal se cierra enseguida; las proyecciones siguen siendo válidas.
+     *
+     * @param ruta       ruta del fichero, escrito con {@link Writer} o con HashTable.serializarMapeada.
+     * @param valueCodec codificación con la que se escribieron los valores, usada por get.
+     * @throws UncheckedIOException si no se puede abrir el fichero o no es una tabla mapeada válida.
+     */
+    public MappedHashTable(String ruta, ValueCodec valueCodec) {
+        this.valueCodec = valueCodec;
+        try (FileChannel channel = FileChannel.open(Path.of(ruta), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Fin de fichero inesperado en la cabecera de " + ruta);
+                }
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException(ruta + " no es una tabla hash mapeada");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Versión " + version + " no soportada en " + ruta);
+            }
+            this.capacity = header.getInt();
+            header.getInt(); // Relleno
+            long entries = header.getLong();
+            long dataLength = header.getLong();
+            if (Integer.bitCount(capacity) != 1 || capacity > MAX_CAPACITY || entries < 0 || entries >= capacity
+                    || dataLength < 0 || channel.size() < dataStart(capacity) + dataLength) {
+                throw new IOException("Cabecera dañada o fichero incompleto en " + ruta);
+            }
+            this.population = (int) entries;
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, (long) capacity * SLOT_BYTES);
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((dataLength + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = (long) i * CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, dataStart(capacity) + start,
+                        Math.min(CHUNK_SIZE, dataLength - start));
+            }
+            this.mapping = new Mapping(index, chunks);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Obtiene la posición del fichero en la que empieza la zona de datos.
+     */
+    private static long dataStart(int capacity) {
+        return HEADER_BYTES + (long) capacity * SLOT_BYTES;
+    }
+
+    /**
+     * Codifica la posición de una entrada: tramo + 1 en los 32 bits altos y desplazamiento en los bajos,
+     * de modo que ninguna referencia válida vale 0.
+     */
+    private static long ref(int chunk, int offset) {
+        return ((long) (chunk + 1) << 32) | offset;
+    }
+
+    private static int chunkOf(long ref) {
+        return (int) (ref >>> 32) - 1;
+    }
+
+    private static int offsetOf(long ref) {
+        return (int) ref;
+    }
+
+    /**
+     * Incrementa el contador de pasos (time).
+     */
+    private void incrementTime() {
+        metrics.step(Operation.GET);
+    }
+
+    /**
+     * Incrementa el contador de memoria (memory).
+     */
+    private void incrementMemory() {
+        metrics.memory(Operation.GET);
+    }
+
+    /**
+     * Proyecciones del fichero. Se leen de una vez en cada consulta, de modo que una consulta en curso
+     * sigue usando las mismas aunque otra hebra cierre la tabla.
+     */
+    private static final class Mapping {
+        private final ByteBuffer index; // Índice proyectado
+        private final ByteBuffer[] chunks; // Tramos proyectados de la zona de datos
+
+        private Mapping(ByteBuffer index, ByteBuffer[] chunks) {
+            this.index = index;
+            this.chunks = chunks;
+        }
+    }
+
+    /**
+     * Obtiene las proyecciones de la tabla.
+     *
+     * @throws IllegalStateException si la tabla ya se ha cerrado.
+     */
+    private Mapping mapping() {
+        Mapping m = mapping;
+        if (m == null) {
+            throw new IllegalStateException("La tabla hash ya está cerrada");
+        }
+        return m;
+    }
+
+    /**
+     * Busca la entrada de una clave.
+     *
+     * @param m   proyecciones de la tabla.
+     * @param key clave a buscar.
+     * @return referencia a la entrada, o 0 si la clave no está en la tabla.
+     */
+    private long find(Mapping m, String key) {
+        incrementTime(); // Contar como un paso para la operación de hashing
+        long h = HASH.hash(key);
+        int mask = capacity - 1;
+        for (int slot = CapacityMode.POWER_OF_TWO.indexFor(h, capacity); ; slot = (slot + 1) & mask) {
+            incrementMemory(); // Contar la operación de acceso a la memoria
+            long ref = m.index.getLong(slot * SLOT_BYTES + 8);
+            if (ref == 0) {
+                return 0;
+            }
+            if (m.index.getLong(slot * SLOT_BYTES) == h && keyEquals(m.chunks[chunkOf(ref)], offsetOf(ref), key)) {
+                return ref;
+            }
+        }
+    }
+
+    /**
+     * Compara la clave de una entrada con la clave dada sin copiar nada al heap: codifica la clave a UTF-8
+     * carácter a carácter, igual que String.getBytes (un sustituto sin pareja se codifica como '?'), y compara
+     * cada byte con el del fichero.
+     */
+    private static boolean keyEquals(ByteBuffer chunk, int offset, String key) {
+        int length = chunk.getInt(offset);
+        int pos = offset + ENTRY_HEADER_BYTES;
+        int end = pos + length;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x80) {
+                if (pos == end || chunk.get(pos++) != (byte) c) {
+                    return false;
+                }
+            } else if (c < 0x800) {
+                if (end - pos < 2 || chunk.get(pos++) != (byte) (0xC0 | c >> 6)
+                        || chunk.get(pos++) != (byte) (0x80 | c & 0x3F)) {
+                    return false;
+                }
+            } else if (Character.isHighSurrogate(c) && i + 1 < key.length() && Character.isLowSurrogate(key.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, key.charAt(++i));
+                if (end - pos < 4 || chunk.get(pos++) != (byte) (0xF0 | cp >> 18)
+                        || chunk.get(pos++) != (byte) (0x80 | cp >> 12 & 0x3F)
+                        || chunk.get(pos++) != (byte) (0x80 | cp >> 6 & 0x3F)
+                        || chunk.get(pos++) != (byte) (0x80 | cp & 0x3F)) {
+                    return false;
+                }
+            } else if (Character.isSurrogate(c)) {
+                if (pos == end || chunk.get(pos++) != '?') { // Sustituto sin pareja
+                    return false;
+                }
+            } else if (end - pos < 3 || chunk.get(pos++) != (byte) (0xE0 | c >> 12)
+                    || chunk.get(pos++) != (byte) (0x80 | c >> 6 & 0x3F)
+                    || chunk.get(pos++) != (byte) (0x80 | c & 0x3F)) {
+                return false;
+            }
+        }
+        return pos == end;
+    }
+
+    /**
+     * Obtiene los bytes del valor asociado a una clave sin copiarlos: el buffer devuelto es una vista de
+     * solo lectura sobre el fichero proyectado, que sigue siendo válida aunque se cierre la tabla.
+     *
+     * @param key clave a buscar.
+     * @return vista de los bytes del valor, o null si la clave no se encuentra en la tabla.
+     */
+    public ByteBuffer getBytes(String key) {
+        Mapping m = mapping();
+        long ref = find(m, key);
+        if (ref == 0) {
+            return null;
+        }
+        ByteBuffer chunk = m.chunks[chunkOf(ref)];
+        int offset = offsetOf(ref);
+        return chunk.slice(offset + ENTRY_HEADER_BYTES + chunk.getInt(offset), chunk.getInt(offset + 4)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave. Solo se decodifica el valor encontrado.
+     *
+     * @param key clave a buscar.
+     * @return valor decodificado, o null si la clave no se encuentra en la tabla.
+     */
+    public Object get(String key) {
+        ByteBuffer bytes = getBytes(key);
+        if (bytes == null) {
+            return null;
+        }
+        byte[] value = new byte[bytes.remaining()];
+        bytes.get(value);
+        return valueCodec.decode(value);
+    }
+
+    /**
+     * Comprueba si una clave está en la tabla, sin leer su valor.
+     *
+     * @param key clave a buscar.
+     * @return verdadero si la clave está en la tabla.
+     */
+    public boolean containsKey(String key) {
+        return find(mapping(), key) != 0;
+    }
+
+    /**
+     * Cierra la tabla: después de cerrarla, las consultas nuevas lanzan IllegalStateException. Las
+     * proyecciones no se liberan aquí, porque una consulta concurrente o una vista devuelta por getBytes
+     * pueden seguir leyéndolas; el recolector las libera cuando dejan de usarse. Cerrar una tabla ya cerrada
+     * no hace nada.
+     */
+    @Override
+    public void close() {
+        mapping = null;
+    }
+
+    /**
+     * Obtiene el número total de pasos realizados en las consultas de la tabla hash.
+     *
+     * @return El número total de pasos.
+     */
+    public long getTime() {
+        return metrics.getTotalSteps();
+    }
+
+    /**
+     * Obtiene el número total de operaciones de memoria realizadas en las consultas de la tabla hash.
+     *
+     * @return El número total de operaciones de memoria.
+     */
+    public long getMemory() {
+        return metrics.getTotalMemory();
+    }
+
+    /**
+     * Obtiene las métricas de la tabla hash.
+     *
+     * @return métricas de la tabla.
+     */
+    public TableMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Obtiene el número de pares de la tabla hash.
+     *
+     * @return El número de pares.
+     */
+    public int getSize() {
+        return population;
+    }
+
+    /**
+     * Obtiene el número de posiciones del índice.
+     *
+     * @return La capacidad del índice.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Escritor de un fichero de tabla mapeada. El índice se rellena a través de una proyección de lectura y
+     * escritura del propio fichero, sin reservarlo en el heap, y las entradas se acumulan en un buffer que se
+     * vuelca en la zona de datos con escrituras grandes. La cabecera se escribe al final y el fichero temporal
+     * sustituye al definitivo al cerrarse, como en SnapshotFile. La proyección del índice la libera el
+     * recolector.
+     * <p>
+     * Las claves deben ser distintas entre sí (como las de una HashTable): el escritor no lo comprueba.
+     */
+    public static final class Writer implements AutoCloseable {
+        private static final int BUFFER_SIZE = 1 << 20; // Tamaño del buffer de entradas (1 MiB)
+
+        private final Path target; // Fichero definitivo
+        private final Path temp; // Fichero temporal en el que se escribe
+        private final FileChannel channel; // Canal del fichero temporal
+        private final MappedByteBuffer index; // Proyección del índice en el fichero temporal
+        private final int capacity; // Número de posiciones del índice
+        private final long expectedEntries; // Pares anunciados
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE); // Entradas pendientes de volcar
+        private long bufferStart; // Posición en la zona de datos de la primera entrada del buffer
+        private long entries; // Pares escritos
+        private boolean closed;
+
+        /**
+         * Crea el escritor y reserva el índice, con capacidad para que quede como mucho medio lleno.
+         *
+         * @param ruta    ruta del fichero de la tabla.
+         * @param entries número de pares que se van a escribir.
+         * @throws IOException              si no se puede crear el fichero.
+         * @throws IllegalArgumentException si el índice para ese número de pares pasaría de 1 GiB.
+         */
+        public Writer(String ruta, long entries) throws IOException {
+            if (entries < 0 || entries * 2 > MAX_CAPACITY) {
+                throw new IllegalArgumentException("Número de pares no admitido en una tabla mapeada: " + entries);
+            }
+            this.target = Path.of(ruta);
+            this.temp = Path.of(ruta + ".tmp");
+            this.expectedEntries = entries;
+            this.capacity = CapacityMode.POWER_OF_TWO.initialCapacity((int) Math.max(2, entries * 2));
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                this.index = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES, (long) capacity * SLOT_BYTES);
+            } catch (IOException e) {
+                channel.close();
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+        }
+
+        /**
+         * Añade un par a la tabla.
+         *
+         * @param key   clave del par.
+         * @param value bytes del valor.
+         * @throws IOException              si se escriben más pares de los anunciados o falla la escritura.
+         * @throws IllegalArgumentException si el par ocupa más que un tramo de la zona de datos.
+         */
+        public void write(String key, byte[] value) throws IOException {
+            if (entries == expectedEntries) {
+                throw new IOException("Se anunciaron " + expectedEntries + " pares y se intenta escribir otro");
+            }
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            long length = (long) ENTRY_HEADER_BYTES + keyBytes.length + value.length;
+            if (length > CHUNK_SIZE) {
+                throw new IllegalArgumentException("El par de la clave " + key + " no cabe en un tramo de la tabla mapeada");
+            }
+            long position = bufferStart + buffer.position();
+            if (position % CHUNK_SIZE + length > CHUNK_SIZE) {
+                flush();
+                position = (position / CHUNK_SIZE + 1) * CHUNK_SIZE; // La entrada no puede cruzar el final del tramo
+                bufferStart = position;
+            }
+            if (buffer.remaining() < length) {
+                flush();
+            }
+            if (buffer.remaining() < length) {
+                writeFully(ByteBuffer.allocate((int) length).putInt(keyBytes.length).putInt(value.length)
+                        .put(keyBytes).put(value).flip(), position); // Par mayor que el buffer
+                bufferStart += length;
+            } else {
+                buffer.putInt(keyBytes.length).putInt(value.length).put(keyBytes).put(value);
+            }
+            long h = HASH.hash(key);
+            int mask = capacity - 1;
+            int slot = CapacityMode.POWER_OF_TWO.indexFor(h, capacity);
+            while (index.getLong(slot * SLOT_BYTES + 8) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index.putLong(slot * SLOT_BYTES, h);
+            index.putLong(slot * SLOT_BYTES + 8, ref((int) (position / CHUNK_SIZE), (int) (position % CHUNK_SIZE)));
+            entries++;
+        }
+
+        /**
+         * Vuelca el buffer de entradas en la zona de datos.
+         */
+        private void flush() throws IOException {
+            buffer.flip();
+            int length = buffer.remaining();
+            writeFully(buffer, bufferStart);
+            bufferStart += length;
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer data, long position) throws IOException {
+            long filePosition = dataStart(capacity) + position;
+            while (data.hasRemaining()) {
+                filePosition += channel.write(data, filePosition);
+            }
+        }
+
+        /**
+         * Vuelca las entradas pendientes, escribe la cabecera, fuerza los datos a disco y sustituye el fichero
+         * definitivo por el temporal. Si algo falla, borra el temporal y deja intacto el fichero definitivo.
+         *
+         * @throws IOException si falla la escritura, o si el número de pares escritos no coincide con el anunciado.
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                try (channel) {
+                    if (entries != expectedEntries) {
+                        throw new IOException("Se han escrito " + entries + " pares y se anunciaron " + expectedEntries);
+                    }
+                    flush();
+                    index.force();
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                    header.putInt(MAGIC).putInt(VERSION).putInt(capacity).putInt(0).putLong(entries).putLong(bufferStart).flip();
+                    while (header.hasRemaining()) {
+                        channel.write(header, header.position());
+                    }
+                    channel.force(false);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+        }
+    }
+}
@@ -20,6 +20,24 @@ public class Moto implements Serializable {
 		this.color = color;
 	}
 
+	/**
+	 * Obtiene la matrícula de la moto.
+	 *
+	 * @return La matrícula de la moto.
+	 */
+	public String getMatricula() {
+		return matricula;
+	}
+
+	/**
+	 * Obtiene el color de la moto.
+	 *
+	 * @return El color de la moto.
+	 */
+	public String getColor() {
+		return color;
+	}
+
 	/**
 	 * Proporciona una representación en forma de cadena de la moto,
 	 * incluyendo su color y matrícula.
@@ -0,0 +1,118 @@
+/**
+ * Implementación de MurmurHash3 x64 de 128 bits sobre las unidades UTF-16 de la clave,
+ * equivalente a aplicar el algoritmo sobre los bytes UTF-16LE del String.
+ * Devuelve los primeros 64 bits del resultado.
+ */
+public class Murmur3Hash implements HashFunction {
+    private static final long serialVersionUID = 1L;
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private final long seed; // Semilla del hash
+
+    /**
+     * Constructor con semilla 0.
+     */
+    public Murmur3Hash() {
+        this(0);
+    }
+
+    /**
+     * Constructor con una semilla dada.
+     *
+     * @param seed semilla del hash.
+     */
+    public Murmur3Hash(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public long hash(String key) {
+        int len = key.length();
+        long h1 = seed;
+        long h2 = seed;
+        int i = 0;
+
+        // Bloques de 16 bytes (8 caracteres)
+        for (; i + 8 <= len; i += 8) {
+            long k1 = getLong(key, i);
+            long k2 = getLong(key, i + 4);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        // Cola: hasta 7 caracteres restantes
+        int rem = len - i;
+        if (rem > 4) {
+            long k2 = 0;
+            for (int j = rem - 1; j >= 4; j--) {
+                k2 ^= (long) key.charAt(i + j) << ((j - 4) * 16);
+            }
+            h2 ^= mixK2(k2);
+        }
+        if (rem > 0) {
+            long k1 = 0;
+            for (int j = Math.min(rem, 4) - 1; j >= 0; j--) {
+                k1 ^= (long) key.charAt(i + j) << (j * 16);
+            }
+            h1 ^= mixK1(k1);
+        }
+
+        // Finalización (la longitud se expresa en bytes)
+        h1 ^= len * 2L;
+        h2 ^= len * 2L;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        return h1;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        return k1;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        return k2;
+    }
+
+    /**
+     * Mezclador final de MurmurHash3 para 64 bits.
+     *
+     * @param k valor a mezclar.
+     * @return valor mezclado.
+     */
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * Lee 4 caracteres consecutivos como un long en orden little-endian.
+     */
+    private static long getLong(String s, int i) {
+        return (long) s.charAt(i)
+                | (long) s.charAt(i + 1) << 16
+                | (long) s.charAt(i + 2) << 32
+                | (long) s.charAt(i + 3) << 48;
+    }
+}
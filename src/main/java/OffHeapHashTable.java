@@ -0,0 +1,487 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tabla hash que guarda claves y valores fuera del heap de Java. Los pares se codifican como bytes (ValueCodec.COMPACT) en
+ * bloques (slabs) de memoria directa y el índice de direccionamiento abierto (sondeo lineal sobre una
+ * capacidad potencia de dos) también vive en memoria directa: cada posición guarda el hash de la clave
+ * y la referencia a su entrada. El recolector de basura solo ve un puñado de buffers, por lo que su coste
+ * no depende del número de pares. La memoria la devuelve el recolector cuando reclama esos buffers (cada buffer
+ * directo lleva su propio Cleaner), tras {@link #close()} o al descartar la tabla.
+ * El índice es un único buffer directo, así que tiene como mucho MAX_CAPACITY posiciones (1 GiB).
+ * Ofrece las mismas operaciones que HashTable; get devuelve una copia del par deserializada.
+ * Incluye contadores para pasos (time) y memoria (memory) por tipo de operación en {@link TableMetrics}
+ * para monitorear el rendimiento; la compactación de los bloques se cuenta como REHASH.
+ */
+public class OffHeapHashTable implements AutoCloseable {
+    private static final int SLOT_BYTES = 16; // Bytes por posición del índice: hash (long) y referencia (long)
+    private static final int SLAB_SIZE = 1 << 20; // Tamaño de cada bloque de datos (1 MiB)
+    private static final int HEADER_BYTES = 8; // Cabecera de cada entrada: longitud de la clave y del valor (int)
+    private static final int MAX_CAPACITY = 1 << 26; // Posiciones máximas del índice, cuyos desplazamientos son int (1 GiB)
+
+    private ByteBuffer index; // Índice: capacity posiciones de SLOT_BYTES bytes
+    private final List<ByteBuffer> slabs = new ArrayList<>(); // Bloques con las entradas serializadas
+    private int capacity; // Número de posiciones del índice (potencia de dos)
+    private int population; // Número de pares de la tabla
+    private long liveBytes; // Bytes de las entradas activas
+    private long wastedBytes; // Bytes de entradas reemplazadas o eliminadas, recuperables compactando
+    private final double loadFactor; // Factor de carga máximo del índice
+    private final HashFunction hashFunction; // Función hash aplicada a las claves
+    private boolean closed; // Indica si la tabla ya se ha cerrado
+    private final TableMetrics metrics = new TableMetrics(); // Contadores de pasos y memoria por operación
+
+    /**
+     * Constructor de la tabla hash. Utiliza MurmurHash3 como función hash.
+     *
+     * @param capacity   capacidad inicial del índice (se redondea a potencia de dos).
+     * @param loadFactor factor de carga máximo del índice antes de duplicarlo.
+     */
+    public OffHeapHashTable(int capacity, double loadFactor) {
+        this(capacity, loadFactor, HashFunction.MURMUR3);
+    }
+
+    /**
+     * Constructor de la tabla hash con una función hash dada.
+     *
+     * @param capacity     capacidad inicial del índice (se redondea a potencia de dos).
+     * @param loadFactor   factor de carga máximo del índice antes de duplicarlo.
+     * @param hashFunction función hash aplicada a las claves.
+     * @throws IllegalArgumentException si la capacidad supera MAX_CAPACITY.
+     */
+    public OffHeapHashTable(int capacity, double loadFactor, HashFunction hashFunction) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("La capacidad del índice no puede superar " + MAX_CAPACITY + ": " + capacity);
+        }
+        this.loadFactor = loadFactor;
+        this.hashFunction = hashFunction;
+        this.capacity = CapacityMode.POWER_OF_TWO.initialCapacity(Math.max(capacity, 2));
+        this.index = allocateIndex(this.capacity);
+    }
+
+    /**
+     * Reserva un índice vacío. Con como mucho MAX_CAPACITY posiciones, su tamaño y el desplazamiento de
+     * cualquier posición caben en un int.
+     */
+    private static ByteBuffer allocateIndex(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+    }
+
+    /**
+     * Indica si el índice debe crecer para guardar un número de pares dado: el sondeo lineal necesita al
+     * menos una posición vacía además de no superar el factor de carga.
+     */
+    private boolean mustGrow(int pairs) {
+        return pairs > capacity * loadFactor || pairs >= capacity - 1;
+    }
+
+    /**
+     * Incrementa el contador de pasos (time) de una operación.
+     */
+    private void incrementTime(Operation op) {
+        metrics.step(op);
+    }
+
+    /**
+     * Incrementa el contador de memoria (memory) de una operación.
+     */
+    private void incrementMemory(Operation op) {
+        metrics.memory(op);
+    }
+
+    /**
+     * Comprueba que la tabla no se ha cerrado.
+     *
+     * @throws IllegalStateException si la tabla ya se ha cerrado.
+     */
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("La tabla hash ya está cerrada");
+        }
+    }
+
+    /**
+     * Calcula el hash completo de una clave utilizando la función hash de la tabla.
+     */
+    private long hash(String key, Operation op) {
+        incrementTime(op); // Contar como un paso para la operación de hashing
+        return hashFunction.hash(key);
+    }
+
+    private int homeSlot(long hash) {
+        return CapacityMode.POWER_OF_TWO.indexFor(hash, capacity);
+    }
+
+    private long hashAt(int slot) {
+        return index.getLong(slot * SLOT_BYTES);
+    }
+
+    /**
+     * Obtiene la referencia de una posición del índice; 0 indica posición vacía.
+     */
+    private long refAt(int slot) {
+        return index.getLong(slot * SLOT_BYTES + 8);
+    }
+
+    private void setSlot(int slot, long hash, long ref) {
+        index.putLong(slot * SLOT_BYTES, hash);
+        index.putLong(slot * SLOT_BYTES + 8, ref);
+    }
+
+    /**
+     * Codifica la posición de una entrada: bloque + 1 en los 32 bits altos y desplazamiento en los bajos,
+     * de modo que ninguna referencia válida vale 0.
+     */
+    private static long ref(int slab, int offset) {
+        return ((long) (slab + 1) << 32) | offset;
+    }
+
+    private static int slabOf(long ref) {
+        return (int) (ref >>> 32) - 1;
+    }
+
+    private static int offsetOf(long ref) {
+        return (int) ref;
+    }
+
+    /**
+     * Busca la posición del índice que contiene la clave dada.
+     *
+     * @param hash     hash completo de la clave.
+     * @param keyBytes clave codificada en UTF-8.
+     * @param op       operación a la que se atribuyen los accesos a memoria.
+     * @return posición del índice, o -1 si la clave no está en la tabla.
+     */
+    private int findSlot(long hash, byte[] keyBytes, Operation op) {
+        int mask = capacity - 1;
+        for (int slot = homeSlot(hash); ; slot = (slot + 1) & mask) {
+            incrementMemory(op); // Contar la operación de acceso a la memoria
+            long ref = refAt(slot);
+            if (ref == 0) {
+                return -1;
+            }
+            if (hashAt(slot) == hash && keyEquals(ref, keyBytes)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Compara la clave de una entrada con la clave dada sin copiarla al heap.
+     */
+    private boolean keyEquals(long ref, byte[] keyBytes) {
+        ByteBuffer slab = slabs.get(slabOf(ref));
+        int offset = offsetOf(ref);
+        if (slab.getInt(offset) != keyBytes.length) {
+            return false;
+        }
+        int start = offset + HEADER_BYTES;
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (slab.get(start + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Escribe una entrada (cabecera, clave y valor) al final del último bloque, o en uno nuevo si no cabe.
+     *
+     * @param op operación a la que se atribuye el almacenamiento.
+     * @return referencia a la entrada escrita.
+     */
+    private long append(byte[] keyBytes, byte[] valueBytes, Operation op) {
+        int length = HEADER_BYTES + keyBytes.length + valueBytes.length;
+        ByteBuffer slab = slabs.isEmpty() ? null : slabs.get(slabs.size() - 1);
+        if (slab == null || slab.remaining() < length) {
+            slab = ByteBuffer.allocateDirect(Math.max(SLAB_SIZE, length));
+            slabs.add(slab);
+        }
+        int offset = slab.position();
+        slab.putInt(keyBytes.length).putInt(valueBytes.length).put(keyBytes).put(valueBytes);
+        liveBytes += length;
+        incrementMemory(op); // Contar la operación de almacenamiento en memoria
+        return ref(slabs.size() - 1, offset);
+    }
+
+    /**
+     * Obtiene el número de bytes que ocupa la entrada referenciada.
+     */
+    private int entryLength(long ref) {
+        ByteBuffer slab = slabs.get(slabOf(ref));
+        int offset = offsetOf(ref);
+        return HEADER_BYTES + slab.getInt(offset) + slab.getInt(offset + 4);
+    }
+
+    /**
+     * Lee el par de la entrada referenciada.
+     */
+    private KeyValue read(long ref, long hash) {
+        ByteBuffer slab = slabs.get(slabOf(ref));
+        int offset = offsetOf(ref);
+        byte[] keyBytes = new byte[slab.getInt(offset)];
+        byte[] valueBytes = new byte[slab.getInt(offset + 4)];
+        slab.get(offset + HEADER_BYTES, keyBytes);
+        slab.get(offset + HEADER_BYTES + keyBytes.length, valueBytes);
+        return new KeyValue(new String(keyBytes, StandardCharsets.UTF_8), ValueCodec.COMPACT.decode(valueBytes), hash);
+    }
+
+    /**
+     * Inserta un objeto KeyValue en la tabla hash si su clave no está ya en la tabla.
+     *
+     * @param kv objeto KeyValue a insertar; su valor debe ser serializable.
+     * @return verdadero si la inserción fue exitosa, falso si la clave ya existe en la tabla.
+     * @throws IllegalStateException si el índice ya tiene MAX_CAPACITY posiciones y no admite más pares.
+     */
+    public boolean put(KeyValue kv) {
+        ensureOpen();
+        incrementTime(Operation.PUT); // Contar como un paso
+        long h = hash(kv.getKey(), Operation.PUT);
+        byte[] keyBytes = kv.getKey().getBytes(StandardCharsets.UTF_8);
+        int mask = capacity - 1;
+        int slot = homeSlot(h);
+        for (long ref = refAt(slot); ref != 0; slot = (slot + 1) & mask, ref = refAt(slot)) {
+            incrementMemory(Operation.PUT); // Contar la operación de acceso a la memoria
+            if (hashAt(slot) == h && keyEquals(ref, keyBytes)) {
+                return false;
+            }
+        }
+        if (capacity == MAX_CAPACITY && mustGrow(population + 1)) {
+            throw new IllegalStateException("El índice ha alcanzado su capacidad máxima de " + MAX_CAPACITY + " posiciones");
+        }
+        setSlot(slot, h, append(keyBytes, ValueCodec.COMPACT.encode(kv.getValue()), Operation.PUT));
+        population++;
+        if (mustGrow(population)) {
+            resize();
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene una copia del par asociado a una clave dada en la tabla hash.
+     *
+     * @param key clave del objeto a obtener.
+     * @return par deserializado, o null si la clave no se encuentra en la tabla.
+     */
+    public KeyValue get(String key) {
+        ensureOpen();
+        incrementTime(Operation.GET); // Contar como un paso
+        long h = hash(key, Operation.GET);
+        int slot = findSlot(h, key.getBytes(StandardCharsets.UTF_8), Operation.GET);
+        return slot == -1 ? null : read(refAt(slot), h);
+    }
+
+    /**
+     * Reemplaza el valor de un par existente. La entrada nueva se escribe al final del último bloque
+     * y la antigua queda como espacio recuperable.
+     *
+     * @param kv objeto KeyValue con el que reemplazar.
+     * @return verdadero si el reemplazo fue exitoso, falso si la clave no se encuentra en la tabla.
+     */
+    public boolean replace(KeyValue kv) {
+        ensureOpen();
+        incrementTime(Operation.REPLACE); // Contar como un paso
+        long h = hash(kv.getKey(), Operation.REPLACE);
+        byte[] keyBytes = kv.getKey().getBytes(StandardCharsets.UTF_8);
+        int slot = findSlot(h, keyBytes, Operation.REPLACE);
+        if (slot == -1) {
+            return false;
+        }
+        discard(refAt(slot));
+        setSlot(slot, h, append(keyBytes, ValueCodec.COMPACT.encode(kv.getValue()), Operation.REPLACE));
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Elimina el par con la clave dada. Las posiciones siguientes del índice se desplazan hacia atrás
+     * cuando su posición inicial lo permite, por lo que no quedan marcas de borrado.
+     *
+     * @param key clave del objeto a eliminar.
+     * @return verdadero si la eliminación fue exitosa, falso si la clave no se encuentra en la tabla.
+     */
+    public boolean remove(String key) {
+        ensureOpen();
+        incrementTime(Operation.REMOVE); // Contar como un paso
+        int hole = findSlot(hash(key, Operation.REMOVE), key.getBytes(StandardCharsets.UTF_8), Operation.REMOVE);
+        if (hole == -1) {
+            return false;
+        }
+        discard(refAt(hole));
+        int mask = capacity - 1;
+        for (int slot = (hole + 1) & mask; refAt(slot) != 0; slot = (slot + 1) & mask) {
+            incrementMemory(Operation.REMOVE); // Contar la operación de desplazamiento en memoria
+            int home = homeSlot(hashAt(slot));
+            // La entrada puede ocupar el hueco si su posición inicial no está entre el hueco y ella
+            boolean reachable = hole <= slot ? (hole < home && home <= slot) : (hole < home || home <= slot);
+            if (!reachable) {
+                setSlot(hole, hashAt(slot), refAt(slot));
+                hole = slot;
+            }
+        }
+        setSlot(hole, 0, 0);
+        population--;
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Marca como recuperable el espacio de una entrada que deja de estar en uso.
+     */
+    private void discard(long ref) {
+        int length = entryLength(ref);
+        liveBytes -= length;
+        wastedBytes += length;
+    }
+
+    /**
+     * Duplica el índice y recoloca las referencias usando el hash almacenado. Los datos no se mueven.
+     * El índice nuevo se reserva antes de cambiar el estado de la tabla, así que si la reserva falla la
+     * tabla sigue como estaba.
+     */
+    private void resize() {
+        incrementTime(Operation.REHASH); // Contar como un paso
+        int newCapacity = Math.min(CapacityMode.POWER_OF_TWO.nextCapacity(capacity, 2), MAX_CAPACITY);
+        ByteBuffer newIndex = allocateIndex(newCapacity);
+        ByteBuffer oldIndex = index;
+        int oldCapacity = capacity;
+        capacity = newCapacity;
+        index = newIndex;
+        int mask = capacity - 1;
+        for (int i = 0; i < oldCapacity; i++) {
+            long ref = oldIndex.getLong(i * SLOT_BYTES + 8);
+            if (ref != 0) {
+                long h = oldIndex.getLong(i * SLOT_BYTES);
+                int slot = homeSlot(h);
+                while (refAt(slot) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                setSlot(slot, h, ref);
+                incrementMemory(Operation.REHASH); // Contar la operación de reubicación en memoria
+            }
+        }
+    }
+
+    /**
+     * Compacta los bloques cuando el espacio recuperable supera al ocupado por entradas activas.
+     */
+    private void compactIfNeeded() {
+        if (wastedBytes > SLAB_SIZE && wastedBytes > liveBytes) {
+            compact();
+        }
+    }
+
+    /**
+     * Copia las entradas activas a bloques nuevos, actualiza sus referencias en el índice y suelta
+     * los bloques antiguos.
+     */
+    public void compact() {
+        ensureOpen();
+        incrementTime(Operation.REHASH); // Contar como un paso
+        List<ByteBuffer> oldSlabs = new ArrayList<>(slabs);
+        slabs.clear();
+        liveBytes = 0;
+        wastedBytes = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            long ref = refAt(slot);
+            if (ref != 0) {
+                ByteBuffer oldSlab = oldSlabs.get(slabOf(ref));
+                int offset = offsetOf(ref);
+                byte[] entry = new byte[HEADER_BYTES + oldSlab.getInt(offset) + oldSlab.getInt(offset + 4)];
+                oldSlab.get(offset, entry);
+                ByteBuffer slab = slabs.isEmpty() ? null : slabs.get(slabs.size() - 1);
+                if (slab == null || slab.remaining() < entry.length) {
+                    slab = ByteBuffer.allocateDirect(Math.max(SLAB_SIZE, entry.length));
+                    slabs.add(slab);
+                }
+                setSlot(slot, hashAt(slot), ref(slabs.size() - 1, slab.position()));
+                slab.put(entry);
+                liveBytes += entry.length;
+                incrementMemory(Operation.REHASH); // Contar la operación de copia en memoria
+            }
+        }
+    }
+
+    /**
+     * Suelta toda la memoria fuera del heap de la tabla; el recolector la devuelve al reclamar los
+     * buffers. Después de cerrarla, cualquier operación lanza IllegalStateException. Cerrar una tabla ya
+     * cerrada no hace nada.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        slabs.clear();
+        index = null;
+        population = 0;
+    }
+
+    /**
+     * Imprime todos los pares de la tabla hash.
+     */
+    public void printAll() {
+        ensureOpen();
+        for (int slot = 0; slot < capacity; slot++) {
+            long ref = refAt(slot);
+            if (ref != 0) {
+                KeyValue kv = read(ref, hashAt(slot));
+                System.out.println("Clave: " + kv.getKey() + ", Valor: " + kv.getValue());
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de pares de la tabla hash.
+     *
+     * @return El número de pares.
+     */
+    public int getSize() {
+        return population;
+    }
+
+    /**
+     * Obtiene los bytes reservados fuera del heap (índice y bloques de datos).
+     *
+     * @return bytes reservados.
+     */
+    public long getOffHeapBytes() {
+        if (closed) {
+            return 0;
+        }
+        long total = (long) capacity * SLOT_BYTES;
+        for (ByteBuffer slab : slabs) {
+            total += slab.capacity();
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene el número total de pasos realizados en las operaciones de la tabla hash.
+     *
+     * @return El número total de pasos.
+     */
+    public long getTime() {
+        return metrics.getTotalSteps();
+    }
+
+    /**
+     * Obtiene el número total de operaciones de memoria realizadas en las operaciones de la tabla hash.
+     *
+     * @return El número total de operaciones de memoria.
+     */
+    public long getMemory() {
+        return metrics.getTotalMemory();
+    }
+
+    /**
+     * Obtiene las métricas de la tabla hash por tipo de operación.
+     *
+     * @return métricas de la tabla.
+     */
+    public TableMetrics getMetrics() {
+        return metrics;
+    }
+}
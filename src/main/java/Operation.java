@@ -0,0 +1,30 @@
+/**
+ * Tipo de operación de una tabla hash al que TableMetrics atribuye sus contadores.
+ */
+public enum Operation {
+
+    /**
+     * Inserción de un par.
+     */
+    PUT,
+
+    /**
+     * Búsqueda de un par por su clave.
+     */
+    GET,
+
+    /**
+     * Reemplazo de un par existente.
+     */
+    REPLACE,
+
+    /**
+     * Eliminación de un par.
+     */
+    REMOVE,
+
+    /**
+     * Redimensionado de la tabla y reubicación de sus pares, incluida la migración incremental.
+     */
+    REHASH
+}
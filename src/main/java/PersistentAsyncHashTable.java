@@ -0,0 +1,74 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * AsyncHashTable sobre fragmentos HashTable que además escribe los fragmentos en ficheros sin bloquear a
+ * quien llama. Cada fragmento se escribe en su carril, detrás de las operaciones sobre él ya encoladas.
+ * Solo admite HashTable porque StaticHashTable no tiene persistencia en ficheros.
+ */
+public class PersistentAsyncHashTable extends AsyncHashTable {
+    private final HashTable[] tables; // Los mismos fragmentos que los de la fachada, en el mismo orden
+
+    /**
+     * Constructor para PersistentAsyncHashTable con un ejecutor de hilos virtuales propio.
+     * A partir de aquí las tablas solo deben usarse a través de la fachada.
+     *
+     * @param tables fragmentos de la tabla.
+     */
+    public PersistentAsyncHashTable(HashTable... tables) {
+        super(tables);
+        this.tables = tables.clone();
+    }
+
+    /**
+     * Constructor para PersistentAsyncHashTable con un ejecutor dado, que close no cierra.
+     *
+     * @param executor ejecutor de las tareas.
+     * @param tables   fragmentos de la tabla.
+     */
+    public PersistentAsyncHashTable(Executor executor, HashTable... tables) {
+        super(executor, tables);
+        this.tables = tables.clone();
+    }
+
+    /**
+     * Serializa todos los fragmentos en archivos binarios sin bloquear a quien llama. Cada fragmento se
+     * escribe en su carril, así que refleja todas las operaciones sobre él solicitadas antes; la cubeta i
+     * del fragmento s se guarda en prefijo + s + "-" + i + ".data".
+     *
+     * @param prefijo prefijo de las rutas de los ficheros.
+     * @return futuro que se completa cuando todos los fragmentos se han escrito, o con la primera excepción.
+     */
+    public CompletableFuture<Void> serializarFicheroAsync(String prefijo) {
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[tables.length];
+        for (int s = 0; s < tables.length; s++) {
+            HashTable table = tables[s];
+            String prefijoFragmento = prefijo + s + "-";
+            writes[s] = submit(s, () -> {
+                table.serializarFichero(prefijoFragmento);
+                return null;
+            });
+        }
+        return CompletableFuture.allOf(writes);
+    }
+
+    /**
+     * Escribe todos los fragmentos en archivos de texto sin bloquear a quien llama, con el mismo esquema
+     * de rutas que serializarFicheroAsync.
+     *
+     * @param prefijo prefijo de las rutas de los ficheros.
+     * @return futuro que se completa cuando todos los fragmentos se han escrito, o con la primera excepción.
+     */
+    public CompletableFuture<Void> escribirFicheroTextoAsync(String prefijo) {
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[tables.length];
+        for (int s = 0; s < tables.length; s++) {
+            HashTable table = tables[s];
+            String prefijoFragmento = prefijo + s + "-";
+            writes[s] = submit(s, () -> {
+                table.escribirFicheroTexto(prefijoFragmento);
+                return null;
+            });
+        }
+        return CompletableFuture.allOf(writes);
+    }
+}
@@ -0,0 +1,279 @@
+import java.io.Serializable;
+
+/**
+ * Base de las tablas hash de direccionamiento abierto con claves primitivas (IntObjectHashTable,
+ * IntIntHashTable, LongObjectHashTable y LongLongHashTable). Guarda el estado de cada posición y hace
+ * el sondeo con doble hash, las marcas de borrado y el rehashing; cada subclase guarda sus claves y
+ * valores en arrays primitivos. Las claves int se amplían a long para compartir el sondeo sin crear
+ * objetos; su hash es el mismo, porque fmix64 ya recibía la clave ampliada.
+ * Incluye contadores para pasos (time) y memoria (memory) por tipo de operación en {@link TableMetrics}
+ * para monitorear el rendimiento.
+ */
+abstract class PrimitiveHashTable implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    static final byte EMPTY = 0; // Posición nunca ocupada
+    static final byte ACTIVE = 1; // Posición con una entrada activa
+    static final byte DELETED = 2; // Posición con una entrada borrada
+
+    private byte[] states; // Estado de cada posición: EMPTY, ACTIVE o DELETED
+    private int capacity; // Tamaño actual de la tabla hash
+    private int used; // Número de posiciones no vacías (entradas activas o borradas)
+    private int size; // Número de entradas activas
+    private final double loadFactor; // Factor de carga máximo permitido antes de realizar un rehashing
+    private final CapacityMode capacityMode; // Modo de cálculo de tamaños, índices y pasos de sondeo
+    private final TableMetrics metrics = new TableMetrics(); // Contadores de pasos y memoria por operación
+
+    /**
+     * Constructor para la tabla hash. La subclase reserva después sus arrays para la misma capacidad.
+     *
+     * @param capacity La capacidad inicial, ya ajustada con capacityMode.initialCapacity.
+     * @param loadFactor El factor de carga máximo permitido antes de realizar un rehashing.
+     * @param capacityMode El modo de capacidad: tamaños primos o potencias de dos.
+     */
+    PrimitiveHashTable(int capacity, double loadFactor, CapacityMode capacityMode) {
+        this.loadFactor = loadFactor;
+        this.capacityMode = capacityMode;
+        this.capacity = capacity;
+        this.states = new byte[capacity];
+    }
+
+    /**
+     * Obtiene la clave de una posición, ampliada a long.
+     */
+    abstract long keyAt(int slot);
+
+    /**
+     * Reserva los arrays de la subclase para la capacidad actual y reubica en ellos, con placeSlot, las
+     * entradas de las posiciones activas de oldStates, que se refieren a los arrays anteriores.
+     *
+     * @param oldStates estados de las posiciones de la tabla anterior.
+     */
+    abstract void moveSlots(byte[] oldStates);
+
+    /**
+     * Obtiene el tamaño actual de la tabla hash.
+     */
+    final int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Indica si una posición tiene una entrada activa.
+     */
+    final boolean isActive(int slot) {
+        return states[slot] == ACTIVE;
+    }
+
+    /**
+     * Calcula el hash de una clave mezclando sus bits con fmix64.
+     *
+     * @param key clave para la cual calcular el hash.
+     * @param op  operación a la que se atribuye el paso.
+     * @return hash de 64 bits de la clave.
+     */
+    private long hash(long key, Operation op) {
+        incrementTime(op); // Contar como un paso para la operación de hashing
+        return CapacityMode.fmix64(key);
+    }
+
+    /**
+     * Calcula la posición inicial de sondeo para un hash.
+     */
+    private int indexFor(long hash) {
+        return capacityMode.indexFor(hash, capacity);
+    }
+
+    /**
+     * Calcula el paso del doble hash. Nunca es 0 y recorre todas las posiciones de la tabla.
+     */
+    private int stepFor(long hash) {
+        return capacityMode.stepFor(hash, capacity);
+    }
+
+    /**
+     * Avanza una posición de sondeo. Como el paso es menor que el tamaño de la tabla,
+     * basta una resta en lugar de la operación módulo.
+     */
+    private int nextProbe(int index, int step) {
+        index += step;
+        return index >= capacity ? index - capacity : index;
+    }
+
+    /**
+     * Incrementa el contador de pasos (time) de una operación.
+     */
+    private void incrementTime(Operation op) {
+        metrics.step(op);
+    }
+
+    /**
+     * Incrementa el contador de memoria (memory) de una operación.
+     */
+    private void incrementMemory(Operation op) {
+        metrics.memory(op);
+    }
+
+    /**
+     * Busca la posición de una entrada activa con la clave dada.
+     *
+     * @param key clave a buscar.
+     * @param op  operación a la que se atribuyen los contadores.
+     * @return posición de la entrada, o -1 si la clave no está en la tabla.
+     */
+    final int findSlot(long key, Operation op) {
+        long hash = hash(key, op);
+        int probingIndex = indexFor(hash);
+        int stepSize = stepFor(hash);
+
+        for (int i = 0; i < capacity; i++) {
+            incrementMemory(op); // Contar la operación de acceso a la memoria
+            byte state = states[probingIndex];
+            if (state == EMPTY) {
+                return -1; // La clave no está en la tabla
+            }
+            if (state == ACTIVE && keyAt(probingIndex) == key) {
+                return probingIndex;
+            }
+            // Calcular la siguiente ranura usando el doble hash
+            probingIndex = nextProbe(probingIndex, stepSize);
+        }
+        return -1;
+    }
+
+    /**
+     * Obtiene la posición en la que guardar una clave: la de su entrada si ya está en la tabla, o una
+     * posición nueva, que queda activa, si no está. Si se alcanza el factor de carga, realiza antes un
+     * rehashing. La subclase escribe en la posición la clave y el valor.
+     *
+     * @param key La clave a insertar.
+     * @return posición de la clave, o -1 si la tabla está llena.
+     */
+    final int insertSlot(long key) {
+        incrementTime(Operation.PUT); // Contar como un paso
+        // Las entradas borradas ocupan posiciones igual que las activas, así que cuentan para el factor de carga
+        if ((used + 1.0) / capacity > loadFactor) { // Si se alcanza el factor de carga, rehash
+            rehash();
+        }
+        long hash = hash(key, Operation.PUT);
+        int probingIndex = indexFor(hash);
+        int stepSize = stepFor(hash);
+        int firstDeleted = -1; // Primera entrada borrada encontrada, reutilizable para insertar
+
+        for (int i = 0; i < capacity; i++) {
+            incrementMemory(Operation.PUT); // Contar la operación de acceso a la memoria
+            byte state = states[probingIndex];
+            if (state == EMPTY) {
+                break;
+            }
+            if (state == DELETED) {
+                if (firstDeleted == -1) {
+                    firstDeleted = probingIndex;
+                }
+            } else if (keyAt(probingIndex) == key) {
+                return probingIndex;
+            }
+            // Calcular la siguiente ranura usando el doble hash
+            probingIndex = nextProbe(probingIndex, stepSize);
+        }
+
+        if (firstDeleted != -1) {
+            states[firstDeleted] = ACTIVE;
+            size++;
+            return firstDeleted;
+        }
+        if (states[probingIndex] == EMPTY) {
+            states[probingIndex] = ACTIVE;
+            size++;
+            used++;
+            return probingIndex;
+        }
+        return -1;
+    }
+
+    /**
+     * Marca como borrada la entrada de una clave.
+     *
+     * @param key La clave a eliminar.
+     * @return posición de la entrada borrada, o -1 si la clave no se encuentra en la tabla.
+     */
+    final int removeSlot(long key) {
+        int slot = findSlot(key, Operation.REMOVE);
+        if (slot != -1) {
+            states[slot] = DELETED;
+            size--;
+        }
+        return slot;
+    }
+
+    /**
+     * Realiza un rehashing de la tabla hash cuando las posiciones ocupadas exceden el factor de carga.
+     * Si las entradas activas no llegan a la mitad del factor de carga, casi todo son entradas borradas y
+     * basta con eliminarlas reconstruyendo la tabla con la misma capacidad; si no, se duplica la capacidad.
+     */
+    private void rehash() {
+        incrementTime(Operation.REHASH); // Contar como un paso
+        byte[] oldStates = states;
+        if ((size + 1.0) / capacity > loadFactor / 2) {
+            capacity = capacityMode.nextCapacity(capacity, 2);
+        }
+        states = new byte[capacity];
+        used = size;
+        moveSlots(oldStates);
+    }
+
+    /**
+     * Obtiene una posición vacía para reubicar una clave durante el rehashing, cuando la tabla nueva no
+     * tiene entradas borradas, y la marca como activa.
+     *
+     * @param key clave a reubicar.
+     * @return posición de la clave en la tabla nueva.
+     */
+    final int placeSlot(long key) {
+        long hash = CapacityMode.fmix64(key);
+        int probingIndex = indexFor(hash);
+        int stepSize = stepFor(hash);
+        while (states[probingIndex] != EMPTY) {
+            probingIndex = nextProbe(probingIndex, stepSize);
+        }
+        states[probingIndex] = ACTIVE;
+        incrementMemory(Operation.REHASH); // Contar la operación de reubicación en memoria
+        return probingIndex;
+    }
+
+    /**
+     * Obtiene el número de entradas activas de la tabla hash.
+     *
+     * @return El número de entradas.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Obtiene el número total de pasos realizados en las operaciones de la tabla hash.
+     *
+     * @return El número total de pasos.
+     */
+    public long getTime() {
+        return metrics.getTotalSteps();
+    }
+
+    /**
+     * Obtiene el número total de operaciones de memoria realizadas en las operaciones de la tabla hash.
+     *
+     * @return El número total de operaciones de memoria.
+     */
+    public long getMemory() {
+        return metrics.getTotalMemory();
+    }
+
+    /**
+     * Obtiene las métricas de la tabla hash por tipo de operación.
+     *
+     * @return métricas de la tabla.
+     */
+    public TableMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,23 @@
+/**
+ * Modo de redimensionado de HashTable cuando el factor de carga supera el máximo permitido.
+ */
+public enum ResizeMode {
+
+    /**
+     * Todas las entradas se reubican de una vez dentro de la operación que supera el factor de carga.
+     */
+    STOP_THE_WORLD,
+
+    /**
+     * La tabla antigua y la nueva conviven y cada operación posterior migra un número acotado de cubetas,
+     * de modo que la latencia de un put no depende del tamaño de la tabla.
+     */
+    INCREMENTAL,
+
+    /**
+     * Todas las entradas se reubican de una vez, repartiendo rangos de cubetas de la tabla antigua entre
+     * los hilos de un ForkJoinPool. Solo se aplica con capacidades potencia de dos en tablas grandes, donde
+     * cada cubeta antigua va a cubetas nuevas que no recibe ninguna otra; en otro caso equivale a STOP_THE_WORLD.
+     */
+    PARALLEL
+}
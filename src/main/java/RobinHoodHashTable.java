@@ -0,0 +1,349 @@
+import java.io.Serializable;
+
+/**
+ * Tabla hash de direccionamiento abierto con sondeo lineal Robin Hood.
+ * Al insertar, una entrada que está más lejos de su posición inicial desplaza a la que está más cerca,
+ * lo que mantiene acotada la varianza de la longitud de sondeo y permite factores de carga de 0,9 o más.
+ * El borrado desplaza hacia atrás las entradas siguientes (backward shift), por lo que no deja marcas
+ * de borrado. Los datos se guardan en arrays paralelos: claves, valores, hashes y longitudes de sondeo.
+ * Incluye contadores para pasos (time) y memoria (memory) por tipo de operación en {@link TableMetrics}
+ * para monitorear el rendimiento.
+ */
+public class RobinHoodHashTable implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String[] keys; // Claves de cada posición
+    private Object[] values; // Valores de cada posición
+    private long[] hashes; // Hash completo de cada clave
+    private int[] probeLengths; // Distancia a la posición inicial + 1; 0 indica posición vacía
+    private int capacity; // Tamaño actual de la tabla (potencia de dos)
+    private int size; // Número de elementos de la tabla
+    private final double loadFactor; // Factor de carga máximo permitido antes de redimensionar
+    private final HashFunction hashFunction; // Función hash aplicada a las claves
+    private final TableMetrics metrics = new TableMetrics(); // Contadores de pasos y memoria por operación
+
+    /**
+     * Constructor para la tabla hash. Utiliza MurmurHash3 como función hash.
+     *
+     * @param size El tamaño inicial de la tabla hash (se redondea a potencia de dos).
+     * @param loadFactor El factor de carga máximo permitido antes de redimensionar (admite valores de 0,9 o más).
+     */
+    public RobinHoodHashTable(int size, double loadFactor) {
+        this(size, loadFactor, HashFunction.MURMUR3);
+    }
+
+    /**
+     * Constructor para la tabla hash con una función hash dada.
+     *
+     * @param size El tamaño inicial de la tabla hash (se redondea a potencia de dos).
+     * @param loadFactor El factor de carga máximo permitido antes de redimensionar (admite valores de 0,9 o más).
+     * @param hashFunction La función hash aplicada a las claves.
+     */
+    public RobinHoodHashTable(int size, double loadFactor, HashFunction hashFunction) {
+        this.loadFactor = loadFactor;
+        this.hashFunction = hashFunction;
+        allocate(CapacityMode.POWER_OF_TWO.initialCapacity(size));
+    }
+
+    /**
+     * Reserva los arrays de la tabla para una capacidad dada.
+     *
+     * @param newCapacity nueva capacidad (potencia de dos).
+     */
+    private void allocate(int newCapacity) {
+        this.capacity = newCapacity;
+        this.keys = new String[newCapacity];
+        this.values = new Object[newCapacity];
+        this.hashes = new long[newCapacity];
+        this.probeLengths = new int[newCapacity];
+    }
+
+    /**
+     * Calcula el hash completo de una clave utilizando la función hash de la tabla.
+     *
+     * @param key clave para la cual calcular el hash.
+     * @param op  operación a la que se atribuye el paso.
+     * @return hash de 64 bits de la clave.
+     */
+    private long hash(String key, Operation op) {
+        incrementTime(op); // Contar como un paso para la operación de hashing
+        return hashFunction.hash(key);
+    }
+
+    /**
+     * Calcula la posición inicial de un hash.
+     *
+     * @param hash hash completo de la clave.
+     * @return posición inicial en la tabla.
+     */
+    private int indexFor(long hash) {
+        return CapacityMode.POWER_OF_TWO.indexFor(hash, capacity);
+    }
+
+    /**
+     * Incrementa el contador de pasos (time) de una operación.
+     */
+    private void incrementTime(Operation op) {
+        metrics.step(op);
+    }
+
+    /**
+     * Incrementa el contador de memoria (memory) de una operación.
+     */
+    private void incrementMemory(Operation op) {
+        metrics.memory(op);
+    }
+
+    /**
+     * Inserta un par clave-valor en la tabla hash. Si la clave ya existe, actualiza el valor.
+     * Si se alcanza el factor de carga, duplica la tabla antes de insertar.
+     *
+     * @param key La clave a insertar.
+     * @param value El valor asociado a la clave.
+     * @return true siempre que la inserción o actualización es exitosa.
+     */
+    public boolean put(String key, Object value) {
+        incrementTime(Operation.PUT); // Contar como un paso
+        if (size + 1 > capacity * loadFactor || size + 1 >= capacity) {
+            resize();
+        }
+        long hash = hash(key, Operation.PUT);
+        int mask = capacity - 1;
+        int index = indexFor(hash);
+        int probeLength = 1;
+
+        // Buscar la clave: solo puede estar en una posición con la misma distancia a su inicio
+        while (true) {
+            incrementMemory(Operation.PUT); // Contar la operación de acceso a la memoria
+            int current = probeLengths[index];
+            if (current < probeLength) {
+                break; // Por la invariante Robin Hood, la clave no está más adelante
+            }
+            if (current == probeLength && hashes[index] == hash && keys[index].equals(key)) {
+                values[index] = value;
+                return true;
+            }
+            index = (index + 1) & mask;
+            probeLength++;
+        }
+
+        // Insertar a partir de la posición donde ha terminado la búsqueda
+        insert(key, value, hash, index, probeLength, Operation.PUT);
+        size++;
+        return true;
+    }
+
+    /**
+     * Coloca una entrada que no está en la tabla, desplazando a las entradas más cercanas a su inicio.
+     *
+     * @param key         clave a insertar.
+     * @param value       valor asociado.
+     * @param hash        hash completo de la clave.
+     * @param index       posición desde la que empezar a colocar.
+     * @param probeLength distancia de esa posición a la posición inicial de la clave + 1.
+     * @param op          operación a la que se atribuyen los accesos a memoria.
+     */
+    private void insert(String key, Object value, long hash, int index, int probeLength, Operation op) {
+        int mask = capacity - 1;
+        while (true) {
+            incrementMemory(op); // Contar la operación de acceso a la memoria
+            int current = probeLengths[index];
+            if (current == 0) {
+                keys[index] = key;
+                values[index] = value;
+                hashes[index] = hash;
+                probeLengths[index] = probeLength;
+                return;
+            }
+            if (current < probeLength) {
+                // La entrada actual está más cerca de su inicio: se intercambia y se sigue colocando la desplazada
+                String k = keys[index];
+                Object v = values[index];
+                long h = hashes[index];
+                keys[index] = key;
+                values[index] = value;
+                hashes[index] = hash;
+                probeLengths[index] = probeLength;
+                key = k;
+                value = v;
+                hash = h;
+                probeLength = current;
+            }
+            index = (index + 1) & mask;
+            probeLength++;
+        }
+    }
+
+    /**
+     * Busca la posición de la clave dada. La búsqueda termina en cuanto la distancia recorrida
+     * supera la de la entrada encontrada, sin tener que llegar a una posición vacía.
+     *
+     * @param hash hash completo de la clave.
+     * @param key  clave a buscar.
+     * @param op   operación a la que se atribuyen los accesos a memoria.
+     * @return posición de la clave, o -1 si no está en la tabla.
+     */
+    private int findSlot(long hash, String key, Operation op) {
+        int mask = capacity - 1;
+        int index = indexFor(hash);
+        for (int probeLength = 1; ; probeLength++) {
+            incrementMemory(op); // Contar la operación de acceso a la memoria
+            int current = probeLengths[index];
+            if (current < probeLength) {
+                return -1;
+            }
+            if (current == probeLength && hashes[index] == hash && keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave en la tabla hash.
+     *
+     * @param key La clave para la cual se busca el valor.
+     * @return El valor asociado a la clave o null si la clave no está en la tabla.
+     */
+    public Object get(String key) {
+        int slot = findSlot(hash(key, Operation.GET), key, Operation.GET);
+        return slot == -1 ? null : values[slot];
+    }
+
+    /**
+     * Reemplaza el valor de una clave existente en la tabla hash.
+     *
+     * @param kv par clave valor con el nuevo valor.
+     * @return true si el reemplazo fue exitoso, false si la clave no se encuentra en la tabla.
+     */
+    public boolean replace(KeyValue kv) {
+        int slot = findSlot(hash(kv.getKey(), Operation.REPLACE), kv.getKey(), Operation.REPLACE);
+        if (slot == -1) {
+            return false; // La clave no está en la tabla
+        }
+        values[slot] = kv.getValue();
+        return true;
+    }
+
+    /**
+     * Elimina un par clave-valor de la tabla hash desplazando hacia atrás las entradas siguientes
+     * hasta llegar a una posición vacía o a una entrada que ya está en su posición inicial.
+     *
+     * @param key La clave del par clave-valor a eliminar.
+     * @return true si la eliminación fue exitosa, false si la clave no se encuentra en la tabla.
+     */
+    public boolean remove(String key) {
+        int index = findSlot(hash(key, Operation.REMOVE), key, Operation.REMOVE);
+        if (index == -1) {
+            return false; // La clave no está en la tabla
+        }
+        int mask = capacity - 1;
+        int next = (index + 1) & mask;
+        while (probeLengths[next] > 1) {
+            incrementMemory(Operation.REMOVE); // Contar la operación de desplazamiento en memoria
+            keys[index] = keys[next];
+            values[index] = values[next];
+            hashes[index] = hashes[next];
+            probeLengths[index] = probeLengths[next] - 1;
+            index = next;
+            next = (next + 1) & mask;
+        }
+        keys[index] = null;
+        values[index] = null;
+        hashes[index] = 0;
+        probeLengths[index] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Duplica la capacidad de la tabla y recoloca las entradas usando su hash almacenado.
+     */
+    private void resize() {
+        incrementTime(Operation.REHASH); // Contar como un paso
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        long[] oldHashes = hashes;
+        int[] oldProbeLengths = probeLengths;
+        allocate(capacity * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldProbeLengths[i] != 0) {
+                insert(oldKeys[i], oldValues[i], oldHashes[i], indexFor(oldHashes[i]), 1, Operation.REHASH);
+                incrementMemory(Operation.REHASH); // Contar la operación de reubicación en memoria
+            }
+        }
+    }
+
+    /**
+     * Calcula la longitud de sondeo media de las entradas de la tabla.
+     *
+     * @return longitud de sondeo media (1 indica que la entrada está en su posición inicial).
+     */
+    public double getAverageProbeLength() {
+        long total = 0;
+        for (int probeLength : probeLengths) {
+            total += probeLength;
+        }
+        return size == 0 ? 0 : (double) total / size;
+    }
+
+    /**
+     * Calcula la longitud de sondeo máxima de las entradas de la tabla.
+     *
+     * @return longitud de sondeo máxima.
+     */
+    public int getMaxProbeLength() {
+        int max = 0;
+        for (int probeLength : probeLengths) {
+            max = Math.max(max, probeLength);
+        }
+        return max;
+    }
+
+    /**
+     * Imprime todos los pares clave-valor almacenados en la tabla hash.
+     */
+    public void printAll() {
+        for (int i = 0; i < capacity; i++) {
+            if (probeLengths[i] != 0) {
+                System.out.println("Clave: " + keys[i] + ", Valor: " + values[i]);
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de elementos de la tabla hash.
+     *
+     * @return El número de elementos.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Obtiene el número total de pasos realizados en las operaciones de la tabla hash.
+     *
+     * @return El número total de pasos.
+     */
+    public long getTime() {
+        return metrics.getTotalSteps();
+    }
+
+    /**
+     * Obtiene el número total de operaciones de memoria realizadas en las operaciones de la tabla hash.
+     *
+     * @return El número total de operaciones de memoria.
+     */
+    public long getMemory() {
+        return metrics.getTotalMemory();
+    }
+
+    /**
+     * Obtiene las métricas de la tabla hash por tipo de operación.
+     *
+     * @return métricas de la tabla.
+     */
+    public TableMetrics getMetrics() {
+        return metrics;
+    }
+}
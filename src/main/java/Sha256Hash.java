@@ -0,0 +1,31 @@
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Función hash basada en SHA-256. Se conserva como modo opcional: codifica la clave
+ * a UTF-8 y calcula el resumen completo en cada llamada, por lo que es mucho más lenta
+ * que las funciones no criptográficas.
+ */
+public class Sha256Hash implements HashFunction {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public long hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+            long hashLong = 0;
+
+            // Convertir los primeros 8 bytes del resumen a un long
+            for (int i = 0; i < 8; i++) {
+                hashLong <<= 8; // Desplazar 8 bits a la izquierda
+                hashLong |= (hash[i] & 0xFF); // Añadir el siguiente byte del hash
+            }
+            return hashLong;
+        } catch (NoSuchAlgorithmException e) {
+            // Manejar de alguna manera el error en caso de que el algoritmo SHA-256 no esté disponible
+            throw new RuntimeException("SHA-256 no disponible", e);
+        }
+    }
+}
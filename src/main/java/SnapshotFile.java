@@ -0,0 +1,326 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Formato de instantánea de una tabla hash en un único fichero binario, independiente del número de cubetas.
+ * <p>
+ * El fichero empieza con una cabecera de HEADER_BYTES bytes: número mágico, versión, número de pares,
+ * capacidad de la tabla (para reservarla de una vez al cargar) y CRC32 de los campos anteriores. Después
+ * vienen bloques de unos BLOCK_SIZE bytes, cada uno con su longitud, su número de pares, los pares y el CRC32
+ * de la longitud, el número de pares y los pares. Un bloque de longitud 0 marca el final. Cada par se codifica
+ * como la longitud de la clave (entero de longitud variable), la clave en UTF-8, la longitud del valor y los
+ * bytes del valor.
+ * <p>
+ * La escritura va a un fichero temporal que sustituye al definitivo al cerrarse, de modo que una instantánea
+ * anterior nunca queda a medio sobrescribir. Todos los enteros se guardan en orden big-endian.
+ */
+public final class SnapshotFile {
+    private static final int MAGIC = 0x48545331; // "HTS1"
+    private static final int VERSION = 1; // Versión del formato
+    private static final int HEADER_BYTES = 24; // Mágico, versión, pares (long), capacidad y CRC32 de la cabecera
+    private static final int BLOCK_HEADER_BYTES = 8; // Longitud y número de pares del bloque
+    private static final int BLOCK_SIZE = 64 * 1024; // Tamaño a partir del cual se cierra un bloque
+    private static final int READ_BUFFER_SIZE = 1 << 20; // Tamaño del buffer directo de lectura (1 MiB)
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Escritor de una instantánea. Los pares se acumulan en un bloque y cada bloque completo se escribe
+     * en el canal con una sola escritura, junto con su cabecera y su CRC32.
+     */
+    public static final class Writer implements AutoCloseable {
+        private final Path target; // Fichero definitivo
+        private final Path temp; // Fichero temporal en el que se escribe
+        private final FileChannel channel; // Canal del fichero temporal
+        private final long expectedEntries; // Pares anunciados en la cabecera
+        private final ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+        private final ByteBuffer blockCrc = ByteBuffer.allocate(4);
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE + 1024); // Pares del bloque en curso
+        private int blockEntries; // Pares del bloque en curso
+        private long entries; // Pares escritos en total
+        private boolean closed;
+
+        /**
+         * Crea el escritor y escribe la cabecera.
+         *
+         * @param ruta     ruta del fichero de la instantánea.
+         * @param entries  número de pares que se van a escribir.
+         * @param capacity capacidad de la tabla, que se usa al cargarla para reservarla de una vez.
+         * @throws IOException si no se puede crear el fichero.
+         */
+        public Writer(String ruta, long entries, int capacity) throws IOException {
+            this.target = Path.of(ruta);
+            this.temp = Path.of(ruta + ".tmp");
+            this.expectedEntries = entries;
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(entries).putInt(capacity);
+            crc.update(header.array(), 0, HEADER_BYTES - 4);
+            header.putInt((int) crc.getValue()).flip();
+            writeFully(header);
+        }
+
+        /**
+         * Añade un par a la instantánea.
+         *
+         * @param key   clave del par.
+         * @param value bytes del valor.
+         * @throws IOException si falla la escritura de un bloque.
+         */
+        public void write(String key, byte[] value) throws IOException {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            int size = 10 + keyBytes.length + value.length; // Dos enteros de longitud variable de hasta 5 bytes
+            if (block.remaining() < size) {
+                if (block.position() > 0) {
+                    flushBlock();
+                }
+                if (block.capacity() < size) {
+                    block = ByteBuffer.allocate(size); // Par mayor que un bloque: bloque con solo ese par
+                }
+            }
+            putVarInt(block, keyBytes.length);
+            block.put(keyBytes);
+            putVarInt(block, value.length);
+            block.put(value);
+            blockEntries++;
+            entries++;
+            if (block.position() >= BLOCK_SIZE) {
+                flushBlock();
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            block.flip();
+            blockHeader.clear();
+            blockHeader.putInt(block.remaining()).putInt(blockEntries).flip();
+            crc.reset();
+            crc.update(blockHeader.duplicate());
+            crc.update(block.duplicate());
+            blockCrc.clear();
+            blockCrc.putInt((int) crc.getValue()).flip();
+            long total = blockHeader.remaining() + block.remaining() + blockCrc.remaining();
+            ByteBuffer[] frame = {blockHeader, block, blockCrc};
+            for (long written = 0; written < total; ) {
+                written += channel.write(frame);
+            }
+            block.clear();
+            blockEntries = 0;
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        /**
+         * Escribe el último bloque y la marca de final, fuerza los datos a disco y sustituye el fichero
+         * definitivo por el temporal. Si algo falla, borra el temporal y deja intacto el fichero definitivo.
+         *
+         * @throws IOException si falla la escritura, o si el número de pares escritos no coincide con el anunciado.
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                try (channel) {
+                    if (entries != expectedEntries) {
+                        throw new IOException("Se han escrito " + entries + " pares y se anunciaron " + expectedEntries);
+                    }
+                    if (block.position() > 0) {
+                        flushBlock();
+                    }
+                    writeFully(ByteBuffer.allocate(BLOCK_HEADER_BYTES)); // Bloque vacío: final de la instantánea
+                    channel.force(false);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Cabecera de una instantánea.
+     */
+    public static final class Header {
+        private final long entries; // Número de pares
+        private final int capacity; // Capacidad de la tabla al escribirla
+
+        private Header(long entries, int capacity) {
+            this.entries = entries;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Obtiene el número de pares de la instantánea.
+         */
+        public long getEntries() {
+            return entries;
+        }
+
+        /**
+         * Obtiene la capacidad de la tabla cuando se escribió la instantánea.
+         */
+        public int getCapacity() {
+            return capacity;
+        }
+    }
+
+    /**
+     * Lee una instantánea. Comprueba la cabecera y el CRC32 de cada bloque antes de entregar sus pares.
+     * Una longitud de bloque mayor que lo que queda de fichero se rechaza antes de reservar memoria para él.
+     *
+     * @param ruta     ruta del fichero de la instantánea.
+     * @param onHeader recibe la cabecera antes que cualquier par (por ejemplo para reservar la tabla).
+     * @param onEntry  recibe cada par: la clave y los bytes del valor.
+     * @throws IOException si no se puede leer el fichero o si está dañado o incompleto.
+     */
+    public static void read(String ruta, Consumer<Header> onHeader,
+                            BiConsumer<String, byte[]> onEntry) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(ruta), StandardOpenOption.READ)) {
+            ByteBuffer in = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+            in.flip();
+            in = fill(channel, in, HEADER_BYTES);
+            CRC32 crc = new CRC32();
+            ByteBuffer headerFields = in.duplicate().limit(in.position() + HEADER_BYTES - 4);
+            crc.update(headerFields);
+            if (in.getInt() != MAGIC) {
+                throw new IOException(ruta + " no es una instantánea de tabla hash");
+            }
+            int version = in.getInt();
+            long expected = in.getLong();
+            int capacity = in.getInt();
+            if (in.getInt() != (int) crc.getValue()) {
+                throw new IOException("Cabecera dañada en " + ruta);
+            }
+            if (version != VERSION) {
+                throw new IOException("Versión " + version + " no soportada en " + ruta);
+            }
+            onHeader.accept(new Header(expected, capacity));
+            long entries = 0;
+            for (int blockNumber = 0; ; blockNumber++) {
+                in = fill(channel, in, BLOCK_HEADER_BYTES);
+                crc.reset();
+                crc.update(in.duplicate().limit(in.position() + BLOCK_HEADER_BYTES));
+                int length = in.getInt();
+                int count = in.getInt();
+                if (length == 0 && count == 0) {
+                    break;
+                }
+                // Cada par ocupa al menos dos bytes (las dos longitudes), y el bloque y su CRC32 tienen que caber en el fichero
+                long available = in.remaining() + channel.size() - channel.position();
+                if (length <= 0 || length + 4L > available || count < 0 || count > length / 2) {
+                    throw new IOException("Bloque " + blockNumber + " dañado o incompleto en " + ruta);
+                }
+                in = fill(channel, in, length + 4);
+                ByteBuffer payload = in.duplicate().limit(in.position() + length);
+                crc.update(payload.duplicate());
+                in.position(in.position() + length);
+                if (in.getInt() != (int) crc.getValue()) {
+                    throw new IOException("Suma de comprobación incorrecta en el bloque " + blockNumber + " de " + ruta);
+                }
+                for (int i = 0; i < count; i++) {
+                    byte[] key;
+                    byte[] value;
+                    try {
+                        key = getBytes(payload);
+                        value = getBytes(payload);
+                    } catch (BufferUnderflowException e) {
+                        throw new IOException("Par " + i + " del bloque " + blockNumber + " dañado en " + ruta, e);
+                    }
+                    onEntry.accept(new String(key, StandardCharsets.UTF_8), value);
+                }
+                if (payload.hasRemaining()) {
+                    throw new IOException("Sobran bytes tras los pares del bloque " + blockNumber + " en " + ruta);
+                }
+                entries += count;
+            }
+            if (entries != expected) {
+                throw new IOException("Instantánea incompleta: " + entries + " pares de " + expected + " en " + ruta);
+            }
+        }
+    }
+
+    /**
+     * Garantiza que el buffer de lectura tiene al menos un número de bytes por leer, compactándolo y
+     * leyendo del canal (o sustituyéndolo por uno mayor si no caben).
+     *
+     * @return el buffer, que puede ser uno nuevo.
+     * @throws IOException si el fichero termina antes.
+     */
+    private static ByteBuffer fill(FileChannel channel, ByteBuffer in, int needed) throws IOException {
+        if (in.remaining() >= needed) {
+            return in;
+        }
+        if (in.capacity() < needed) {
+            in = ByteBuffer.allocateDirect(needed).put(in);
+        } else {
+            in.compact();
+        }
+        while (in.position() < needed) {
+            if (channel.read(in) < 0) {
+                throw new IOException("Fin de fichero inesperado en la instantánea");
+            }
+        }
+        return in.flip();
+    }
+
+    /**
+     * Lee una longitud (entero de longitud variable) y ese número de bytes.
+     *
+     * @throws BufferUnderflowException si la longitud es negativa o mayor que lo que queda en el buffer.
+     */
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = getVarInt(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Escribe un entero no negativo con codificación de longitud variable: 7 bits por byte,
+     * con el bit alto indicando si siguen más bytes.
+     */
+    static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Lee un entero escrito por {@link #putVarInt(ByteBuffer, int)}.
+     */
+    static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
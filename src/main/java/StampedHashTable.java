@@ -0,0 +1,165 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Envoltorio de HashTable seguro para varios hilos, pensado para cargas con muchas más lecturas
+ * que escrituras. Las búsquedas se hacen con una lectura optimista de StampedLock: no toman ningún
+ * cerrojo y solo se repiten con el cerrojo de lectura si una escritura ha intervenido. put, replace,
+ * remove (y el reHash que pueden provocar) toman el cerrojo de escritura.
+ * <p>
+ * Los lectores no escriben en una línea de caché común: la búsqueda usa HashTable.peek, que no toca los
+ * contadores ni avanza migraciones incrementales, y los pasos de cada lectura se cuentan en un array fijo
+ * de celdas, cada una en su propia línea de caché, elegida por el hash del identificador del hilo. Las celdas
+ * solo se suman al consultarlas. Como el array no crece con el número de hilos, los lectores de vida corta
+ * (por ejemplo un hilo virtual por petición) no dejan nada registrado.
+ */
+public class StampedHashTable {
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int READ_STRIPES = CapacityMode.tableSizeFor(2 * Runtime.getRuntime().availableProcessors()); // Número de celdas (potencia de dos)
+    private static final int CELL_STRIDE = 16; // Longs por celda: 128 bytes, dos líneas de caché, para que las celdas no compartan línea
+
+    private final HashTable table; // Tabla envuelta; solo se modifica con el cerrojo de escritura
+    private final StampedLock lock = new StampedLock();
+    private final long[] readCells = new long[(READ_STRIPES + 1) * CELL_STRIDE]; // Pasos y memoria de las lecturas por celda
+
+    /**
+     * Constructor del envoltorio. A partir de aquí la tabla solo debe usarse a través de él.
+     *
+     * @param table tabla hash a envolver.
+     */
+    public StampedHashTable(HashTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Cuenta una lectura en la celda del hilo actual, salvo con las métricas desactivadas. Dos hilos pueden
+     * compartir celda, así que se suma de forma atómica; lo habitual es que cada celda la escriba un solo hilo.
+     */
+    private void countRead() {
+        if (!TableMetrics.ENABLED) {
+            return;
+        }
+        int stripe = (int) CapacityMode.fmix64(Thread.currentThread().threadId()) & (READ_STRIPES - 1);
+        int cell = (stripe + 1) * CELL_STRIDE; // La primera celda se salta para no compartir línea con la cabecera del array
+        CELLS.getAndAdd(readCells, cell, 1L); // Contar como un paso, igual que HashTable.get
+        CELLS.getAndAdd(readCells, cell + 1, 2L); // Acceso a la cubeta y lectura del par, igual que HashTable.get
+    }
+
+    /**
+     * Suma un campo de todas las celdas de lectura.
+     *
+     * @param field 0 para los pasos, 1 para las operaciones de memoria.
+     */
+    private long sumReadCells(int field) {
+        long total = 0;
+        for (int stripe = 1; stripe <= READ_STRIPES; stripe++) {
+            total += (long) CELLS.getOpaque(readCells, stripe * CELL_STRIDE + field);
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene el par asociado a una clave. Primero lo intenta sin cerrojo; si una escritura ha
+     * intervenido durante la búsqueda (o la ha hecho fallar), la repite con el cerrojo de lectura.
+     *
+     * @param key clave del objeto a obtener.
+     * @return objeto asociado a la clave, o null si la clave no se encuentra en la tabla.
+     */
+    public KeyValue get(String key) {
+        countRead();
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                KeyValue kv = table.peek(key);
+                if (lock.validate(stamp)) {
+                    return kv;
+                }
+            } catch (RuntimeException e) {
+                // Estado inconsistente visto durante una escritura concurrente: repetir con cerrojo
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return table.peek(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Inserta un objeto KeyValue en la tabla hash con el cerrojo de escritura.
+     *
+     * @param kv objeto KeyValue a insertar.
+     * @return verdadero si la inserción fue exitosa, falso si la clave ya existe en la tabla.
+     */
+    public boolean put(KeyValue kv) {
+        long stamp = lock.writeLock();
+        try {
+            return table.put(kv);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Reemplaza un objeto KeyValue existente en la tabla hash con el cerrojo de escritura.
+     *
+     * @param kv objeto KeyValue con el que reemplazar.
+     * @return verdadero si el reemplazo fue exitoso, falso en caso contrario.
+     */
+    public boolean replace(KeyValue kv) {
+        long stamp = lock.writeLock();
+        try {
+            return table.replace(kv);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Elimina el objeto con la clave dada de la tabla hash con el cerrojo de escritura.
+     *
+     * @param key clave del objeto a eliminar.
+     * @return verdadero si la eliminación fue exitosa, falso si la clave no se encuentra en la tabla.
+     */
+    public boolean remove(String key) {
+        long stamp = lock.writeLock();
+        try {
+            return table.remove(key);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Imprime todos los valores almacenados en la tabla hash. Toma el cerrojo de escritura porque
+     * printAll completa una migración incremental en curso.
+     */
+    public void printAll() {
+        long stamp = lock.writeLock();
+        try {
+            table.printAll();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Obtiene los pasos de las escrituras más los de las lecturas de todas las celdas.
+     *
+     * @return El número total de pasos.
+     */
+    public long getTime() {
+        return table.getTime() + sumReadCells(0);
+    }
+
+    /**
+     * Obtiene las operaciones de memoria de las escrituras más las de las lecturas de todas las celdas.
+     *
+     * @return El número total de operaciones de memoria.
+     */
+    public long getMemory() {
+        return table.getMemory() + sumReadCells(1);
+    }
+}
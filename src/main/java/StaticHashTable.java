@@ -1,81 +1,284 @@
 import java.io.Serializable;
-import java.io.UnsupportedEncodingException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 
 /**
  * Esta clase representa una tabla hash estática que almacena pares clave-valor.
- * Incluye contadores para pasos (time) y memoria (memory) para monitorear el rendimiento.
+ * Las entradas se guardan como objetos KeyValue o como arrays paralelos según su {@link StorageLayout}.
+ * Incluye contadores para pasos (time), memoria (memory) y sondeos por tipo de operación en
+ * {@link TableMetrics} para monitorear el rendimiento.
  */
 public class StaticHashTable implements Serializable {
-    private int size; // Número de elementos insertados en la tabla hash
-    private KeyValue[] table; // Array para almacenar los pares clave-valor
+    private int size; // Número de entradas activas en la tabla hash
+    private int deleted; // Número de entradas borradas (lápidas), que siguen alargando los sondeos hasta un rehashing
+    private KeyValue[] table; // Array para almacenar los pares clave-valor (disposición OBJECTS)
+    private long[] hashes; // Hash completo de cada posición (disposición STRUCT_OF_ARRAYS)
+    private String[] keys; // Clave de cada posición (disposición STRUCT_OF_ARRAYS)
+    private Object[] values; // Valor de cada posición (disposición STRUCT_OF_ARRAYS)
+    private byte[] states; // Estado de cada posición: EMPTY, ACTIVE o DELETED (disposición STRUCT_OF_ARRAYS)
     private double loadFactor; // Factor de carga máximo permitido antes de rehashing
+    private double minLoadFactor; // Factor de carga por debajo del cual la tabla se reduce; 0 para no reducirla nunca
+    private final int minSize; // Tamaño inicial, por debajo del cual la tabla no se reduce
     private int TABLE_SIZE; // Tamaño actual de la tabla hash
-    private int time; // Contador de pasos
-    private int memory; // Contador de memoria
+    private final TableMetrics metrics = new TableMetrics(); // Contadores de pasos, memoria y sondeos
+    private final HashFunction hashFunction; // Función hash aplicada a las claves
+    private final CapacityMode capacityMode; // Modo de cálculo de tamaños, índices y pasos de sondeo
+    private final StorageLayout layout; // Disposición en memoria de las entradas
+
+    private static final byte EMPTY = 0; // Posición nunca ocupada
+    private static final byte ACTIVE = 1; // Posición con una entrada activa
+    private static final byte DELETED = 2; // Posición con una entrada borrada
 
     /**
-     * Constructor para la tabla hash.
+     * Constructor para la tabla hash. Utiliza MurmurHash3 como función hash.
      *
      * @param size El tamaño inicial de la tabla hash.
      * @param loadFactor El factor de carga máximo permitido antes de realizar un rehashing.
      */
     public StaticHashTable(int size, double loadFactor) {
-        this.TABLE_SIZE = size;
+        this(size, loadFactor, HashFunction.MURMUR3);
+    }
+
+    /**
+     * Constructor para la tabla hash con una función hash dada.
+     *
+     * @param size El tamaño inicial de la tabla hash.
+     * @param loadFactor El factor de carga máximo permitido antes de realizar un rehashing.
+     * @param hashFunction La función hash aplicada a las claves (por ejemplo {@link HashFunction#SHA256}).
+     */
+    public StaticHashTable(int size, double loadFactor, HashFunction hashFunction) {
+        this(size, loadFactor, hashFunction, CapacityMode.PRIME);
+    }
+
+    /**
+     * Constructor para la tabla hash con una función hash y un modo de capacidad dados.
+     *
+     * @param size El tamaño inicial de la tabla hash (se ajusta según el modo de capacidad).
+     * @param loadFactor El factor de carga máximo permitido antes de realizar un rehashing.
+     * @param hashFunction La función hash aplicada a las claves.
+     * @param capacityMode El modo de capacidad: tamaños primos o potencias de dos.
+     */
+    public StaticHashTable(int size, double loadFactor, HashFunction hashFunction, CapacityMode capacityMode) {
+        this(size, loadFactor, hashFunction, capacityMode, StorageLayout.OBJECTS);
+    }
+
+    /**
+     * Constructor para la tabla hash con una función hash, un modo de capacidad y una disposición dados.
+     *
+     * @param size El tamaño inicial de la tabla hash (se ajusta según el modo de capacidad).
+     * @param loadFactor El factor de carga máximo permitido antes de realizar un rehashing.
+     * @param hashFunction La función hash aplicada a las claves.
+     * @param capacityMode El modo de capacidad: tamaños primos o potencias de dos.
+     * @param layout La disposición en memoria: objetos KeyValue o arrays paralelos.
+     */
+    public StaticHashTable(int size, double loadFactor, HashFunction hashFunction, CapacityMode capacityMode,
+                           StorageLayout layout) {
+        this.TABLE_SIZE = capacityMode.initialCapacity(size);
+        this.minSize = TABLE_SIZE;
         this.loadFactor = loadFactor;
-        table = new KeyValue[TABLE_SIZE];
+        this.hashFunction = hashFunction;
+        this.capacityMode = capacityMode;
+        this.layout = layout;
+        allocate();
         this.size = 0;
-        this.time = 0;
-        this.memory = 0;
+        this.deleted = 0;
+    }
+
+    /**
+     * Establece el factor de carga mínimo. Cuando una eliminación deja la carga por debajo de él, la tabla
+     * se reduce al tamaño con el que su carga queda en la mitad del máximo, sin bajar del tamaño inicial,
+     * y se eliminan las entradas borradas. Por defecto es 0 y la tabla no se reduce nunca.
+     *
+     * @param minLoadFactor El factor de carga mínimo, o 0 para no reducir la tabla.
+     * @throws IllegalArgumentException si es negativo o no es menor que la mitad del factor de carga máximo.
+     */
+    public void setMinLoadFactor(double minLoadFactor) {
+        if (minLoadFactor < 0 || minLoadFactor >= loadFactor / 2) {
+            throw new IllegalArgumentException("El factor de carga mínimo debe estar entre 0 y " + loadFactor / 2);
+        }
+        this.minLoadFactor = minLoadFactor;
+    }
+
+    /**
+     * Reserva el almacenamiento de la tabla para TABLE_SIZE posiciones, según la disposición.
+     */
+    private void allocate() {
+        if (layout == StorageLayout.STRUCT_OF_ARRAYS) {
+            hashes = new long[TABLE_SIZE];
+            keys = new String[TABLE_SIZE];
+            values = new Object[TABLE_SIZE];
+            states = new byte[TABLE_SIZE];
+        } else {
+            table = new KeyValue[TABLE_SIZE];
+        }
+    }
+
+    /**
+     * Obtiene el estado de una posición: EMPTY, ACTIVE o DELETED.
+     */
+    private byte stateAt(int index) {
+        if (layout == StorageLayout.STRUCT_OF_ARRAYS) {
+            return states[index];
+        }
+        KeyValue entry = table[index];
+        return entry == null ? EMPTY : entry.isActive() ? ACTIVE : DELETED;
+    }
+
+    /**
+     * Obtiene el hash almacenado en una posición ocupada.
+     */
+    private long hashAt(int index) {
+        return layout == StorageLayout.STRUCT_OF_ARRAYS ? hashes[index] : table[index].getHash();
+    }
+
+    /**
+     * Obtiene la clave almacenada en una posición ocupada.
+     */
+    private String keyAt(int index) {
+        return layout == StorageLayout.STRUCT_OF_ARRAYS ? keys[index] : table[index].getKey();
+    }
+
+    /**
+     * Obtiene el valor almacenado en una posición ocupada.
+     */
+    private Object valueAt(int index) {
+        return layout == StorageLayout.STRUCT_OF_ARRAYS ? values[index] : table[index].getValue();
+    }
+
+    /**
+     * Cambia el valor almacenado en una posición ocupada.
+     */
+    private void setValueAt(int index, Object value) {
+        if (layout == StorageLayout.STRUCT_OF_ARRAYS) {
+            values[index] = value;
+        } else {
+            table[index].setValue(value);
+        }
     }
 
     /**
-     * Calcula el índice de hash para una clave dada utilizando SHA-256.
+     * Guarda una entrada activa en una posición.
+     */
+    private void store(int index, String key, Object value, long hash) {
+        if (layout == StorageLayout.STRUCT_OF_ARRAYS) {
+            hashes[index] = hash;
+            keys[index] = key;
+            values[index] = value;
+            states[index] = ACTIVE;
+        } else {
+            table[index] = new KeyValue(key, value, hash);
+        }
+    }
+
+    /**
+     * Marca como borrada la entrada de una posición.
+     */
+    private void deleteAt(int index) {
+        if (layout == StorageLayout.STRUCT_OF_ARRAYS) {
+            keys[index] = null; // Liberar la clave y el valor; el hash se conserva hasta reutilizar la posición
+            values[index] = null;
+            states[index] = DELETED;
+        } else {
+            table[index].delete();
+        }
+    }
+
+    /**
+     * Calcula el hash completo de una clave utilizando la función hash de la tabla.
      * Incrementa los contadores de tiempo y memoria para monitorear el rendimiento.
      *
-     * @param key clave para la cual calcular el índice de hash.
-     * @return índice de hash calculado.
-     */
-    private int hash(String key) {
-        incrementTime(); // Contar como un paso para la operación de hashing
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            incrementMemory(); // Contar la obtención del MessageDigest como una operación de memoria
-            byte[] hash = digest.digest(key.getBytes("UTF-8"));
-            incrementMemory(); // Contar la conversión de la clave a bytes como una operación de memoria
-            int hashInt = 0;
-
-            // Convertir los primeros 4 bytes del hash a un entero
-            for (int i = 0; i < 4; i++) {
-                hashInt <<= 8; // Desplazar 8 bits a la izquierda
-                hashInt |= (hash[i] & 0xFF); // Añadir el siguiente byte del hash
-                incrementTime(); // Contar como un paso para cada operación en el bucle
-            }
+     * @param key clave para la cual calcular el hash.
+     * @param op  operación a la que se atribuyen los contadores.
+     * @return hash de 64 bits de la clave.
+     */
+    private long hash(String key, Operation op) {
+        incrementTime(op); // Contar como un paso para la operación de hashing
+        incrementMemory(op); // Contar la lectura de la clave como una operación de memoria
+        return hashFunction.hash(key);
+    }
+
+    /**
+     * Calcula la posición inicial de sondeo para un hash.
+     *
+     * @param hash hash completo de la clave.
+     * @return posición inicial en la tabla.
+     */
+    private int indexFor(long hash) {
+        return capacityMode.indexFor(hash, TABLE_SIZE);
+    }
+
+    /**
+     * Calcula el paso del doble hash. Nunca es 0 y recorre todas las posiciones de la tabla
+     * (paso menor que un tamaño primo, o paso impar sobre una potencia de dos).
+     *
+     * @param hash hash completo de la clave.
+     * @return paso de sondeo.
+     */
+    private int stepFor(long hash) {
+        return capacityMode.stepFor(hash, TABLE_SIZE);
+    }
+
+    /**
+     * Avanza una posición de sondeo. Como el paso es menor que el tamaño de la tabla,
+     * basta una resta en lugar de la operación módulo.
+     *
+     * @param index posición actual.
+     * @param step  paso de sondeo.
+     * @return siguiente posición de sondeo.
+     */
+    private int nextProbe(int index, int step) {
+        index += step;
+        return index >= TABLE_SIZE ? index - TABLE_SIZE : index;
+    }
 
-            incrementMemory(); // Contar el acceso al array hash como una operación de memoria
-            return Math.abs(hashInt % TABLE_SIZE); // Usar el valor absoluto para asegurarnos de que el índice es positivo
-        } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
-            // Manejar de alguna manera el error en caso de que el algoritmo SHA-256 no esté disponible
-            throw new RuntimeException("SHA-256 no disponible", e);
+    /**
+     * Busca la posición de una entrada activa con la clave dada.
+     * Compara primero el hash almacenado y solo compara las claves cuando coinciden.
+     *
+     * @param hash hash completo de la clave.
+     * @param key  clave a buscar.
+     * @param op   operación a la que se atribuyen los contadores.
+     * @return posición de la entrada, o -1 si la clave no está en la tabla.
+     */
+    private int findSlot(long hash, String key, Operation op) {
+        int probingIndex = indexFor(hash);
+        int stepSize = stepFor(hash);
+
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            incrementMemory(op); // Contar la operación de acceso a la memoria
+            byte state = stateAt(probingIndex);
+            if (state == EMPTY) {
+                metrics.probes(op, i + 1);
+                return -1; // La clave no está en la tabla
+            }
+            if (state == ACTIVE && hashAt(probingIndex) == hash && keyAt(probingIndex).equals(key)) {
+                metrics.probes(op, i + 1);
+                return probingIndex;
+            }
+            // Calcular la siguiente ranura usando el doble hash
+            probingIndex = nextProbe(probingIndex, stepSize);
         }
+        metrics.probes(op, TABLE_SIZE);
+        return -1;
     }
 
     /**
-     * Incrementa el contador de pasos (time).
+     * Incrementa el contador de pasos (time) de una operación.
      * Cada llamada a este método representa una operación realizada,
      * ayudando a medir la complejidad en términos de pasos de ejecución.
+     *
+     * @param op operación a la que se atribuye el paso.
      */
-        private void incrementTime() {
-            this.time++;
+        private void incrementTime(Operation op) {
+            metrics.step(op);
         }
     /**
-     * Incrementa el contador de memoria (memory).
+     * Incrementa el contador de memoria (memory) de una operación.
      * Cada llamada a este método representa una operación de acceso a memoria,
      * ayudando a estimar el uso de memoria de la tabla hash.
+     *
+     * @param op operación a la que se atribuye el acceso.
      */
-        private void incrementMemory() {
-            this.memory++;
+        private void incrementMemory(Operation op) {
+            metrics.memory(op);
         }
     /**
      * Inserta un par clave-valor en la tabla hash. Si la clave ya existe, actualiza el valor.
@@ -88,101 +291,169 @@ public class StaticHashTable implements Serializable {
      */
 
     public boolean put(String key, Object value) {
-            incrementTime(); // Contar como un paso
-            int hashedKey = hash(key);
-            int stepSize = hash(key);
-            int probingIndex = hashedKey;
-
-            if ((size + 1.0) / TABLE_SIZE > loadFactor) { // Si se alcanza el factor de carga, rehash
-                rehash();
+        incrementTime(Operation.PUT); // Contar como un paso
+        // Las entradas borradas ocupan posiciones igual que las activas, así que cuentan para el factor de carga
+        if ((size + deleted + 1.0) / TABLE_SIZE > loadFactor) { // Si se alcanza el factor de carga, rehash
+            if ((size + 1.0) / TABLE_SIZE > loadFactor / 2) {
+                rehash(capacityMode.nextCapacity(TABLE_SIZE, 2));
+            } else {
+                rehash(TABLE_SIZE); // Casi todo son entradas borradas: basta con eliminarlas
             }
-            for (int i = 0; i < size; i++) {
-                incrementMemory(); // Contar la operación de acceso a la memoria
-                if (table[probingIndex] == null) {
-                    table[probingIndex] = new KeyValue(key, value);
-                    size++;
-                    return true;
-                }
+        }
+        return insert(key, value, hash(key, Operation.PUT));
+    }
 
-                if (table[probingIndex].getKey().equals(key)) {
-                    table[probingIndex].setValue(value);
-                    return true;
+    /**
+     * Inserta un par clave-valor con su hash ya calculado, sin comprobar el factor de carga.
+     * Si la clave ya existe, actualiza el valor.
+     *
+     * @param key La clave a insertar.
+     * @param value El valor asociado a la clave.
+     * @param hash El hash completo de la clave.
+     * @return true si la inserción fue exitosa, false si la tabla está llena.
+     */
+    private boolean insert(String key, Object value, long hash) {
+        int probingIndex = indexFor(hash);
+        int stepSize = stepFor(hash);
+        int firstDeleted = -1; // Primera entrada borrada encontrada, reutilizable para insertar
+
+        int i = 0;
+        for (; i < TABLE_SIZE; i++) {
+            incrementMemory(Operation.PUT); // Contar la operación de acceso a la memoria
+            byte state = stateAt(probingIndex);
+            if (state == EMPTY) {
+                break;
+            }
+            if (state == DELETED) {
+                if (firstDeleted == -1) {
+                    firstDeleted = probingIndex;
                 }
-
-                // Calcular la siguiente ranura usando el doble hash
-                probingIndex = (probingIndex + stepSize) % TABLE_SIZE;
+            } else if (hashAt(probingIndex) == hash && keyAt(probingIndex).equals(key)) {
+                metrics.probes(Operation.PUT, i + 1);
+                setValueAt(probingIndex, value);
+                return true;
             }
 
-            return false;
+            // Calcular la siguiente ranura usando el doble hash
+            probingIndex = nextProbe(probingIndex, stepSize);
         }
+        metrics.probes(Operation.PUT, Math.min(i + 1, TABLE_SIZE));
+
+        if (firstDeleted != -1) {
+            store(firstDeleted, key, value, hash);
+            deleted--;
+            size++;
+            return true;
+        }
+        if (stateAt(probingIndex) == EMPTY) {
+            store(probingIndex, key, value, hash);
+            size++;
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Realiza un rehashing de la tabla hash cuando el factor de carga excede el máximo permitido.
-     * Crea una nueva tabla con el doble de capacidad y reubica los elementos.
+     * Crea una nueva tabla con la capacidad dada y reubica los elementos activos usando
+     * el hash almacenado en cada entrada, sin volver a calcularlo.
      * Incrementa los contadores de tiempo y memoria para monitorear el rendimiento.
+     *
+     * @param newSize El tamaño de la nueva tabla.
      */
-        private void rehash() {
-            incrementTime(); // Contar como un paso
-            KeyValue[] oldTable = table;
-            TABLE_SIZE = getNextPrime(TABLE_SIZE * 2);
-            table = new KeyValue[TABLE_SIZE];
-            this.size = 0;
+    private void rehash(int newSize) {
+        incrementTime(Operation.REHASH); // Contar como un paso
+        int oldSize = TABLE_SIZE;
+        KeyValue[] oldTable = table;
+        long[] oldHashes = hashes;
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldStates = states;
+        TABLE_SIZE = newSize;
+        allocate();
+        this.size = 0;
+        this.deleted = 0; // Las entradas borradas no se copian
 
-            for (KeyValue kv : oldTable) {
+        for (int i = 0; i < oldSize; i++) {
+            if (layout == StorageLayout.STRUCT_OF_ARRAYS) {
+                if (oldStates[i] == ACTIVE) {
+                    store(emptySlotFor(oldHashes[i]), oldKeys[i], oldValues[i], oldHashes[i]);
+                    size++;
+                    incrementMemory(Operation.REHASH); // Contar la operación de reubicación en memoria
+                }
+            } else {
+                KeyValue kv = oldTable[i];
                 if (kv != null && kv.isActive()) {
-                    put(kv.getKey(), kv.getValue());
-                    incrementMemory(); // Contar la operación de reubicación en memoria
+                    table[emptySlotFor(kv.getHash())] = kv; // Se reutiliza el mismo objeto
+                    size++;
+                    incrementMemory(Operation.REHASH); // Contar la operación de reubicación en memoria
                 }
             }
         }
+    }
+
+    /**
+     * Busca la primera posición vacía de la secuencia de sondeo de un hash. Solo se usa durante el
+     * rehashing, cuando la tabla nueva no tiene entradas borradas.
+     *
+     * @param hash hash completo de la clave.
+     * @return posición vacía.
+     */
+    private int emptySlotFor(long hash) {
+        int probingIndex = indexFor(hash);
+        int stepSize = stepFor(hash);
+        int probes = 1;
+        while (stateAt(probingIndex) != EMPTY) {
+            probingIndex = nextProbe(probingIndex, stepSize);
+            probes++;
+        }
+        metrics.probes(Operation.REHASH, probes);
+        return probingIndex;
+    }
     /**
      * Obtiene el número total de pasos realizados en las operaciones de la tabla hash.
      *
      * @return El número total de pasos.
      */
-        public int getTime() {
-            return time;
+        public long getTime() {
+            return metrics.getTotalSteps();
         }
     /**
      * Obtiene el número total de operaciones de memoria realizadas en las operaciones de la tabla hash.
      *
      * @return El número total de operaciones de memoria.
      */
-        public int getMemory() {
-            return memory;
+        public long getMemory() {
+            return metrics.getTotalMemory();
         }
 
     /**
-     * Obtiene el siguiente número primo después de un número dado, utilizado para calcular la capacidad de la tabla.
+     * Obtiene el número de entradas activas de la tabla hash.
      *
-     * @param num número a partir del cual buscar el siguiente número primo.
-     * @return el siguiente número primo.
+     * @return El número de entradas activas.
      */
-    private int getNextPrime(int num) {
-        while (true) {
-            if (!isPrime(num)) {
-                num++;
-            } else {
-                return num;
-            }
-        }
+    public int getSize() {
+        return size;
     }
+
     /**
-     * Comprueba si un número es primo.
+     * Obtiene el número de posiciones de la tabla hash.
      *
-     * @param num número a comprobar.
-     * @return verdadero si el número es primo, falso en caso contrario.
+     * @return El tamaño actual de la tabla.
      */
-    private boolean isPrime(int num) {
-        if ((num % 2) == 0) {
-            return false;
-        }
-        for (int i = 3; i <= Math.sqrt(num); i += 2) {
-            if ((num % i) == 0) {
-                return false;
-            }
-        }
-        return true;
+    public int getCapacity() {
+        return TABLE_SIZE;
     }
+
+    /**
+     * Obtiene las métricas de la tabla hash, desglosadas por tipo de operación.
+     *
+     * @return Las métricas de la tabla.
+     */
+    public TableMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Reemplaza un par clave-valor existente en la tabla hash con otro valor dado.
      *
@@ -190,25 +461,12 @@ public class StaticHashTable implements Serializable {
      * @return true si el reemplazo fue exitoso, false si la clave no se encuentra en la tabla.
      */
     public boolean replace(KeyValue kv) {
-        int hashedKey = hash(kv.getKey());
-        int stepSize = hash(kv.getKey());
-        int probingIndex = hashedKey;
-
-        for (int i = 0; i < size; i++) {
-            if (table[probingIndex] == null) {
-                return false; // La clave no está en la tabla
-            }
-
-            if (table[probingIndex].getKey().equals(kv.getKey())) {
-                table[probingIndex].setValue(kv.getValue());
-                return true;
-            }
-
-            // Calcular la siguiente ranura usando el doble hash
-            probingIndex = (probingIndex + stepSize) % size;
+        int slot = findSlot(hash(kv.getKey(), Operation.REPLACE), kv.getKey(), Operation.REPLACE);
+        if (slot == -1) {
+            return false; // La clave no está en la tabla
         }
-
-        return false; // La clave no está en la tabla
+        setValueAt(slot, kv.getValue());
+        return true;
     }
     /**
      * Elimina un par clave-valor de la tabla hash.
@@ -217,27 +475,51 @@ public class StaticHashTable implements Serializable {
      * @return true si la eliminación fue exitosa, false si la clave no se encuentra en la tabla.
      */
     public boolean remove(String key) {
-        int hashedKey = hash(key);
-        int stepSize = hash(key);
-        int probingIndex = hashedKey;
-
-        for (int i = 0; i < size; i++) {
-            KeyValue entry = table[probingIndex];
-
-            if (entry == null) {
-                return false; // La clave no está en la tabla
-            }
+        int slot = findSlot(hash(key, Operation.REMOVE), key, Operation.REMOVE);
+        if (slot == -1) {
+            return false; // La clave no está en la tabla
+        }
+        deleteAt(slot);
+        size--;
+        deleted++;
+        shrinkIfNeeded();
+        return true;
+    }
 
-            if (entry.isActive() && entry.getKey().equals(key)) {
-                entry.delete();
-                return true;
-            }
+    /**
+     * Reduce la tabla si su carga ha bajado del factor de carga mínimo. El tamaño nuevo deja la carga
+     * en la mitad del máximo, de modo que ni una inserción ni una eliminación la vuelven a redimensionar enseguida.
+     */
+    private void shrinkIfNeeded() {
+        if (size < TABLE_SIZE * minLoadFactor && TABLE_SIZE > minSize) {
+            rehashTo(Math.ceil(size * 2 / loadFactor));
+        }
+    }
 
-            // Calcular la siguiente ranura usando el doble hash
-            probingIndex = (probingIndex + stepSize) % size;
+    /**
+     * Compacta la tabla: la reconstruye sin entradas borradas y con el menor tamaño (no inferior al inicial)
+     * en el que sus entradas caben sin superar el factor de carga máximo. Libera memoria tras eliminaciones
+     * masivas y devuelve los sondeos a su longitud sin entradas borradas.
+     */
+    public void compact() {
+        int oldSize = TABLE_SIZE;
+        rehashTo(Math.ceil(size / loadFactor));
+        if (TABLE_SIZE == oldSize && deleted > 0) {
+            rehash(TABLE_SIZE); // Mismo tamaño: solo eliminar las entradas borradas
         }
+    }
 
-        return false; // La clave no está en la tabla
+    /**
+     * Reconstruye la tabla con el tamaño que corresponde a un número de posiciones deseado, sin bajar del
+     * tamaño inicial, si es distinto del actual.
+     *
+     * @param wanted El número de posiciones deseado.
+     */
+    private void rehashTo(double wanted) {
+        int newSize = capacityMode.initialCapacity((int) Math.min(Math.max(wanted, minSize), Integer.MAX_VALUE));
+        if (newSize != TABLE_SIZE) {
+            rehash(newSize);
+        }
     }
 
     /**
@@ -247,37 +529,106 @@ public class StaticHashTable implements Serializable {
      * @return El valor asociado a la clave o null si la clave no está en la tabla.
      */
     public Object get(String key) {
-        int hashedKey = hash(key);
-        int stepSize = hash(key);
-        int probingIndex = hashedKey;
-
-        for (int i = 0; i < size; i++) {
-            if (table[probingIndex] == null) {
-                return null; // La clave no está en la tabla
-            }
+        int slot = findSlot(hash(key, Operation.GET), key, Operation.GET);
+        return slot == -1 ? null : valueAt(slot);
+    }
 
-            if (table[probingIndex].getKey().equals(key)) {
-                return table[probingIndex].getValue();
-            }
+    /**
+     * Inserta un lote de pares clave-valor. Calcula primero todos los hashes, aumenta la capacidad
+     * una sola vez para el número final de elementos y después inserta los pares en el orden de su
+     * posición inicial de sondeo, de modo que la tabla se recorre de forma secuencial.
+     *
+     * @param keys Las claves a insertar.
+     * @param values Los valores asociados a cada clave.
+     * @return Para cada par, true si la inserción fue exitosa, false si la tabla está llena.
+     * @throws IllegalArgumentException si el número de claves y de valores no coincide.
+     */
+    public boolean[] putAll(String[] keys, Object[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Hay " + keys.length + " claves y " + values.length + " valores");
+        }
+        long[] hashes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = hash(keys[i], Operation.PUT);
+        }
+        double needed = Math.ceil((size + keys.length) / loadFactor);
+        if (needed > TABLE_SIZE || size + deleted + keys.length > TABLE_SIZE * loadFactor) {
+            // Un solo rehashing, que además elimina las entradas borradas
+            rehash(capacityMode.initialCapacity((int) Math.min(Math.max(needed, TABLE_SIZE), Integer.MAX_VALUE)));
+        }
+        boolean[] results = new boolean[keys.length];
+        for (int i : probeOrder(hashes)) {
+            incrementTime(Operation.PUT); // Contar como un paso
+            results[i] = insert(keys[i], values[i], hashes[i]);
+        }
+        return results;
+    }
 
-            // Calcular la siguiente ranura usando el doble hash
-            probingIndex = (probingIndex + stepSize) % size;
+    /**
+     * Obtiene los valores de un lote de claves, recorriendo la tabla en el orden de su posición inicial de sondeo.
+     *
+     * @param keys Las claves para las cuales se buscan los valores.
+     * @return Para cada clave, su valor o null si la clave no está en la tabla.
+     */
+    public Object[] getAll(String[] keys) {
+        long[] hashes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = hash(keys[i], Operation.GET);
+        }
+        Object[] results = new Object[keys.length];
+        for (int i : probeOrder(hashes)) {
+            int slot = findSlot(hashes[i], keys[i], Operation.GET);
+            results[i] = slot == -1 ? null : valueAt(slot);
         }
+        return results;
+    }
 
-        return null; // La clave no está en la tabla
+    /**
+     * Elimina un lote de claves, recorriendo la tabla en el orden de su posición inicial de sondeo.
+     *
+     * @param keys Las claves de los pares a eliminar.
+     * @return Para cada clave, true si la eliminación fue exitosa, false si la clave no se encuentra en la tabla.
+     */
+    public boolean[] removeAll(String[] keys) {
+        long[] hashes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = hash(keys[i], Operation.REMOVE);
+        }
+        boolean[] results = new boolean[keys.length];
+        for (int i : probeOrder(hashes)) {
+            int slot = findSlot(hashes[i], keys[i], Operation.REMOVE);
+            if (slot != -1) {
+                deleteAt(slot);
+                size--;
+                deleted++;
+                results[i] = true;
+            }
+        }
+        shrinkIfNeeded();
+        return results;
     }
 
     /**
-     * Imprime todos los pares clave-valor almacenados en la tabla hash.
+     * Calcula la posición inicial de sondeo de cada hash de un lote y el orden en que procesarlo.
+     *
+     * @param hashes El hash completo de cada elemento del lote.
+     * @return Los índices del lote ordenados por posición inicial de sondeo.
      */
+    private int[] probeOrder(long[] hashes) {
+        int[] positions = new int[hashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            positions[i] = indexFor(hashes[i]);
+        }
+        return BucketOrder.sort(positions, TABLE_SIZE);
+    }
+
     /**
      * Imprime todos los pares clave-valor almacenados en la tabla hash que están activos.
      */
     public void printAll() {
-        for (int i = 0; i < size; i++) {
-            if (table[i] != null && table[i].isActive()) { // Verificar si la entrada no es nula y está activa
-                KeyValue kv = table[i];
-                System.out.println("Clave: " + kv.getKey() + ", Valor: " + kv.getValue());
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            if (stateAt(i) == ACTIVE) { // Verificar si la entrada no es nula y está activa
+                System.out.println("Clave: " + keyAt(i) + ", Valor: " + valueAt(i));
             }
         }
     }
@@ -291,6 +642,7 @@ public class StaticHashTable implements Serializable {
         private String key;
         private Object value;
         private EntryState state;
+        private long hash; // Hash completo de la clave, calculado al insertar
 
         public KeyValue(String key, Object value) {
             this.key = key;
@@ -298,6 +650,11 @@ public class StaticHashTable implements Serializable {
             this.state = EntryState.ACTIVE;
         }
 
+        public KeyValue(String key, Object value, long hash) {
+            this(key, value);
+            this.hash = hash;
+        }
+
         public String getKey() {
             return key;
         }
@@ -314,6 +671,10 @@ public class StaticHashTable implements Serializable {
             this.value = value;
         }
 
+        public long getHash() {
+            return hash;
+        }
+
         public EntryState getState() {
             return state;
         }
@@ -0,0 +1,18 @@
+/**
+ * Disposición en memoria de las entradas de StaticHashTable.
+ */
+public enum StorageLayout {
+
+    /**
+     * Un objeto StaticHashTable.KeyValue por posición ocupada, con su clave, valor, hash y estado.
+     * Cada paso de sondeo sigue una referencia hasta el objeto de la posición.
+     */
+    OBJECTS,
+
+    /**
+     * Arrays paralelos de hashes, claves, valores y estados (estructura de arrays). El sondeo compara
+     * estados y hashes primitivos contiguos en memoria y solo lee la clave cuando el hash coincide,
+     * y cada entrada se ahorra la cabecera de un objeto y la referencia a su estado.
+     */
+    STRUCT_OF_ARRAYS
+}
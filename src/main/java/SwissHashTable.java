@@ -0,0 +1,356 @@
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Tabla hash de direccionamiento abierto al estilo de las "Swiss tables".
+ * Junto a los arrays de claves, valores y hashes mantiene un array de bytes de control: cada posición
+ * guarda 7 bits del hash (h2) si está ocupada, o una marca de vacía o borrada. Las posiciones se agrupan
+ * de 8 en 8 y cada grupo se lee como un único long, de modo que una sola comparación SWAR (SIMD dentro
+ * de un registro) indica qué posiciones del grupo pueden contener la clave. Casi todos los aciertos y
+ * fallos se resuelven sin tocar las claves de las posiciones que no coinciden.
+ * Incluye contadores para pasos (time) y memoria (memory) por tipo de operación en {@link TableMetrics}
+ * para monitorear el rendimiento.
+ */
+public class SwissHashTable implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int GROUP_WIDTH = 8; // Posiciones por grupo (bytes de un long)
+    private static final byte EMPTY = (byte) 0x80; // Posición vacía: 1000 0000
+    private static final byte DELETED = (byte) 0xFE; // Posición borrada: 1111 1110
+    private static final long LSB = 0x0101010101010101L; // Bit bajo de cada byte
+    private static final long MSB = 0x8080808080808080L; // Bit alto de cada byte
+    private static final VarHandle GROUP = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private byte[] ctrl; // Bytes de control de cada posición
+    private String[] keys; // Claves de cada posición
+    private Object[] values; // Valores de cada posición
+    private long[] hashes; // Hash completo de cada clave
+    private int capacity; // Número de posiciones (potencia de dos, múltiplo de GROUP_WIDTH)
+    private int size; // Número de elementos de la tabla
+    private int growthLeft; // Posiciones vacías que aún se pueden ocupar antes de redimensionar
+    private final double loadFactor; // Factor de carga máximo permitido antes de redimensionar
+    private final HashFunction hashFunction; // Función hash aplicada a las claves
+    private final TableMetrics metrics = new TableMetrics(); // Contadores de pasos y memoria por operación
+
+    /**
+     * Constructor para la tabla hash. Utiliza MurmurHash3 como función hash.
+     *
+     * @param size El tamaño inicial de la tabla hash (se redondea a potencia de dos, mínimo un grupo).
+     * @param loadFactor El factor de carga máximo permitido antes de redimensionar (por ejemplo 0,875).
+     */
+    public SwissHashTable(int size, double loadFactor) {
+        this(size, loadFactor, HashFunction.MURMUR3);
+    }
+
+    /**
+     * Constructor para la tabla hash con una función hash dada.
+     *
+     * @param size El tamaño inicial de la tabla hash (se redondea a potencia de dos, mínimo un grupo).
+     * @param loadFactor El factor de carga máximo permitido antes de redimensionar (por ejemplo 0,875).
+     * @param hashFunction La función hash aplicada a las claves.
+     */
+    public SwissHashTable(int size, double loadFactor, HashFunction hashFunction) {
+        this.loadFactor = loadFactor;
+        this.hashFunction = hashFunction;
+        allocate(CapacityMode.POWER_OF_TWO.initialCapacity(Math.max(size, GROUP_WIDTH)));
+    }
+
+    /**
+     * Reserva los arrays de la tabla para una capacidad dada y marca todas las posiciones como vacías.
+     *
+     * @param newCapacity nueva capacidad (potencia de dos, múltiplo de GROUP_WIDTH).
+     */
+    private void allocate(int newCapacity) {
+        this.capacity = newCapacity;
+        this.ctrl = new byte[newCapacity];
+        Arrays.fill(ctrl, EMPTY);
+        this.keys = new String[newCapacity];
+        this.values = new Object[newCapacity];
+        this.hashes = new long[newCapacity];
+        this.growthLeft = Math.min((int) (newCapacity * loadFactor), newCapacity - 1);
+    }
+
+    /**
+     * Calcula el hash completo de una clave utilizando la función hash de la tabla.
+     * El resultado se mezcla con fmix64 para que tanto h1 como h2 dependan de todos sus bits.
+     *
+     * @param key clave para la cual calcular el hash.
+     * @param op  operación a la que se atribuye el paso.
+     * @return hash de 64 bits de la clave.
+     */
+    private long hash(String key, Operation op) {
+        incrementTime(op); // Contar como un paso para la operación de hashing
+        return CapacityMode.fmix64(hashFunction.hash(key));
+    }
+
+    /**
+     * Obtiene los 7 bits del hash que se guardan en el byte de control.
+     */
+    private static byte h2(long hash) {
+        return (byte) (hash & 0x7F);
+    }
+
+    /**
+     * Obtiene el primer grupo de la secuencia de sondeo de un hash.
+     */
+    private int firstGroup(long hash) {
+        return (int) (hash >>> 7) & (capacity / GROUP_WIDTH - 1);
+    }
+
+    /**
+     * Lee los 8 bytes de control de un grupo como un long.
+     */
+    private long groupWord(int group, Operation op) {
+        incrementMemory(op); // Contar la lectura del grupo como una operación de memoria
+        return (long) GROUP.get(ctrl, group * GROUP_WIDTH);
+    }
+
+    /**
+     * Obtiene una máscara con el bit alto de cada byte cuyo valor es h2. Puede dar algún falso
+     * positivo por el acarreo de la resta, que se descarta al comparar el hash completo.
+     */
+    private static long match(long word, byte h2) {
+        long x = word ^ (LSB * (h2 & 0xFF));
+        return (x - LSB) & ~x & MSB;
+    }
+
+    /**
+     * Obtiene una máscara con el bit alto de cada byte vacío (0x80). Los borrados (0xFE) tienen el bit 1 a 1.
+     */
+    private static long matchEmpty(long word) {
+        return word & ~(word << 6) & MSB;
+    }
+
+    /**
+     * Obtiene una máscara con el bit alto de cada byte vacío o borrado.
+     */
+    private static long matchEmptyOrDeleted(long word) {
+        return word & MSB;
+    }
+
+    /**
+     * Obtiene la posición dentro del grupo del byte marcado por el bit más bajo de una máscara.
+     */
+    private static int lowestByte(long mask) {
+        return Long.numberOfTrailingZeros(mask) >>> 3;
+    }
+
+    /**
+     * Incrementa el contador de pasos (time) de una operación.
+     */
+    private void incrementTime(Operation op) {
+        metrics.step(op);
+    }
+
+    /**
+     * Incrementa el contador de memoria (memory) de una operación.
+     */
+    private void incrementMemory(Operation op) {
+        metrics.memory(op);
+    }
+
+    /**
+     * Busca la posición de la clave dada recorriendo los grupos en sondeo triangular.
+     * La búsqueda termina en el primer grupo que tiene alguna posición vacía.
+     *
+     * @param hash hash completo (mezclado) de la clave.
+     * @param key  clave a buscar.
+     * @param op   operación a la que se atribuyen las lecturas de grupos.
+     * @return posición de la clave, o -1 si no está en la tabla.
+     */
+    private int findSlot(long hash, String key, Operation op) {
+        int groupMask = capacity / GROUP_WIDTH - 1;
+        int group = firstGroup(hash);
+        byte h2 = h2(hash);
+        for (int step = 1; ; step++) {
+            long word = groupWord(group, op);
+            for (long m = match(word, h2); m != 0; m &= m - 1) {
+                int slot = group * GROUP_WIDTH + lowestByte(m);
+                // Un falso positivo de match puede caer en una posición libre, cuya clave es null
+                if (hashes[slot] == hash && key.equals(keys[slot])) {
+                    return slot;
+                }
+            }
+            if (matchEmpty(word) != 0 || step > groupMask) {
+                return -1;
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /**
+     * Busca la primera posición vacía o borrada de la secuencia de sondeo de un hash.
+     *
+     * @param hash hash completo (mezclado) de la clave.
+     * @param op   operación a la que se atribuyen las lecturas de grupos.
+     * @return posición libre.
+     */
+    private int findFreeSlot(long hash, Operation op) {
+        int groupMask = capacity / GROUP_WIDTH - 1;
+        int group = firstGroup(hash);
+        for (int step = 1; ; step++) {
+            long free = matchEmptyOrDeleted(groupWord(group, op));
+            if (free != 0) {
+                return group * GROUP_WIDTH + lowestByte(free);
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /**
+     * Inserta un par clave-valor en la tabla hash. Si la clave ya existe, actualiza el valor.
+     *
+     * @param key La clave a insertar.
+     * @param value El valor asociado a la clave.
+     * @return true siempre que la inserción o actualización es exitosa.
+     */
+    public boolean put(String key, Object value) {
+        incrementTime(Operation.PUT); // Contar como un paso
+        long hash = hash(key, Operation.PUT);
+        int slot = findSlot(hash, key, Operation.PUT);
+        if (slot != -1) {
+            values[slot] = value;
+            return true;
+        }
+        slot = findFreeSlot(hash, Operation.PUT);
+        if (growthLeft == 0 && ctrl[slot] == EMPTY) {
+            resize();
+            slot = findFreeSlot(hash, Operation.PUT);
+        }
+        if (ctrl[slot] == EMPTY) {
+            growthLeft--;
+        }
+        ctrl[slot] = h2(hash);
+        keys[slot] = key;
+        values[slot] = value;
+        hashes[slot] = hash;
+        size++;
+        return true;
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave en la tabla hash.
+     *
+     * @param key La clave para la cual se busca el valor.
+     * @return El valor asociado a la clave o null si la clave no está en la tabla.
+     */
+    public Object get(String key) {
+        int slot = findSlot(hash(key, Operation.GET), key, Operation.GET);
+        return slot == -1 ? null : values[slot];
+    }
+
+    /**
+     * Reemplaza el valor de una clave existente en la tabla hash.
+     *
+     * @param kv par clave valor con el nuevo valor.
+     * @return true si el reemplazo fue exitoso, false si la clave no se encuentra en la tabla.
+     */
+    public boolean replace(KeyValue kv) {
+        int slot = findSlot(hash(kv.getKey(), Operation.REPLACE), kv.getKey(), Operation.REPLACE);
+        if (slot == -1) {
+            return false; // La clave no está en la tabla
+        }
+        values[slot] = kv.getValue();
+        return true;
+    }
+
+    /**
+     * Elimina un par clave-valor de la tabla hash. Si el grupo de la posición tiene alguna posición vacía,
+     * ninguna búsqueda pasa de ese grupo y la posición se marca directamente como vacía; si no, se marca
+     * como borrada para no cortar las secuencias de sondeo que la atraviesan.
+     *
+     * @param key La clave del par clave-valor a eliminar.
+     * @return true si la eliminación fue exitosa, false si la clave no se encuentra en la tabla.
+     */
+    public boolean remove(String key) {
+        int slot = findSlot(hash(key, Operation.REMOVE), key, Operation.REMOVE);
+        if (slot == -1) {
+            return false; // La clave no está en la tabla
+        }
+        if (matchEmpty(groupWord(slot / GROUP_WIDTH, Operation.REMOVE)) != 0) {
+            ctrl[slot] = EMPTY;
+            growthLeft++;
+        } else {
+            ctrl[slot] = DELETED;
+        }
+        keys[slot] = null;
+        values[slot] = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * Redimensiona la tabla y recoloca las entradas usando su hash almacenado. Si la mayor parte de
+     * las posiciones ocupadas son marcas de borrado, mantiene la capacidad y solo las elimina.
+     */
+    private void resize() {
+        incrementTime(Operation.REHASH); // Contar como un paso
+        byte[] oldCtrl = ctrl;
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        long[] oldHashes = hashes;
+        int newCapacity = size < capacity * loadFactor / 2 ? capacity : capacity * 2;
+        allocate(newCapacity);
+        for (int i = 0; i < oldCtrl.length; i++) {
+            if (oldCtrl[i] >= 0) { // Posición ocupada: el bit alto del byte de control es 0
+                int slot = findFreeSlot(oldHashes[i], Operation.REHASH);
+                ctrl[slot] = h2(oldHashes[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                hashes[slot] = oldHashes[i];
+                growthLeft--;
+                incrementMemory(Operation.REHASH); // Contar la operación de reubicación en memoria
+            }
+        }
+    }
+
+    /**
+     * Imprime todos los pares clave-valor almacenados en la tabla hash.
+     */
+    public void printAll() {
+        for (int i = 0; i < capacity; i++) {
+            if (ctrl[i] >= 0) {
+                System.out.println("Clave: " + keys[i] + ", Valor: " + values[i]);
+            }
+        }
+    }
+
+    /**
+     * Obtiene el número de elementos de la tabla hash.
+     *
+     * @return El número de elementos.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Obtiene el número total de pasos realizados en las operaciones de la tabla hash.
+     *
+     * @return El número total de pasos.
+     */
+    public long getTime() {
+        return metrics.getTotalSteps();
+    }
+
+    /**
+     * Obtiene el número total de operaciones de memoria realizadas en las operaciones de la tabla hash.
+     *
+     * @return El número total de operaciones de memoria.
+     */
+    public long getMemory() {
+        return metrics.getTotalMemory();
+    }
+
+    /**
+     * Obtiene las métricas de la tabla hash por tipo de operación.
+     *
+     * @return métricas de la tabla.
+     */
+    public TableMetrics getMetrics() {
+        return metrics;
+    }
+}
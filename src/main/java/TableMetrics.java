@@ -0,0 +1,172 @@
+import java.io.Serializable;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Métricas de rendimiento de una tabla hash, separadas por tipo de operación: pasos (time),
+ * operaciones de memoria, sondeos (posiciones examinadas en direccionamiento abierto) y longitud de
+ * las cadenas recorridas (tablas encadenadas). Los contadores son LongAdder, así que no se desbordan
+ * a partir de 2^31 y varios hilos pueden incrementarlos sin escribir en la misma línea de caché.
+ * <p>
+ * Con la propiedad del sistema {@code hashtable.metrics=off} las métricas se desactivan: ENABLED es
+ * una constante static final, el compilador JIT elimina las ramas que dependen de ella y el recuento
+ * desaparece del camino crítico. En ese modo todos los contadores valen 0.
+ */
+public final class TableMetrics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Indica si las métricas están activas. Se fija al cargar la clase y no cambia después.
+     */
+    public static final boolean ENABLED = !"off".equalsIgnoreCase(System.getProperty("hashtable.metrics"));
+
+    private final Counters[] counters = new Counters[Operation.values().length]; // Contadores indexados por ordinal
+
+    /**
+     * Crea las métricas de una tabla, con todos los contadores a 0.
+     */
+    public TableMetrics() {
+        for (Operation op : Operation.values()) {
+            counters[op.ordinal()] = new Counters();
+        }
+    }
+
+    /**
+     * Cuenta un paso de una operación.
+     */
+    public void step(Operation op) {
+        if (ENABLED) {
+            counters[op.ordinal()].steps.increment();
+        }
+    }
+
+    /**
+     * Cuenta una operación de memoria de una operación.
+     */
+    public void memory(Operation op) {
+        if (ENABLED) {
+            counters[op.ordinal()].memory.increment();
+        }
+    }
+
+    /**
+     * Registra las posiciones examinadas por una búsqueda en direccionamiento abierto.
+     *
+     * @param op     operación.
+     * @param probes número de posiciones examinadas.
+     */
+    public void probes(Operation op, int probes) {
+        if (ENABLED) {
+            Counters c = counters[op.ordinal()];
+            c.probes.add(probes);
+            c.probed.increment();
+        }
+    }
+
+    /**
+     * Registra la longitud de la cadena recorrida por una operación en una tabla encadenada.
+     *
+     * @param op     operación.
+     * @param length número de pares de la cubeta.
+     */
+    public void chainLength(Operation op, int length) {
+        if (ENABLED) {
+            Counters c = counters[op.ordinal()];
+            c.chainLengths.add(length);
+            c.chains.increment();
+            c.maxChainLength.accumulate(length);
+        }
+    }
+
+    /**
+     * Obtiene los pasos de una operación.
+     */
+    public long getSteps(Operation op) {
+        return counters[op.ordinal()].steps.sum();
+    }
+
+    /**
+     * Obtiene las operaciones de memoria de una operación.
+     */
+    public long getMemory(Operation op) {
+        return counters[op.ordinal()].memory.sum();
+    }
+
+    /**
+     * Obtiene el número medio de posiciones examinadas por búsqueda en una operación.
+     */
+    public double getAverageProbes(Operation op) {
+        Counters c = counters[op.ordinal()];
+        long n = c.probed.sum();
+        return n == 0 ? 0 : (double) c.probes.sum() / n;
+    }
+
+    /**
+     * Obtiene la longitud media de las cadenas recorridas en una operación.
+     */
+    public double getAverageChainLength(Operation op) {
+        Counters c = counters[op.ordinal()];
+        long n = c.chains.sum();
+        return n == 0 ? 0 : (double) c.chainLengths.sum() / n;
+    }
+
+    /**
+     * Obtiene la longitud máxima de las cadenas recorridas en una operación.
+     */
+    public long getMaxChainLength(Operation op) {
+        return counters[op.ordinal()].maxChainLength.get();
+    }
+
+    /**
+     * Obtiene los pasos de todas las operaciones.
+     */
+    public long getTotalSteps() {
+        long total = 0;
+        for (Counters c : counters) {
+            total += c.steps.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene las operaciones de memoria de todas las operaciones.
+     */
+    public long getTotalMemory() {
+        long total = 0;
+        for (Counters c : counters) {
+            total += c.memory.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Genera un informe con una línea por tipo de operación.
+     *
+     * @return informe de texto.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Operation op : Operation.values()) {
+            sb.append(String.format("%-8s pasos %d, memoria %d, sondeos medios %.2f, cadena media %.2f, cadena máxima %d%n",
+                    op, getSteps(op), getMemory(op), getAverageProbes(op), getAverageChainLength(op),
+                    getMaxChainLength(op)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Contadores de un tipo de operación.
+     */
+    private static final class Counters implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final LongAdder steps = new LongAdder(); // Pasos
+        private final LongAdder memory = new LongAdder(); // Operaciones de memoria
+        private final LongAdder probes = new LongAdder(); // Posiciones examinadas en total
+        private final LongAdder probed = new LongAdder(); // Búsquedas con sondeos registrados
+        private final LongAdder chainLengths = new LongAdder(); // Suma de las longitudes de cadena
+        private final LongAdder chains = new LongAdder(); // Cadenas registradas
+        private final LongAccumulator maxChainLength = new LongAccumulator((LongBinaryOperator & Serializable) Math::max, 0); // Cadena más larga
+    }
+}
@@ -545,10 +545,10 @@ public class Tester {
      */
     private static void makeGraph(int hashTableSize, ListaDinamica timeStepsDynamic, ListaDinamica memoryStepsDynamic, ListaDinamica timeStepsStatic, ListaDinamica memoryStepsStatic, DefaultCategoryDataset dataset) {
         for (int i = 0; i < hashTableSize; i++) {
-            dataset.addValue((Integer) (timeStepsDynamic.get(i)), "Tiempo Dinámica", "" + i);
-            dataset.addValue((Integer) (memoryStepsDynamic.get(i)), "Memoria Dinámica", "" + i);
-            dataset.addValue((Integer) timeStepsStatic.get(i), "Tiempo Estática", "" + i);
-            dataset.addValue((Integer) memoryStepsStatic.get(i), "Memoria Estática", "" + i);
+            dataset.addValue((Long) (timeStepsDynamic.get(i)), "Tiempo Dinámica", "" + i);
+            dataset.addValue((Long) (memoryStepsDynamic.get(i)), "Memoria Dinámica", "" + i);
+            dataset.addValue((Long) timeStepsStatic.get(i), "Tiempo Estática", "" + i);
+            dataset.addValue((Long) memoryStepsStatic.get(i), "Memoria Estática", "" + i);
         }
     }
 
@@ -0,0 +1,173 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Importador de ficheros de texto con un par por línea, en el formato clave#valor. Si el valor tiene la
+ * forma matricula@color se convierte en una Moto; si no, se guarda como String. Dentro de la clave, el valor,
+ * la matrícula y el color, '\', '#', '@', el salto de línea y el retorno de carro se escriben escapados
+ * (\\, \#, \@, \n y \r), como hace ListaDinamica.escribirFicheroTexto, de modo que solo separan los
+ * caracteres sin escapar. Una barra invertida seguida de otro carácter se conserva tal cual.
+ * <p>
+ * El fichero se lee por un FileChannel en un buffer directo de BUFFER_SIZE bytes y se analiza byte a byte
+ * a medida que llega, sin construir nunca un String con el fichero entero: solo se crean los Strings de
+ * cada clave y cada valor. '#', '@' y el salto de línea son ASCII y no pueden aparecer dentro de un carácter
+ * UTF-8 de varios bytes, así que se buscan directamente en los bytes. Los pares se entregan en lotes de
+ * tamaño fijo (por ejemplo a HashTable.putAll), de modo que la memoria usada no depende del tamaño del
+ * fichero, solo del tamaño del lote y de la línea más larga.
+ */
+public final class TextImporter {
+    private static final int BUFFER_SIZE = 4 << 20; // Tamaño del buffer directo de lectura (4 MiB)
+
+    private TextImporter() {
+    }
+
+    /**
+     * Lee un fichero de texto y entrega sus pares por lotes. Las líneas vacías se ignoran y se admiten
+     * finales de línea \n y \r\n.
+     *
+     * @param ruta      ruta del fichero.
+     * @param batchSize número de pares de cada lote (el último puede tener menos).
+     * @param onBatch   recibe cada lote; el array no se reutiliza, así que puede conservarse.
+     * @return número de pares leídos.
+     * @throws IOException si no se puede leer el fichero o una línea no tiene el separador '#'.
+     */
+    public static long read(String ruta, int batchSize, Consumer<KeyValue[]> onBatch) throws IOException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("El tamaño del lote debe ser positivo: " + batchSize);
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(ruta), StandardOpenOption.READ)) {
+            ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            byte[] line = new byte[256]; // Línea en curso, copiada del buffer directo
+            KeyValue[] batch = new KeyValue[batchSize];
+            int batchEntries = 0;
+            long entries = 0;
+            long lineNumber = 0;
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(in) < 0;
+                in.flip();
+                int start = in.position();
+                int limit = in.limit();
+                for (int i = start; i < limit || (eof && start < limit); i++) {
+                    if (i < limit && in.get(i) != '\n') {
+                        continue;
+                    }
+                    // Línea completa entre start e i (o la última línea del fichero, sin salto final)
+                    int length = Math.min(i, limit) - start;
+                    if (line.length < length) {
+                        line = new byte[Math.max(length, line.length * 2)];
+                    }
+                    in.get(start, line, 0, length);
+                    start = i + 1;
+                    lineNumber++;
+                    KeyValue kv = parse(line, length, lineNumber, ruta);
+                    if (kv == null) {
+                        continue;
+                    }
+                    batch[batchEntries++] = kv;
+                    entries++;
+                    if (batchEntries == batchSize) {
+                        onBatch.accept(batch);
+                        batch = new KeyValue[batchSize];
+                        batchEntries = 0;
+                    }
+                }
+                in.position(Math.min(start, limit));
+                if (in.position() == 0 && in.limit() == in.capacity()) {
+                    // Línea más larga que el buffer: se amplía para que quepa entera
+                    in = ByteBuffer.allocateDirect(in.capacity() * 2).put(in);
+                } else {
+                    in.compact();
+                }
+            }
+            if (batchEntries > 0) {
+                onBatch.accept(Arrays.copyOf(batch, batchEntries));
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Convierte una línea en un par.
+     *
+     * @param line   bytes de la línea, sin el salto de línea.
+     * @param length longitud de la línea.
+     * @return el par, o null si la línea está vacía.
+     * @throws IOException si la línea no tiene el separador '#'.
+     */
+    private static KeyValue parse(byte[] line, int length, long lineNumber, String ruta) throws IOException {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        if (length == 0) {
+            return null;
+        }
+        int hash = indexOfUnescaped(line, 0, length, (byte) '#');
+        if (hash < 0) {
+            throw new IOException("Falta el separador '#' en la línea " + lineNumber + " de " + ruta);
+        }
+        String key = unescape(line, 0, hash);
+        int at = indexOfUnescaped(line, hash + 1, length, (byte) '@');
+        if (at < 0) {
+            return new KeyValue(key, unescape(line, hash + 1, length));
+        }
+        return new KeyValue(key, new Moto(unescape(line, hash + 1, at), unescape(line, at + 1, length)));
+    }
+
+    /**
+     * Busca un byte que no esté escapado con '\'.
+     *
+     * @return posición del byte, o -1 si no está entre from y to.
+     */
+    private static int indexOfUnescaped(byte[] bytes, int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\\') {
+                i++; // El byte siguiente está escapado
+            } else if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Convierte en String un tramo de la línea deshaciendo los escapes. Sin barras invertidas, que es
+     * lo habitual, no copia nada antes de decodificar.
+     */
+    private static String unescape(byte[] bytes, int from, int to) {
+        int backslash = from;
+        while (backslash < to && bytes[backslash] != '\\') {
+            backslash++;
+        }
+        if (backslash == to) {
+            return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+        }
+        byte[] out = new byte[to - from];
+        int length = backslash - from;
+        System.arraycopy(bytes, from, out, 0, length);
+        for (int i = backslash; i < to; i++) {
+            byte b = bytes[i];
+            if (b == '\\' && i + 1 < to) {
+                byte next = bytes[i + 1];
+                if (next == '\\' || next == '#' || next == '@') {
+                    b = next;
+                    i++;
+                } else if (next == 'n') {
+                    b = '\n';
+                    i++;
+                } else if (next == 'r') {
+                    b = '\r';
+                    i++;
+                }
+            }
+            out[length++] = b;
+        }
+        return new String(out, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,208 @@
+import java.io.Serializable;
+import java.util.function.Consumer;
+
+/**
+ * Cubeta en forma de árbol AVL ordenado por (hash, clave). HashTable convierte una cadena
+ * (ListaDinamica o ArrayBucket) en un TreeBucket cuando supera un umbral de longitud, de modo que el peor caso
+ * de get/put/remove en una cubeta pasa de O(n) a O(log n) aunque las claves se concentren
+ * en pocas posiciones.
+ */
+public class TreeBucket implements Bucket {
+    private static final long serialVersionUID = 1L;
+
+    private TreeNode root; // Raíz del árbol
+    private int size; // Número de pares del árbol
+
+    /**
+     * Construye un árbol vacío; los árboles se crean con {@link #of(Bucket)}.
+     */
+    private TreeBucket() {
+    }
+
+    /**
+     * Crea un árbol con los pares de otra cubeta.
+     *
+     * @param bucket cubeta cuyos pares se copian al árbol.
+     * @return el árbol con los pares de la cubeta.
+     */
+    public static TreeBucket of(Bucket bucket) {
+        TreeBucket tree = new TreeBucket();
+        bucket.forEach(tree::putIfAbsent);
+        return tree;
+    }
+
+    @Override
+    public KeyValue find(long hash, String key) {
+        TreeNode node = findNode(hash, key);
+        return node == null ? null : node.kv;
+    }
+
+    @Override
+    public KeyValue putIfAbsent(KeyValue kv) {
+        TreeNode node = findNode(kv.getHash(), kv.getKey());
+        if (node != null) {
+            return node.kv;
+        }
+        root = insert(root, kv);
+        size++;
+        return null;
+    }
+
+    @Override
+    public boolean set(KeyValue kv) {
+        TreeNode node = findNode(kv.getHash(), kv.getKey());
+        if (node == null) {
+            return false;
+        }
+        node.kv = kv;
+        return true;
+    }
+
+    @Override
+    public KeyValue remove(long hash, String key) {
+        TreeNode node = findNode(hash, key);
+        if (node == null) {
+            return null;
+        }
+        KeyValue removed = node.kv;
+        root = delete(root, hash, key);
+        size--;
+        return removed;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<KeyValue> action) {
+        forEach(root, action);
+    }
+
+    private void forEach(TreeNode node, Consumer<KeyValue> action) {
+        if (node != null) {
+            forEach(node.left, action);
+            action.accept(node.kv);
+            forEach(node.right, action);
+        }
+    }
+
+    /**
+     * Compara una clave con la de un par según el orden (hash, clave).
+     */
+    private static int compare(long hash, String key, KeyValue kv) {
+        int c = Long.compare(hash, kv.getHash());
+        return c != 0 ? c : key.compareTo(kv.getKey());
+    }
+
+    private TreeNode findNode(long hash, String key) {
+        TreeNode node = root;
+        // Acotado por la altura: una lectura optimista concurrente (StampedHashTable) nunca queda en un ciclo
+        for (int depth = height(node); node != null && depth > 0; depth--) {
+            int c = compare(hash, key, node.kv);
+            if (c == 0) {
+                return node;
+            }
+            node = c < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private TreeNode insert(TreeNode node, KeyValue kv) {
+        if (node == null) {
+            return new TreeNode(kv);
+        }
+        if (compare(kv.getHash(), kv.getKey(), node.kv) < 0) {
+            node.left = insert(node.left, kv);
+        } else {
+            node.right = insert(node.right, kv);
+        }
+        return balance(node);
+    }
+
+    private TreeNode delete(TreeNode node, long hash, String key) {
+        int c = compare(hash, key, node.kv);
+        if (c < 0) {
+            node.left = delete(node.left, hash, key);
+        } else if (c > 0) {
+            node.right = delete(node.right, hash, key);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Sustituir por el menor del subárbol derecho
+            TreeNode min = node.right;
+            while (min.left != null) {
+                min = min.left;
+            }
+            node.kv = min.kv;
+            node.right = delete(node.right, min.kv.getHash(), min.kv.getKey());
+        }
+        return balance(node);
+    }
+
+    private static int height(TreeNode node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void updateHeight(TreeNode node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    private static TreeNode balance(TreeNode node) {
+        updateHeight(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static TreeNode rotateRight(TreeNode node) {
+        TreeNode left = node.left;
+        node.left = left.right;
+        left.right = node;
+        updateHeight(node);
+        updateHeight(left);
+        return left;
+    }
+
+    private static TreeNode rotateLeft(TreeNode node) {
+        TreeNode right = node.right;
+        node.right = right.left;
+        right.left = node;
+        updateHeight(node);
+        updateHeight(right);
+        return right;
+    }
+
+    /**
+     * Nodo del árbol AVL.
+     */
+    private static class TreeNode implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private KeyValue kv; // Par almacenado en el nodo
+        private TreeNode left; // Subárbol con pares menores
+        private TreeNode right; // Subárbol con pares mayores
+        private int height; // Altura del subárbol
+
+        TreeNode(KeyValue kv) {
+            this.kv = kv;
+            this.height = 1;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+import java.io.Serializable;
+
+/**
+ * Codificación de los valores de una tabla hash como bytes, para guardarlos en ficheros (instantáneas,
+ * registro de escritura anticipada, tablas mapeadas, ficheros por cubeta) o fuera del heap.
+ * Implementa Serializable para que las tablas que la usan puedan serializarse.
+ */
+public interface ValueCodec extends Serializable {
+
+    /**
+     * Codificación binaria compacta con codificadores escritos a mano para los tipos habituales y la
+     * serialización de Java para el resto. Codificación por defecto de las tablas.
+     */
+    ValueCodec COMPACT = new CompactValueCodec();
+
+    /**
+     * Serialización estándar de Java para todos los valores. Mucho más lenta y voluminosa; solo tiene sentido
+     * para leer o escribir ficheros que otros programas esperan en ese formato.
+     */
+    ValueCodec JAVA = new JavaValueCodec();
+
+    /**
+     * Codifica un valor.
+     *
+     * @param value valor a codificar (puede ser null).
+     * @return bytes del valor.
+     * @throws IllegalArgumentException si el valor no se puede codificar (por ejemplo, no es serializable).
+     */
+    byte[] encode(Object value);
+
+    /**
+     * Decodifica un valor escrito por {@link #encode(Object)}.
+     *
+     * @param bytes bytes del valor.
+     * @return el valor.
+     */
+    Object decode(byte[] bytes);
+}
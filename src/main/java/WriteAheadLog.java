@@ -0,0 +1,372 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Registro de escritura anticipada (write-ahead log) de las modificaciones de una tabla hash. Cada
+ * inserción, reemplazo o eliminación se añade al final del fichero como un registro compacto, de modo
+ * que hacer duradero un cambio cuesta escribir un registro y no la tabla entera.
+ * <p>
+ * Cada registro guarda su longitud, el CRC32 de su contenido, el tipo de operación, la clave en UTF-8 y
+ * los bytes del valor (vacío en las eliminaciones), con las longitudes como enteros de longitud variable.
+ * Un registro incompleto o con el CRC32 incorrecto al final del fichero es el rastro de una caída a mitad
+ * de escritura: la reproducción se detiene en él y al abrir el registro se recorta el fichero hasta ahí.
+ * <p>
+ * Los registros se acumulan en memoria y se fuerzan a disco por grupos (group commit): con syncBatch = n,
+ * commit solo llama a force cuando hay al menos n registros sin forzar, y un único force cubre los
+ * registros de todas las hebras añadidos hasta ese momento. Con syncIntervalMillis &gt; 0, además, una hebra
+ * demonio fuerza los registros pendientes con esa periodicidad, lo que acota el tiempo que un cambio puede
+ * pasar sin ser duradero. Varias hebras pueden usar el mismo registro a la vez.
+ */
+public final class WriteAheadLog implements AutoCloseable {
+    private static final int RECORD_HEADER_BYTES = 8; // Longitud y CRC32 del contenido
+    private static final int MAX_RECORD_BYTES = Integer.MAX_VALUE - RECORD_HEADER_BYTES; // Mayor contenido legible
+    private static final int WRITE_THRESHOLD = 64 * 1024; // Bytes pendientes a partir de los cuales se escriben en el canal
+    private static final int READ_BUFFER_SIZE = 1 << 20; // Tamaño del buffer de lectura al reproducir (1 MiB)
+    private static final Operation[] OPERATIONS = Operation.values(); // Tipos de operación por ordinal
+
+    /**
+     * Receptor de los registros durante la reproducción.
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        /**
+         * Recibe un registro.
+         *
+         * @param op    tipo de operación: PUT, REPLACE o REMOVE.
+         * @param key   clave del par.
+         * @param value bytes del valor (vacío en REMOVE).
+         */
+        void accept(Operation op, String key, byte[] value);
+    }
+
+    private final FileChannel channel; // Canal del fichero, posicionado al final
+    private final int syncBatch; // Registros sin forzar a partir de los cuales commit fuerza; 0 para no forzar nunca en commit
+    private final Object syncLock = new Object(); // Serializa las llamadas a force
+    private final CRC32 crc = new CRC32();
+    private final ScheduledExecutorService syncer; // Hebra que fuerza periódicamente, o null
+    private ByteBuffer pending = ByteBuffer.allocate(2 * WRITE_THRESHOLD); // Registros aún no escritos en el canal
+    private long sequence; // Número del último registro añadido
+    private volatile long durable; // Número del último registro forzado a disco
+    private volatile IOException failure; // Error de la hebra de forzado periódico, que se lanza en la siguiente llamada
+    private volatile boolean closed;
+
+    /**
+     * Abre un registro que fuerza cada registro a disco en commit.
+     *
+     * @param ruta ruta del fichero del registro; se crea si no existe.
+     * @throws IOException si no se puede abrir o leer el fichero.
+     */
+    public WriteAheadLog(String ruta) throws IOException {
+        this(ruta, 1, 0);
+    }
+
+    /**
+     * Abre un registro para añadir registros al final. Si el último registro del fichero está incompleto
+     * o dañado, recorta el fichero justo antes de él.
+     *
+     * @param ruta               ruta del fichero del registro; se crea si no existe.
+     * @param syncBatch          registros sin forzar a partir de los cuales commit los fuerza a disco (1 para
+     *                           hacer duradero cada commit); 0 para forzar solo con sync, close o la hebra periódica.
+     * @param syncIntervalMillis periodicidad del forzado en segundo plano en milisegundos; 0 para desactivarlo.
+     * @throws IOException              si no se puede abrir o leer el fichero.
+     * @throws IllegalArgumentException si algún parámetro es negativo.
+     */
+    public WriteAheadLog(String ruta, int syncBatch, long syncIntervalMillis) throws IOException {
+        if (syncBatch < 0 || syncIntervalMillis < 0) {
+            throw new IllegalArgumentException("Parámetros de forzado no válidos: " + syncBatch + ", " + syncIntervalMillis);
+        }
+        this.syncBatch = syncBatch;
+        this.channel = FileChannel.open(Path.of(ruta), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long valid = scan(channel, null);
+            if (valid < channel.size()) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+            channel.position(valid);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        if (syncIntervalMillis > 0) {
+            syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "wal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::backgroundSync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            syncer = null;
+        }
+    }
+
+    /**
+     * Añade un registro. No lo hace duradero: para eso hay que llamar a commit (o a sync).
+     *
+     * @param op    tipo de operación: PUT, REPLACE o REMOVE.
+     * @param key   clave del par.
+     * @param value bytes del valor, o null en REMOVE.
+     * @return número del registro, para pasarlo a commit.
+     * @throws IOException              si falla la escritura, o si falló el último forzado en segundo plano.
+     * @throws IllegalArgumentException si el tipo de operación no modifica la tabla.
+     */
+    public synchronized long append(Operation op, String key, byte[] value) throws IOException {
+        ensureUsable();
+        if (op != Operation.PUT && op != Operation.REPLACE && op != Operation.REMOVE) {
+            throw new IllegalArgumentException("Operación no registrable: " + op);
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int valueLength = value == null ? 0 : value.length;
+        long maxLength = RECORD_HEADER_BYTES + 1L + 5 + keyBytes.length + 5 + valueLength;
+        if (maxLength > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Registro demasiado grande para la clave " + key);
+        }
+        if (pending.remaining() < maxLength) {
+            writePending();
+            if (pending.capacity() < maxLength) {
+                pending = ByteBuffer.allocate((int) maxLength);
+            }
+        }
+        int start = pending.position();
+        pending.position(start + RECORD_HEADER_BYTES);
+        pending.put((byte) op.ordinal());
+        SnapshotFile.putVarInt(pending, keyBytes.length);
+        pending.put(keyBytes);
+        SnapshotFile.putVarInt(pending, valueLength);
+        if (value != null) {
+            pending.put(value);
+        }
+        int length = pending.position() - start - RECORD_HEADER_BYTES;
+        crc.reset();
+        crc.update(pending.array(), start + RECORD_HEADER_BYTES, length);
+        pending.putInt(start, length).putInt(start + 4, (int) crc.getValue());
+        if (pending.position() >= WRITE_THRESHOLD) {
+            writePending();
+        }
+        return ++sequence;
+    }
+
+    /**
+     * Confirma los registros hasta uno dado según la política de forzado: si hay al menos syncBatch registros
+     * sin forzar, los fuerza a disco todos a la vez. Si otra hebra ya los ha forzado, vuelve sin esperar a disco.
+     *
+     * @param seq número de registro devuelto por append.
+     * @throws IOException si falla la escritura o el forzado.
+     */
+    public void commit(long seq) throws IOException {
+        ensureUsable();
+        if (syncBatch == 0 || seq <= durable) {
+            return;
+        }
+        long unsynced;
+        synchronized (this) {
+            unsynced = sequence - durable;
+        }
+        if (unsynced >= syncBatch) {
+            sync(seq);
+        }
+    }
+
+    /**
+     * Fuerza a disco todos los registros añadidos hasta ahora.
+     *
+     * @throws IOException si falla la escritura o el forzado.
+     */
+    public void sync() throws IOException {
+        long seq;
+        synchronized (this) {
+            ensureUsable();
+            seq = sequence;
+        }
+        sync(seq);
+    }
+
+    /**
+     * Fuerza a disco los registros hasta uno dado, junto con los que se hayan añadido antes de empezar
+     * el forzado. Los registros se escriben en el canal dentro del monitor del registro, pero el force
+     * se hace fuera, de modo que otras hebras siguen añadiendo mientras tanto.
+     */
+    private void sync(long seq) throws IOException {
+        synchronized (syncLock) {
+            if (seq <= durable) {
+                return; // Otra hebra ya los ha forzado
+            }
+            long target;
+            synchronized (this) {
+                writePending();
+                target = sequence;
+            }
+            channel.force(false);
+            durable = target;
+        }
+    }
+
+    /**
+     * Forzado periódico de la hebra demonio. Un error se guarda y se lanza en la siguiente llamada.
+     */
+    private void backgroundSync() {
+        try {
+            if (durable < currentSequence()) {
+                sync();
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private synchronized long currentSequence() {
+        return sequence;
+    }
+
+    /**
+     * Escribe en el canal los registros pendientes, sin forzarlos a disco.
+     */
+    private void writePending() throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) {
+            channel.write(pending);
+        }
+        pending.clear();
+    }
+
+    private void ensureUsable() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("El registro ya está cerrado");
+        }
+        IOException e = failure;
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    /**
+     * Vacía el registro, por ejemplo después de guardar una instantánea que ya contiene todos sus cambios.
+     *
+     * @throws IOException si no se puede recortar el fichero.
+     */
+    public void truncate() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                ensureUsable();
+                pending.clear();
+                channel.truncate(0);
+                channel.position(0);
+                channel.force(true);
+                durable = sequence;
+            }
+        }
+    }
+
+    /**
+     * Obtiene el tamaño del fichero del registro, incluidos los registros aún no escritos en él.
+     *
+     * @return tamaño en bytes.
+     * @throws IOException si no se puede consultar el fichero.
+     */
+    public synchronized long size() throws IOException {
+        return channel.size() + pending.position();
+    }
+
+    /**
+     * Fuerza a disco los registros pendientes, detiene el forzado periódico y cierra el fichero.
+     * Cerrar un registro ya cerrado no hace nada.
+     *
+     * @throws IOException si falla el último forzado.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        try (channel) {
+            sync();
+        } finally {
+            synchronized (this) {
+                closed = true;
+            }
+        }
+    }
+
+    /**
+     * Reproduce en orden los registros de un fichero, hasta el final o hasta el primer registro incompleto
+     * o dañado. Si el fichero no existe, no hace nada.
+     *
+     * @param ruta     ruta del fichero del registro.
+     * @param consumer receptor de los registros.
+     * @throws IOException si no se puede leer el fichero.
+     */
+    public static void replay(String ruta, RecordConsumer consumer) throws IOException {
+        Path path = Path.of(ruta);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            scan(channel, consumer);
+        }
+    }
+
+    /**
+     * Recorre los registros de un canal desde el principio.
+     *
+     * @param consumer receptor de los registros, o null para solo validarlos.
+     * @return longitud de la parte válida del fichero.
+     */
+    private static long scan(FileChannel channel, RecordConsumer consumer) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel.position(0)), READ_BUFFER_SIZE));
+        CRC32 crc = new CRC32();
+        long valid = 0;
+        long size = channel.size();
+        while (true) {
+            byte[] body;
+            try {
+                int length = in.readInt();
+                int expected = in.readInt();
+                if (length < 1 || length > size - valid - RECORD_HEADER_BYTES) {
+                    return valid; // Longitud imposible: cabecera del registro dañada
+                }
+                body = new byte[length];
+                in.readFully(body);
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != expected) {
+                    return valid;
+                }
+            } catch (EOFException e) {
+                return valid; // Registro incompleto
+            }
+            if (consumer != null) {
+                ByteBuffer record = ByteBuffer.wrap(body);
+                int op = record.get();
+                if (op < 0 || op >= OPERATIONS.length) {
+                    throw new IOException("Tipo de operación desconocido en el registro: " + op);
+                }
+                byte[] key = new byte[SnapshotFile.getVarInt(record)];
+                record.get(key);
+                byte[] value = new byte[SnapshotFile.getVarInt(record)];
+                record.get(value);
+                consumer.accept(OPERATIONS[op], new String(key, StandardCharsets.UTF_8), value);
+            }
+            valid += RECORD_HEADER_BYTES + body.length;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Implementación de wyhash (versión final 4) sobre las unidades UTF-16 de la clave,
+ * equivalente a aplicar el algoritmo sobre los bytes UTF-16LE del String.
+ * Todas las posiciones se expresan en bytes; al ser la longitud siempre par,
+ * las lecturas de 4 y 8 bytes caen en límites de carácter.
+ */
+public class WyHash implements HashFunction {
+    private static final long serialVersionUID = 1L;
+
+    private static final long S0 = 0x2d358dccaa6c78a5L;
+    private static final long S1 = 0x8bb84b93962eacc9L;
+    private static final long S2 = 0x4b33a62ed433d4a3L;
+    private static final long S3 = 0x4d5a2da51de1aa47L;
+    private final long seed; // Semilla del hash
+
+    /**
+     * Constructor con semilla 0.
+     */
+    public WyHash() {
+        this(0);
+    }
+
+    /**
+     * Constructor con una semilla dada.
+     *
+     * @param seed semilla del hash.
+     */
+    public WyHash(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public long hash(String key) {
+        int len = key.length() * 2; // Longitud en bytes
+        long s = seed ^ mix(seed ^ S0, S1);
+        long a;
+        long b;
+
+        if (len <= 16) {
+            if (len >= 4) {
+                int off = (len >>> 3) << 2;
+                a = (r4(key, 0) << 32) | r4(key, off);
+                b = (r4(key, len - 4) << 32) | r4(key, len - 4 - off);
+            } else if (len > 0) {
+                // Un solo carácter: equivale a _wyr3 sobre sus dos bytes
+                char c = key.charAt(0);
+                long lo = c & 0xFF;
+                long hi = c >>> 8;
+                a = (lo << 16) | (hi << 8) | hi;
+                b = 0;
+            } else {
+                a = 0;
+                b = 0;
+            }
+        } else {
+            int p = 0;
+            int i = len;
+            if (i >= 48) {
+                long see1 = s;
+                long see2 = s;
+                do {
+                    s = mix(r8(key, p) ^ S1, r8(key, p + 8) ^ s);
+                    see1 = mix(r8(key, p + 16) ^ S2, r8(key, p + 24) ^ see1);
+                    see2 = mix(r8(key, p + 32) ^ S3, r8(key, p + 40) ^ see2);
+                    p += 48;
+                    i -= 48;
+                } while (i >= 48);
+                s ^= see1 ^ see2;
+            }
+            while (i > 16) {
+                s = mix(r8(key, p) ^ S1, r8(key, p + 8) ^ s);
+                i -= 16;
+                p += 16;
+            }
+            a = r8(key, p + i - 16);
+            b = r8(key, p + i - 8);
+        }
+
+        a ^= S1;
+        b ^= s;
+        long lo = a * b;
+        long hi = Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a); // Producto sin signo
+        return mix(lo ^ S0 ^ len, hi ^ S1);
+    }
+
+    /**
+     * Multiplica dos valores de 64 bits como enteros sin signo y combina las dos mitades del resultado.
+     */
+    private static long mix(long a, long b) {
+        long lo = a * b;
+        long hi = Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+        return lo ^ hi;
+    }
+
+    /**
+     * Lee 8 bytes a partir de una posición par en bytes.
+     */
+    private static long r8(String s, int byteOff) {
+        int i = byteOff >>> 1;
+        return (long) s.charAt(i)
+                | (long) s.charAt(i + 1) << 16
+                | (long) s.charAt(i + 2) << 32
+                | (long) s.charAt(i + 3) << 48;
+    }
+
+    /**
+     * Lee 4 bytes sin signo a partir de una posición par en bytes.
+     */
+    private static long r4(String s, int byteOff) {
+        int i = byteOff >>> 1;
+        return (long) s.charAt(i) | (long) s.charAt(i + 1) << 16;
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Implementación de xxHash64 sobre las unidades UTF-16 de la clave,
+ * equivalente a aplicar el algoritmo sobre los bytes UTF-16LE del String.
+ */
+public class XxHash64 implements HashFunction {
+    private static final long serialVersionUID = 1L;
+
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+    private final long seed; // Semilla del hash
+
+    /**
+     * Constructor con semilla 0.
+     */
+    public XxHash64() {
+        this(0);
+    }
+
+    /**
+     * Constructor con una semilla dada.
+     *
+     * @param seed semilla del hash.
+     */
+    public XxHash64(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public long hash(String key) {
+        int len = key.length();
+        int i = 0;
+        long h;
+
+        // Franjas de 32 bytes (16 caracteres) en cuatro acumuladores
+        if (len >= 16) {
+            long v1 = seed + P1 + P2;
+            long v2 = seed + P2;
+            long v3 = seed;
+            long v4 = seed - P1;
+            do {
+                v1 = round(v1, getLong(key, i));
+                v2 = round(v2, getLong(key, i + 4));
+                v3 = round(v3, getLong(key, i + 8));
+                v4 = round(v4, getLong(key, i + 12));
+                i += 16;
+            } while (i + 16 <= len);
+
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+        } else {
+            h = seed + P5;
+        }
+
+        h += len * 2L; // Longitud en bytes
+
+        for (; i + 4 <= len; i += 4) {
+            h ^= round(0, getLong(key, i));
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+        }
+        if (i + 2 <= len) {
+            long k = ((long) key.charAt(i) | (long) key.charAt(i + 1) << 16) & 0xFFFFFFFFL;
+            h ^= k * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+            i += 2;
+        }
+        if (i < len) {
+            char c = key.charAt(i);
+            h ^= (c & 0xFF) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+            h ^= (c >>> 8) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+        }
+
+        // Avalancha final
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * P2;
+        acc = Long.rotateLeft(acc, 31);
+        acc *= P1;
+        return acc;
+    }
+
+    private static long mergeRound(long acc, long val) {
+        acc ^= round(0, val);
+        return acc * P1 + P4;
+    }
+
+    /**
+     * Lee 4 caracteres consecutivos como un long en orden little-endian.
+     */
+    private static long getLong(String s, int i) {
+        return (long) s.charAt(i)
+                | (long) s.charAt(i + 1) << 16
+                | (long) s.charAt(i + 2) << 32
+                | (long) s.charAt(i + 3) << 48;
+    }
+}